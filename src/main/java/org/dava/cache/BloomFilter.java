@@ -0,0 +1,73 @@
+package org.dava.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter over strings.
+ *
+ * <p>A negative answer is always correct, while a positive one may be a false positive, at a rate
+ * close to the configured one as long as no more than the expected number of values are added.
+ */
+class BloomFilter {
+  private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+  private static final long FNV_PRIME = 0x100000001B3L;
+
+  private final AtomicLongArray bits;
+  private final long bitCount;
+  private final int hashCount;
+
+  BloomFilter(long expectedValues, double falsePositiveRate) {
+    long values = Math.max(1, expectedValues);
+    long optimalBits = (long) (-values * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+
+    this.bits = new AtomicLongArray(Math.toIntExact(Math.max(1, (optimalBits + 63) / 64)));
+    this.bitCount = bits.length() * 64L;
+    this.hashCount = Math.max(1, (int) Math.round((double) bitCount / values * Math.log(2)));
+  }
+
+  void put(String value) {
+    long hash = hash(value);
+    int first = (int) hash;
+    int second = (int) (hash >>> 32);
+
+    for (int i = 1; i <= hashCount; i++) {
+      long index = Math.floorMod(first + (long) i * second, bitCount);
+      long mask = 1L << index;
+      int word = (int) (index >>> 6);
+
+      long current;
+      while (((current = bits.get(word)) & mask) == 0
+          && !bits.compareAndSet(word, current, current | mask)) {
+        // retry until the bit is set
+      }
+    }
+  }
+
+  boolean mightContain(String value) {
+    long hash = hash(value);
+    int first = (int) hash;
+    int second = (int) (hash >>> 32);
+
+    for (int i = 1; i <= hashCount; i++) {
+      long index = Math.floorMod(first + (long) i * second, bitCount);
+      if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private static long hash(String value) {
+    long hash = FNV_OFFSET_BASIS;
+    for (int i = 0; i < value.length(); i++) {
+      hash ^= value.charAt(i);
+      hash *= FNV_PRIME;
+    }
+
+    hash ^= hash >>> 33;
+    hash *= 0xFF51AFD7ED558CCDL;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
@@ -0,0 +1,84 @@
+package org.dava.cache;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import org.springframework.core.io.AbstractResource;
+
+/**
+ * Read-only {@link org.springframework.core.io.Resource} over a {@link ByteBuffer}.
+ *
+ * <p>Every stream works on its own view of the buffer, so a single (possibly direct) buffer can be
+ * served to many concurrent requests without being copied onto the heap.
+ */
+public class ByteBufferResource extends AbstractResource {
+  private final ByteBuffer buffer;
+
+  public ByteBufferResource(ByteBuffer buffer) {
+    this.buffer = buffer.asReadOnlyBuffer();
+  }
+
+  @Override
+  public String getDescription() {
+    return "Byte buffer resource [" + buffer.remaining() + " bytes]";
+  }
+
+  @Override
+  public InputStream getInputStream() {
+    return new ByteBufferInputStream(buffer.duplicate());
+  }
+
+  @Override
+  public long contentLength() {
+    return buffer.remaining();
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return this == other
+        || (other instanceof ByteBufferResource that && buffer.equals(that.buffer));
+  }
+
+  @Override
+  public int hashCode() {
+    return buffer.hashCode();
+  }
+
+  private static class ByteBufferInputStream extends InputStream {
+    private final ByteBuffer buffer;
+
+    ByteBufferInputStream(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) {
+      if (length == 0) {
+        return 0;
+      }
+      if (!buffer.hasRemaining()) {
+        return -1;
+      }
+
+      int count = Math.min(length, buffer.remaining());
+      buffer.get(bytes, offset, count);
+      return count;
+    }
+
+    @Override
+    public long skip(long n) {
+      int count = (int) Math.max(0, Math.min(n, buffer.remaining()));
+      buffer.position(buffer.position() + count);
+      return count;
+    }
+
+    @Override
+    public int available() {
+      return buffer.remaining();
+    }
+  }
+}
@@ -0,0 +1,22 @@
+package org.dava.cache;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Cached view of an uploaded file: its metadata and, for files small enough to be kept in memory,
+ * its content in an off-heap buffer.
+ */
+@Getter
+@AllArgsConstructor
+public class CachedFile {
+  private final String contentType;
+  private final long size;
+  private final String digest;
+  private final LocalDateTime lastModified;
+
+  /** The file content, or {@code null} if the file is too large to be cached in memory. */
+  private final ByteBuffer content;
+}
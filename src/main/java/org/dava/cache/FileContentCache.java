@@ -0,0 +1,313 @@
+package org.dava.cache;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import org.dava.response.CacheStatsResponse;
+import org.dava.util.ContentHelper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Size-bounded in-memory cache of recently served files, keyed by file name.
+ *
+ * <p>The cache is bounded by the total number of bytes it holds rather than by its number of
+ * entries. Content is kept in direct (off-heap) buffers, while files larger than the configured
+ * entry limit are cached as metadata only, so their lookups still skip the database.
+ *
+ * <p>Eviction is frequency aware: entries are kept in least-recently-used order, but a new entry
+ * only displaces the eldest entries if it has been requested more often than them recently. This
+ * keeps a burst of one-off requests from flushing the images of a running game.
+ *
+ * <p>Files uploaded under different names with identical content share a single buffer, which is
+ * charged against the byte budget only once and is only freed by evicting all the names using it.
+ *
+ * <p>Concurrent misses for the same name are coalesced, so only one of them reaches the loader.
+ */
+@Component
+public class FileContentCache {
+  private static final long ENTRY_OVERHEAD_BYTES = 256;
+
+  private final long maxBytes;
+  private final long maxEntryBytes;
+
+  private final LinkedHashMap<String, CachedFile> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final Map<String, SharedContent> contents = new HashMap<>();
+  private final Map<String, CompletableFuture<CachedFile>> loading = new ConcurrentHashMap<>();
+  private final FrequencySketch sketch;
+
+  private long usedBytes;
+  private long hitCount;
+  private long missCount;
+  private long evictionCount;
+
+  /** Content buffer shared by all cached names with the same digest. */
+  private static class SharedContent {
+    private final ByteBuffer buffer;
+    private int references;
+
+    SharedContent(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+  }
+
+  /** Loads a file that is not cached yet. */
+  @FunctionalInterface
+  public interface Loader {
+    CachedFile load(String name) throws FileNotFoundException;
+  }
+
+  /**
+   * Creates a cache with the configured byte budget.
+   *
+   * @param maxSizeMb the total size of the cache in MB; {@code 0} disables caching
+   * @param maxEntrySizeKb the size in KB above which file content is not kept in memory
+   */
+  public FileContentCache(
+      @Value("${files.cache.max-size-mb:64}") long maxSizeMb,
+      @Value("${files.cache.max-entry-size-kb:1024}") long maxEntrySizeKb) {
+
+    this.maxBytes = maxSizeMb * ContentHelper.BYTES_PER_MB;
+    this.maxEntryBytes = Math.min(maxEntrySizeKb * 1024L, maxBytes);
+    this.sketch = new FrequencySketch((int) Math.min(Integer.MAX_VALUE, maxBytes / 16_384));
+  }
+
+  /**
+   * Returns the cached file with the given name, loading and caching it on a miss.
+   *
+   * @param name the file name
+   * @param loader invoked on a miss; concurrent misses for the same name share one invocation
+   * @return the cached file
+   * @throws FileNotFoundException if the loader could not find the file
+   */
+  public CachedFile get(String name, Loader loader) throws FileNotFoundException {
+    CachedFile cached = getIfPresent(name);
+    if (cached != null) {
+      return cached;
+    }
+
+    CompletableFuture<CachedFile> future = new CompletableFuture<>();
+    CompletableFuture<CachedFile> pending = loading.putIfAbsent(name, future);
+    if (pending != null) {
+      return await(pending);
+    }
+
+    try {
+      CachedFile loaded = peek(name);
+      if (loaded == null) {
+        loaded = loader.load(name);
+        put(name, loaded);
+      }
+      future.complete(loaded);
+      return loaded;
+    } catch (FileNotFoundException | RuntimeException e) {
+      future.completeExceptionally(e);
+      throw e;
+    } finally {
+      loading.remove(name, future);
+    }
+  }
+
+  /**
+   * Returns the cached file with the given name without counting the lookup as a request.
+   *
+   * @param name the file name
+   * @return the cached file, or {@code null} if it is not cached
+   */
+  public synchronized CachedFile peek(String name) {
+    return entries.get(name);
+  }
+
+  public synchronized CachedFile getIfPresent(String name) {
+    sketch.increment(name);
+
+    CachedFile cached = entries.get(name);
+    if (cached != null) {
+      hitCount++;
+    } else {
+      missCount++;
+    }
+
+    return cached;
+  }
+
+  /**
+   * Adds a file to the cache if it is worth more than the entries it would have to evict.
+   *
+   * <p>If the content of another cached file has the same digest, its buffer is reused instead.
+   *
+   * @param name the file name
+   * @param file the file to cache
+   */
+  public synchronized void put(String name, CachedFile file) {
+    invalidate(name);
+
+    SharedContent shared = file.getContent() != null ? contents.get(file.getDigest()) : null;
+    if (shared != null) {
+      file =
+          new CachedFile(
+              file.getContentType(),
+              file.getSize(),
+              file.getDigest(),
+              file.getLastModified(),
+              shared.buffer);
+    }
+
+    long weight = ENTRY_OVERHEAD_BYTES + (shared == null ? contentBytes(file) : 0);
+    if (weight > maxBytes) {
+      return;
+    }
+
+    int candidateFrequency = sketch.frequency(name);
+    String candidateDigest = file.getContent() != null ? file.getDigest() : null;
+    List<String> victims = new ArrayList<>();
+    Map<String, Integer> releasedReferences = new HashMap<>();
+    long projectedBytes = usedBytes + weight;
+
+    for (Map.Entry<String, CachedFile> eldest : entries.entrySet()) {
+      if (projectedBytes <= maxBytes) {
+        break;
+      }
+      if (sketch.frequency(eldest.getKey()) > candidateFrequency) {
+        return;
+      }
+
+      victims.add(eldest.getKey());
+      projectedBytes -= ENTRY_OVERHEAD_BYTES;
+
+      // A buffer is only freed once its last name goes, and not at all if the candidate reuses it.
+      CachedFile victim = eldest.getValue();
+      SharedContent content = victim.getContent() != null ? contents.get(victim.getDigest()) : null;
+      if (content != null
+          && releasedReferences.merge(victim.getDigest(), 1, Integer::sum) == content.references
+          && !victim.getDigest().equals(candidateDigest)) {
+        projectedBytes -= content.buffer.capacity();
+      }
+    }
+
+    if (projectedBytes > maxBytes) {
+      return;
+    }
+
+    for (String victim : victims) {
+      invalidate(victim);
+      evictionCount++;
+    }
+
+    entries.put(name, file);
+    usedBytes += ENTRY_OVERHEAD_BYTES;
+    retain(file);
+  }
+
+  public synchronized void invalidate(String name) {
+    CachedFile removed = entries.remove(name);
+    if (removed != null) {
+      usedBytes -= ENTRY_OVERHEAD_BYTES;
+      release(removed);
+    }
+  }
+
+  /**
+   * Returns the cached content with the given digest, regardless of the name it was cached under.
+   *
+   * @param digest the content digest
+   * @return a buffer with the content, or {@code null} if it is not cached
+   */
+  public synchronized ByteBuffer getContent(String digest) {
+    SharedContent shared = contents.get(digest);
+    return shared != null ? shared.buffer : null;
+  }
+
+  /**
+   * Tells whether content of the given size should be kept in memory.
+   *
+   * @param size the content size in bytes
+   * @return {@code true} if the content fits within the per-entry limit
+   */
+  public boolean isCacheable(long size) {
+    return size <= maxEntryBytes;
+  }
+
+  /**
+   * Copies the content of a {@link Resource} into a direct buffer, reading it through its channel.
+   *
+   * @param resource the resource to read
+   * @param size the expected content size
+   * @return a direct buffer ready to be read
+   * @throws IOException if the resource could not be read
+   */
+  public static ByteBuffer readContent(Resource resource, long size) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(Math.toIntExact(size));
+
+    try (ReadableByteChannel channel = resource.readableChannel()) {
+      while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+        // keep reading until the buffer is full or the channel is exhausted
+      }
+    }
+
+    return buffer.flip();
+  }
+
+  public synchronized CacheStatsResponse getStats() {
+    long requestCount = hitCount + missCount;
+
+    return CacheStatsResponse.builder()
+        .hitCount(hitCount)
+        .missCount(missCount)
+        .evictionCount(evictionCount)
+        .hitRate(requestCount == 0 ? 0 : (double) hitCount / requestCount)
+        .entryCount(entries.size())
+        .usedBytes(usedBytes)
+        .maxBytes(maxBytes)
+        .build();
+  }
+
+  private void retain(CachedFile file) {
+    if (file.getContent() == null) {
+      return;
+    }
+
+    SharedContent shared =
+        contents.computeIfAbsent(file.getDigest(), digest -> new SharedContent(file.getContent()));
+    if (shared.references++ == 0) {
+      usedBytes += contentBytes(file);
+    }
+  }
+
+  private void release(CachedFile file) {
+    SharedContent shared = file.getContent() != null ? contents.get(file.getDigest()) : null;
+    if (shared != null && --shared.references == 0) {
+      contents.remove(file.getDigest());
+      usedBytes -= contentBytes(file);
+    }
+  }
+
+  private static long contentBytes(CachedFile file) {
+    return file.getContent() != null ? file.getContent().capacity() : 0;
+  }
+
+  private static CachedFile await(CompletableFuture<CachedFile> pending)
+      throws FileNotFoundException {
+    try {
+      return pending.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof FileNotFoundException notFound) {
+        throw notFound;
+      }
+      if (e.getCause() instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      throw e;
+    }
+  }
+}
@@ -0,0 +1,79 @@
+package org.dava.cache;
+
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.dava.dao.FileRepository;
+import org.dava.response.FileResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory Bloom filter of the names of uploaded files.
+ *
+ * <p>It lets uploads of names that were certainly never used skip the existence query. Names that
+ * might be taken still have to be checked against the database, since the filter may return false
+ * positives. The filter is filled from the {@code files} table once the application is ready; until
+ * then every name is reported as possibly taken.
+ */
+@Slf4j
+@Component
+public class FileNameFilter {
+  private static final int LOAD_PAGE_SIZE = 1000;
+
+  private final FileRepository fileRepository;
+  private final BloomFilter filter;
+  private volatile boolean loaded;
+
+  /**
+   * Creates an empty filter sized for the expected number of files.
+   *
+   * @param fileRepository the repository the existing names are loaded from
+   * @param expectedNames the number of names the filter is sized for
+   * @param falsePositiveRate the rate of false positives expected at that number of names
+   */
+  public FileNameFilter(
+      FileRepository fileRepository,
+      @Value("${files.name-filter.expected-names:100000}") long expectedNames,
+      @Value("${files.name-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+
+    this.fileRepository = fileRepository;
+    this.filter = new BloomFilter(expectedNames, falsePositiveRate);
+  }
+
+  /** Adds the names of all stored files to the filter, reading them page by page. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() {
+    long after = 0;
+    long count = 0;
+    List<FileResponse> page;
+
+    do {
+      page = fileRepository.findPageAfter(after, Limit.of(LOAD_PAGE_SIZE));
+      for (FileResponse file : page) {
+        filter.put(file.getName());
+        after = file.getId();
+      }
+      count += page.size();
+    } while (page.size() == LOAD_PAGE_SIZE);
+
+    loaded = true;
+    log.info("Loaded {} file names into the name filter", count);
+  }
+
+  /**
+   * Tells whether a file with the given name might have been uploaded.
+   *
+   * @param name the file name
+   * @return {@code false} if no file with this name was uploaded; {@code true} if one might have
+   */
+  public boolean mightContain(String name) {
+    return !loaded || filter.mightContain(name);
+  }
+
+  public void add(String name) {
+    filter.put(name);
+  }
+}
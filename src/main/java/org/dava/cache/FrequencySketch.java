@@ -0,0 +1,68 @@
+package org.dava.cache;
+
+/**
+ * Approximate access frequency counter (count-min sketch) used to decide whether a new cache entry
+ * is worth more than the entry it would evict.
+ *
+ * <p>Counters saturate at {@value #MAX_FREQUENCY} and are halved periodically, so frequencies
+ * reflect recent popularity rather than all-time totals. Instances are not thread-safe and are
+ * expected to be guarded by the owning cache.
+ */
+class FrequencySketch {
+  private static final int MAX_FREQUENCY = 15;
+  private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+  private final int[][] counters;
+  private final int mask;
+  private final int sampleSize;
+  private int additions;
+
+  FrequencySketch(int expectedEntries) {
+    int width = Integer.highestOneBit(Math.max(expectedEntries, 16) - 1) << 1;
+
+    this.counters = new int[SEEDS.length][width];
+    this.mask = width - 1;
+    this.sampleSize = width * 10;
+  }
+
+  void increment(Object key) {
+    int hash = key.hashCode();
+
+    for (int row = 0; row < SEEDS.length; row++) {
+      int index = indexOf(hash, row);
+      if (counters[row][index] < MAX_FREQUENCY) {
+        counters[row][index]++;
+      }
+    }
+
+    if (++additions >= sampleSize) {
+      halve();
+    }
+  }
+
+  int frequency(Object key) {
+    int hash = key.hashCode();
+    int frequency = MAX_FREQUENCY;
+
+    for (int row = 0; row < SEEDS.length; row++) {
+      frequency = Math.min(frequency, counters[row][indexOf(hash, row)]);
+    }
+
+    return frequency;
+  }
+
+  private int indexOf(int hash, int row) {
+    int h = hash * SEEDS[row];
+    h ^= h >>> 16;
+    return h & mask;
+  }
+
+  private void halve() {
+    for (int[] row : counters) {
+      for (int i = 0; i < row.length; i++) {
+        row[i] >>>= 1;
+      }
+    }
+    additions /= 2;
+  }
+}
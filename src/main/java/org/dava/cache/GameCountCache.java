@@ -0,0 +1,69 @@
+package org.dava.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Approximate game counts, kept per combination of listing filters.
+ *
+ * <p>A count is reused until it is older than the configured time to live and is then recounted by
+ * the next request that asks for it, so listings asking for approximate totals run at most one
+ * count query per filter combination and period. Only the most recently used combinations are kept.
+ */
+@Component
+public class GameCountCache {
+  private final long ttlNanos;
+  private final Map<Map<String, Object>, Count> counts;
+
+  private record Count(long value, long countedAt) {}
+
+  /**
+   * Creates an empty cache.
+   *
+   * @param ttlSeconds how long a count is reused before it is recounted
+   * @param maxEntries the number of filter combinations kept
+   */
+  public GameCountCache(
+      @Value("${games.count-cache.ttl-seconds:60}") long ttlSeconds,
+      @Value("${games.count-cache.max-entries:1000}") int maxEntries) {
+
+    this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+    this.counts =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<Map<String, Object>, Count> eldest) {
+            return size() > maxEntries;
+          }
+        };
+  }
+
+  /**
+   * Returns the count for the given filters, counting again if it is missing or expired.
+   *
+   * @param filters the filters the count applies to
+   * @param counter computes the exact count; invoked outside the cache lock
+   * @return the cached or newly computed count
+   */
+  public long get(Map<String, Object> filters, LongSupplier counter) {
+    Map<String, Object> key = Map.copyOf(filters);
+
+    synchronized (this) {
+      Count count = counts.get(key);
+      if (count != null && System.nanoTime() - count.countedAt() < ttlNanos) {
+        return count.value();
+      }
+    }
+
+    long value = counter.getAsLong();
+
+    synchronized (this) {
+      counts.put(key, new Count(value, System.nanoTime()));
+    }
+
+    return value;
+  }
+}
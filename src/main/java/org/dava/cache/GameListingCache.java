@@ -0,0 +1,167 @@
+package org.dava.cache;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.dava.dao.GameSpecification;
+import org.dava.domain.Game;
+import org.dava.enumeration.CountMode;
+import org.dava.response.CacheStatsResponse;
+import org.dava.response.GameResponse;
+import org.dava.response.PageResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Read-through cache of game listing pages, keyed by the pagination and the exact query parameters
+ * of the request.
+ *
+ * <p>Pages expire after the configured time to live. Before that, writing a game invalidates the
+ * pages it could change: those that list it, and those whose filters it matches before or after the
+ * write, since it may enter or leave them and shift their totals. Pages being loaded while a write
+ * happens are not cached, so an invalidation is never overwritten by an older result.
+ */
+@Component
+public class GameListingCache {
+  private final long ttlNanos;
+  private final Map<Key, Entry> entries;
+
+  private long hitCount;
+  private long missCount;
+  private long evictionCount;
+  private long invalidations;
+
+  private record Key(int page, int size, CountMode countMode, Map<String, Object> parameters) {}
+
+  private record Entry(
+      PageResponse<GameResponse> page,
+      Map<String, Object> filters,
+      Set<Long> gameIds,
+      long cachedAt) {}
+
+  /**
+   * Creates an empty cache.
+   *
+   * @param ttlSeconds how long a page is served from the cache; {@code 0} disables caching
+   * @param maxEntries the number of pages kept
+   */
+  public GameListingCache(
+      @Value("${games.listing-cache.ttl-seconds:30}") long ttlSeconds,
+      @Value("${games.listing-cache.max-entries:1000}") int maxEntries) {
+
+    this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+    this.entries =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            if (size() > maxEntries) {
+              evictionCount++;
+              return true;
+            }
+            return false;
+          }
+        };
+  }
+
+  /**
+   * Returns the cached listing page for the request, loading and caching it on a miss.
+   *
+   * @param page the page number
+   * @param size the page size
+   * @param countMode how the totals of the page are computed
+   * @param parameters all query parameters of the request, which make up the cache key
+   * @param filters the validated filters of the request, matched against written games
+   * @param loader loads the page on a miss
+   * @return the cached or newly loaded page
+   */
+  public PageResponse<GameResponse> get(
+      int page,
+      int size,
+      CountMode countMode,
+      Map<String, Object> parameters,
+      Map<String, Object> filters,
+      Supplier<PageResponse<GameResponse>> loader) {
+    if (ttlNanos <= 0) {
+      return loader.get();
+    }
+
+    Key key = new Key(page, size, countMode, Map.copyOf(parameters));
+    long invalidationsBefore;
+
+    synchronized (this) {
+      Entry entry = entries.get(key);
+      if (entry != null && System.nanoTime() - entry.cachedAt() < ttlNanos) {
+        hitCount++;
+        return entry.page();
+      }
+      if (entry != null) {
+        entries.remove(key);
+        evictionCount++;
+      }
+      missCount++;
+      invalidationsBefore = invalidations;
+    }
+
+    PageResponse<GameResponse> loaded = loader.get();
+
+    synchronized (this) {
+      if (invalidations == invalidationsBefore) {
+        entries.put(
+            key,
+            new Entry(
+                loaded, Map.copyOf(filters), gameIds(loaded.getContent()), System.nanoTime()));
+      }
+    }
+
+    return loaded;
+  }
+
+  /**
+   * Invalidates the cached pages a write of games could change.
+   *
+   * @param games the written games, such as the state of a game before and after an update
+   */
+  public synchronized void invalidate(Game... games) {
+    invalidations++;
+
+    Iterator<Entry> iterator = entries.values().iterator();
+    while (iterator.hasNext()) {
+      Entry entry = iterator.next();
+      for (Game game : games) {
+        if (entry.gameIds().contains(game.getId())
+            || GameSpecification.matches(entry.filters(), game)) {
+          iterator.remove();
+          break;
+        }
+      }
+    }
+  }
+
+  public synchronized void invalidateAll() {
+    invalidations++;
+    entries.clear();
+  }
+
+  public synchronized CacheStatsResponse getStats() {
+    long requestCount = hitCount + missCount;
+
+    return CacheStatsResponse.builder()
+        .hitCount(hitCount)
+        .missCount(missCount)
+        .evictionCount(evictionCount)
+        .hitRate(requestCount == 0 ? 0 : (double) hitCount / requestCount)
+        .entryCount(entries.size())
+        .build();
+  }
+
+  private static Set<Long> gameIds(Collection<GameResponse> games) {
+    return games == null
+        ? Set.of()
+        : games.stream().map(GameResponse::getId).collect(Collectors.toSet());
+  }
+}
@@ -0,0 +1,104 @@
+package org.dava.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+import org.dava.dto.UploadCompleteRequest;
+import org.dava.dto.UploadSessionRequest;
+import org.dava.response.FileUploadResponse;
+import org.dava.response.UploadSessionResponse;
+import org.dava.service.ChunkedUploadService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller that exposes endpoints for uploading files in several chunks.
+ *
+ * <p>A client starts a session, sends the file in consecutive chunks, each tagged with its offset,
+ * and completes the session with the digest of the whole file. If a chunk fails, the client reads
+ * the session offset and resumes from there instead of restarting the upload.
+ */
+@RestController
+@RequestMapping("/api/uploads")
+@AllArgsConstructor
+public class ChunkedUploadController {
+  private final ChunkedUploadService chunkedUploadService;
+
+  /**
+   * Starts a chunked upload.
+   *
+   * @param request the name, content type and size of the file to upload
+   * @return a {@link ResponseEntity} containing the new {@link UploadSessionResponse}
+   */
+  @PostMapping
+  public ResponseEntity<@NonNull UploadSessionResponse> start(
+      @RequestBody UploadSessionRequest request) {
+
+    UploadSessionResponse response = chunkedUploadService.start(request);
+
+    return ResponseEntity.status(HttpStatus.CREATED).body(response);
+  }
+
+  /**
+   * Retrieves the state of a chunked upload, including the offset to resume from.
+   *
+   * @param id the upload session id
+   * @return a {@link ResponseEntity} containing the {@link UploadSessionResponse}
+   */
+  @GetMapping("/{id}")
+  public ResponseEntity<@NonNull UploadSessionResponse> getStatus(@PathVariable String id) {
+    return ResponseEntity.ok(chunkedUploadService.getStatus(id));
+  }
+
+  /**
+   * Appends a chunk to a chunked upload. The request body is streamed straight to disk.
+   *
+   * @param id the upload session id
+   * @param offset the position of the chunk within the file
+   * @param chunk the raw chunk content
+   * @return a {@link ResponseEntity} containing the updated {@link UploadSessionResponse}
+   * @throws IOException if the chunk could not be read or written
+   */
+  @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+  public ResponseEntity<@NonNull UploadSessionResponse> appendChunk(
+      @PathVariable String id, @RequestParam long offset, InputStream chunk) throws IOException {
+
+    UploadSessionResponse response = chunkedUploadService.appendChunk(id, offset, chunk);
+
+    return ResponseEntity.ok(response);
+  }
+
+  /**
+   * Completes a chunked upload once all of its bytes were received.
+   *
+   * @param id the upload session id
+   * @param request the digest of the whole file
+   * @return a {@link ResponseEntity} containing a {@link FileUploadResponse}
+   * @throws IOException if the file could not be stored
+   */
+  @PostMapping("/{id}/complete")
+  public ResponseEntity<@NonNull FileUploadResponse> complete(
+      @PathVariable String id, @RequestBody UploadCompleteRequest request) throws IOException {
+
+    FileUploadResponse response = chunkedUploadService.complete(id, request.getDigest());
+
+    return new ResponseEntity<>(response, HttpStatus.OK);
+  }
+
+  /**
+   * Cancels a chunked upload and discards the chunks received so far.
+   *
+   * @param id the upload session id
+   * @return an empty {@link ResponseEntity}
+   * @throws IOException if the received chunks could not be deleted
+   */
+  @DeleteMapping("/{id}")
+  public ResponseEntity<Void> abort(@PathVariable String id) throws IOException {
+    chunkedUploadService.abort(id);
+
+    return ResponseEntity.noContent().build();
+  }
+}
@@ -1,21 +1,31 @@
 package org.dava.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.time.Duration;
+import java.time.ZoneId;
 import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.NonNull;
 import org.dava.dto.FileDto;
+import org.dava.response.CacheStatsResponse;
+import org.dava.response.FileCleanupResponse;
 import org.dava.response.FileResponse;
 import org.dava.response.FileUploadResponse;
+import org.dava.service.FileCleanupService;
 import org.dava.service.FileService;
 import org.dava.validator.annotation.ValidFile;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectMapper;
 
 /**
  * REST controller that exposes endpoints for uploading and retrieving {@link MultipartFile}
@@ -25,7 +35,15 @@ import org.springframework.web.multipart.MultipartFile;
 @RequestMapping("/api")
 @AllArgsConstructor
 public class FileController {
+  private static final CacheControl IMMUTABLE_CACHE_CONTROL =
+      CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+  private static final CacheControl REVALIDATE_CACHE_CONTROL = CacheControl.noCache().cachePublic();
+
+  private static final int STREAM_PAGE_SIZE = 500;
+
   private final FileService fileService;
+  private final FileCleanupService fileCleanupService;
+  private final ObjectMapper objectMapper;
 
   /**
    * Handles a file upload request.
@@ -37,8 +55,7 @@ public class FileController {
    * @param file the uploaded file, validated using {@link ValidFile}
    * @return a {@link ResponseEntity} containing a {@link FileUploadResponse} with details about the
    *     upload result
-   * @throws IOException if the content of the file could not be read with {@link
-   *     MultipartFile#getBytes()}
+   * @throws IOException if the content of the file could not be read or stored
    */
   @PostMapping("/upload")
   public ResponseEntity<@NonNull FileUploadResponse> upload(
@@ -53,37 +70,188 @@ public class FileController {
    * Retrieves a file based on its name.
    *
    * <p>This endpoint receives a file name and searches for the corresponding file in the database.
-   * If found, the file content is returned as a {@code byte[]}, with the appropriate {@code
-   * Content-Type} header so the file can be rendered by clients, such as web browsers.
+   * If found, the file content is streamed from the file storage as a {@link Resource}, with the
+   * appropriate {@code Content-Type} and {@code Content-Length} headers so the file can be rendered
+   * by clients, such as web browsers. The content is copied to the response in small chunks and is
+   * never loaded into memory as a whole.
+   *
+   * <p>A name may be uploaded again once the file behind it was deleted, so the response must be
+   * revalidated before being reused from a cache. It carries a strong {@code ETag} derived from the
+   * content digest and a {@code Last-Modified} header, so conditional requests ({@code
+   * If-None-Match}, {@code If-Modified-Since}) are answered with {@code 304 Not Modified}. {@code
+   * Range} requests are answered with {@code 206 Partial Content}. Files uploaded today are given
+   * the versioned URL served by {@link #getByVersionedName(String, String, Integer)} instead.
+   *
+   * <p>When a width is requested through the {@code w} parameter, a pre-generated derivative of the
+   * image that is at least as wide is served instead of the original, if one exists.
    *
    * <p>If no file with the given name exists, a {@link FileNotFoundException} is thrown.
    *
    * @param fileName the name of the file to retrieve from the database
-   * @return a {@link ResponseEntity} containing the file content as a {@code byte[]}
+   * @param width the optional width in pixels the image is rendered at
+   * @return a {@link ResponseEntity} containing the file content as a {@link Resource}
    * @throws FileNotFoundException if no file with the specified name is found
    */
   @GetMapping("/images/{fileName}")
-  public ResponseEntity<byte[]> getByName(@PathVariable String fileName)
+  public ResponseEntity<Resource> getByName(
+      @PathVariable String fileName, @RequestParam(name = "w", required = false) Integer width)
       throws FileNotFoundException {
 
-    FileDto fileDto = fileService.getByName(fileName);
+    FileDto fileDto =
+        width == null ? fileService.getByName(fileName) : fileService.getByName(fileName, width);
 
-    HttpHeaders headers = new HttpHeaders();
-    headers.setContentType(MediaType.parseMediaType(fileDto.getType()));
+    return toContentResponse(fileDto, REVALIDATE_CACHE_CONTROL);
+  }
 
-    return new ResponseEntity<>(fileDto.getContent(), headers, HttpStatus.OK);
+  /**
+   * Retrieves a file based on its name and the digest of its content.
+   *
+   * <p>These are the URLs generated for uploaded files. Since the digest is part of the URL, the
+   * content behind it never changes, and the response carries an immutable {@code Cache-Control}
+   * policy valid for a year, so browsers and CDNs can serve it without reaching the application.
+   * Otherwise, the response is the same as for {@link #getByName(String, Integer)}.
+   *
+   * @param digest the hex encoded SHA-256 digest of the file content
+   * @param fileName the name of the file
+   * @param width the optional width in pixels the image is rendered at
+   * @return a {@link ResponseEntity} containing the file content as a {@link Resource}
+   * @throws FileNotFoundException if no file with the specified name and digest is found
+   */
+  @GetMapping("/images/{digest}/{fileName}")
+  public ResponseEntity<Resource> getByVersionedName(
+      @PathVariable String digest,
+      @PathVariable String fileName,
+      @RequestParam(name = "w", required = false) Integer width)
+      throws FileNotFoundException {
+
+    FileDto fileDto =
+        width == null ? fileService.getByName(fileName) : fileService.getByName(fileName, width);
+    if (!fileDto.getDigest().equals(digest)) {
+      throw new FileNotFoundException(
+          "File with name '" + fileName + "' and digest '" + digest + "' not found.");
+    }
+
+    return toContentResponse(fileDto, IMMUTABLE_CACHE_CONTROL);
   }
 
   /**
-   * Retrieves a list with all uploaded files.
+   * Retrieves file content based on its SHA-256 digest.
+   *
+   * <p>Files uploaded under different names with identical content share this URL, so clients only
+   * download and cache the content once. The response carries the same caching and range support as
+   * {@link #getByVersionedName(String, String, Integer)}.
+   *
+   * @param digest the hex encoded SHA-256 digest of the file content
+   * @return a {@link ResponseEntity} containing the file content as a {@link Resource}
+   * @throws FileNotFoundException if no file with the specified content is found
+   */
+  @GetMapping("/content/{digest}")
+  public ResponseEntity<Resource> getByDigest(@PathVariable String digest)
+      throws FileNotFoundException {
+
+    FileDto fileDto = fileService.getByDigest(digest);
+
+    return toContentResponse(fileDto, IMMUTABLE_CACHE_CONTROL);
+  }
+
+  private static ResponseEntity<Resource> toContentResponse(
+      FileDto fileDto, CacheControl cacheControl) {
+    ResponseEntity.BodyBuilder response =
+        ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(fileDto.getType()))
+            .contentLength(fileDto.getSize())
+            .eTag(
+                fileDto.getWidth() == null
+                    ? fileDto.getDigest()
+                    : fileDto.getDigest() + "-w" + fileDto.getWidth())
+            .cacheControl(cacheControl)
+            .header(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+    if (fileDto.getLastModified() != null) {
+      response.lastModified(fileDto.getLastModified().atZone(ZoneId.systemDefault()));
+    }
+
+    return response.body(fileDto.getContent());
+  }
+
+  /**
+   * Retrieves a page of uploaded files, ordered by id.
    *
+   * <p>Pages are addressed by keyset: the {@code after} parameter is the id of the last file of the
+   * previous page, so the next page is found through the primary key index no matter how far into
+   * the listing it is.
+   *
+   * @param after the id of the last file of the previous page; defaults to the first page
+   * @param limit the maximum number of files to retrieve
    * @return a {@link ResponseEntity} containing a list of {@link FileResponse}
    */
-  @GetMapping("/files")
-  public ResponseEntity<@NonNull List<FileResponse>> getAll() {
+  @GetMapping(value = "/files", params = "limit")
+  public ResponseEntity<@NonNull List<FileResponse>> getPage(
+      @RequestParam(defaultValue = "0") long after, @RequestParam int limit) {
 
-    List<FileResponse> response = fileService.getAll();
+    List<FileResponse> response = fileService.getPage(after, limit);
 
     return new ResponseEntity<>(response, HttpStatus.OK);
   }
+
+  /**
+   * Retrieves a list with all uploaded files.
+   *
+   * <p>The list is streamed as a JSON array, page by page, straight to the response body. Only one
+   * page of metadata is held in memory at a time, so the cost of the request does not depend on the
+   * number of stored files.
+   *
+   * @param after the id after which the listing starts; defaults to the first file
+   * @param response the response the JSON array is written to
+   * @throws IOException if the response could not be written
+   */
+  @GetMapping("/files")
+  public void getAll(@RequestParam(defaultValue = "0") long after, HttpServletResponse response)
+      throws IOException {
+
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+
+    try (JsonGenerator generator = objectMapper.createGenerator(response.getOutputStream())) {
+      generator.writeStartArray();
+
+      List<FileResponse> page;
+      do {
+        page = fileService.getPage(after, STREAM_PAGE_SIZE);
+        for (FileResponse file : page) {
+          generator.writePOJO(file);
+          after = file.getId();
+        }
+        generator.flush();
+      } while (page.size() == STREAM_PAGE_SIZE);
+
+      generator.writeEndArray();
+    }
+  }
+
+  /**
+   * Retrieves the usage statistics of the in-memory image cache, such as hits, misses, evictions
+   * and the number of bytes held.
+   *
+   * @return a {@link ResponseEntity} containing a {@link CacheStatsResponse}
+   */
+  @GetMapping("/files/cache/stats")
+  public ResponseEntity<@NonNull CacheStatsResponse> getCacheStats() {
+    return ResponseEntity.ok(fileService.getCacheStats());
+  }
+
+  /**
+   * Deletes the uploaded files that no question uses as its image, like the scheduled cleanup.
+   *
+   * <p>Only files older than the configured grace period are deleted. With {@code dryRun=true}, the
+   * unreferenced files are only counted.
+   *
+   * @param dryRun whether to only report what would be deleted; defaults to {@code false}
+   * @return a {@link ResponseEntity} containing a {@link FileCleanupResponse}, or HTTP 409 if a
+   *     cleanup is already running
+   */
+  @PostMapping("/files/gc")
+  public ResponseEntity<@NonNull FileCleanupResponse> deleteUnreferencedFiles(
+      @RequestParam(defaultValue = "false") boolean dryRun) {
+    return ResponseEntity.ok(fileCleanupService.deleteUnreferencedFiles(dryRun));
+  }
 }
@@ -1,18 +1,33 @@
 package org.dava.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.time.ZoneId;
+import java.util.List;
 import java.util.Map;
 import lombok.AllArgsConstructor;
 import lombok.NonNull;
+import org.dava.domain.File;
 import org.dava.domain.Game;
+import org.dava.domain.GameSnapshot;
 import org.dava.dto.GameRequest;
 import org.dava.dto.GameUpdateRequest;
+import org.dava.enumeration.CountMode;
+import org.dava.response.CacheStatsResponse;
+import org.dava.response.CursorPageResponse;
 import org.dava.response.GameResponse;
 import org.dava.response.PageResponse;
 import org.dava.security.JwtTokenProvider;
 import org.dava.service.AuthService;
+import org.dava.service.GameAssetService;
 import org.dava.service.GameService;
+import org.dava.service.GameSnapshotService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -25,8 +40,11 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api/games")
 @AllArgsConstructor
 public class GameController {
+  private static final CacheControl REVALIDATE_CACHE_CONTROL = CacheControl.noCache().cachePublic();
 
   private final GameService gameService;
+  private final GameAssetService gameAssetService;
+  private final GameSnapshotService gameSnapshotService;
   private final AuthService authService;
   private final JwtTokenProvider jwtTokenProvider;
 
@@ -42,10 +60,19 @@ public class GameController {
    *
    *     Retrieves all games for the first page using default pagination:
    *     /api/games
+   *
+   *     Retrieves the first page without counting the matching games:
+   *     /api/games?count=false
+   *
+   *     Retrieves the draft and published games of user 7 created since 2026,
+   *     most recently updated first:
+   *     /api/games?createdBy=7&status=in:DRAFT,PUBLISHED&createdAt=gte:2026-01-01&sort=updatedAt,desc
    * </pre>
    *
    * @param page the page number; defaults to {@code 0}
    * @param size the number of items per page; defaults to {@code 10}
+   * @param count {@code true} to count the matching games exactly, {@code false} to leave the
+   *     totals out, or {@code approx} for periodically refreshed totals; defaults to {@code true}
    * @param filters a map of query parameters used as filtering criteria, where each entry
    *     represents a {@code field=value} pair; includes pagination parameters, but these are
    *     removed in the service layer
@@ -56,9 +83,137 @@ public class GameController {
   public ResponseEntity<@NonNull PageResponse<GameResponse>> getAll(
       @RequestParam(defaultValue = "0") int page,
       @RequestParam(defaultValue = "10") int size,
+      @RequestParam(defaultValue = "true") String count,
+      @RequestParam Map<String, Object> filters) {
+
+    return ResponseEntity.ok(
+        gameService.getAll(page, size, CountMode.fromParameter(count), filters));
+  }
+
+  /**
+   * Retrieves the page of games following the given cursor, optionally filtered by the provided
+   * query parameters.
+   *
+   * <p>Unlike offset pagination, the cost of a page does not grow with its position and no total
+   * count is computed. Clients start with an empty cursor and follow the {@code nextCursor} of each
+   * response, keeping the same filters, until it is {@code null}.
+   *
+   * <p>Query Examples:
+   *
+   * <pre>
+   *     Retrieves the first 20 published games:
+   *     /api/games?cursor=&size=20&status=PUBLISHED
+   *
+   *     Retrieves the next 20 published games:
+   *     /api/games?cursor=MjA&size=20&status=PUBLISHED
+   * </pre>
+   *
+   * @param cursor the {@code nextCursor} of the previous page; empty for the first page
+   * @param size the number of items per page; defaults to {@code 10}
+   * @param filters a map of query parameters used as filtering criteria, where each entry
+   *     represents a {@code field=value} pair; includes pagination parameters, but these are
+   *     removed in the service layer
+   * @return HTTP 200 with a {@link CursorPageResponse} of {@link GameResponse} objects, or HTTP 400
+   *     if the cursor is malformed
+   */
+  @GetMapping(params = "cursor")
+  public ResponseEntity<@NonNull CursorPageResponse<GameResponse>> getAllAfter(
+      @RequestParam String cursor,
+      @RequestParam(defaultValue = "10") int size,
       @RequestParam Map<String, Object> filters) {
 
-    return ResponseEntity.ok(gameService.getAll(page, size, filters));
+    return ResponseEntity.ok(gameService.getAllAfter(cursor, size, filters));
+  }
+
+  /**
+   * Retrieves a published game with all its questions.
+   *
+   * <p>The response body is the snapshot stored when the game was published, served as-is without
+   * loading the game. It carries a strong {@code ETag} derived from the content digest, so
+   * conditional requests ({@code If-None-Match}) are answered with {@code 304 Not Modified}.
+   * Clients accepting gzip receive the compressed variant of the snapshot, if one was stored.
+   *
+   * <p><strong>Behavior:</strong>
+   *
+   * <ul>
+   *   <li>Returns <code>200 OK</code> with the game as JSON
+   *   <li>Returns <code>304 Not Modified</code> if the game did not change since it was last
+   *       retrieved
+   *   <li>Returns <code>404 Not Found</code> if the game does not exist or is not published
+   * </ul>
+   *
+   * @param id the ID of the game
+   * @param acceptEncoding the content codings accepted by the client
+   * @return a {@link ResponseEntity} containing the serialized {@link GameResponse}
+   */
+  @GetMapping("/{id}")
+  public ResponseEntity<byte[]> getPublishedGame(
+      @PathVariable Long id,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+    GameSnapshot snapshot = gameSnapshotService.getSnapshot(id);
+    boolean gzip = snapshot.getGzipContent() != null && acceptsGzip(acceptEncoding);
+
+    ResponseEntity.BodyBuilder response =
+        ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .eTag(gzip ? snapshot.getDigest() + "-gzip" : snapshot.getDigest())
+            .lastModified(snapshot.getCreatedAt().atZone(ZoneId.systemDefault()))
+            .cacheControl(REVALIDATE_CACHE_CONTROL)
+            .varyBy(HttpHeaders.ACCEPT_ENCODING);
+
+    if (gzip) {
+      return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.getGzipContent());
+    }
+    return response.body(snapshot.getContent());
+  }
+
+  /**
+   * Tells whether an {@code Accept-Encoding} header accepts gzip, that is whether it gives {@code
+   * gzip} (or its alias {@code x-gzip}), or {@code *} when gzip is not listed, a q-value above 0.
+   */
+  private static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+
+    Double gzipQuality = null;
+    Double anyQuality = null;
+    for (String element : acceptEncoding.split(",")) {
+      String[] parts = element.split(";");
+      String coding = parts[0].trim().toLowerCase();
+      double quality = 1;
+      for (int i = 1; i < parts.length; i++) {
+        String parameter = parts[i].trim().toLowerCase();
+        if (parameter.startsWith("q=")) {
+          try {
+            quality = Double.parseDouble(parameter.substring(2).trim());
+          } catch (NumberFormatException e) {
+            quality = 0;
+          }
+        }
+      }
+
+      if (coding.equals("gzip") || coding.equals("x-gzip")) {
+        gzipQuality = gzipQuality == null ? quality : Math.max(gzipQuality, quality);
+      } else if (coding.equals("*")) {
+        anyQuality = quality;
+      }
+    }
+
+    Double quality = gzipQuality != null ? gzipQuality : anyQuality;
+    return quality != null && quality > 0;
+  }
+
+  /**
+   * Retrieves the usage statistics of the game listing cache, such as hits, misses and the number
+   * of cached pages. Byte counts are not tracked for this cache and are reported as {@code 0}.
+   *
+   * @return a {@link ResponseEntity} containing a {@link CacheStatsResponse}
+   */
+  @GetMapping("/cache/stats")
+  public ResponseEntity<@NonNull CacheStatsResponse> getListingCacheStats() {
+    return ResponseEntity.ok(gameService.getListingCacheStats());
   }
 
   /**
@@ -118,4 +273,34 @@ public class GameController {
 
     return ResponseEntity.ok(updatedGame);
   }
+
+  /**
+   * Streams the question images of a game as a single ZIP archive.
+   *
+   * <p>Clients can preload every image of a game with this one request instead of one request per
+   * question. The files are resolved with a single query and their content is copied to the
+   * response entry by entry, so memory usage does not depend on the size of the game.
+   *
+   * <p><strong>Behavior:</strong>
+   *
+   * <ul>
+   *   <li>Returns <code>200 OK</code> with an <code>application/zip</code> body, which has no
+   *       entries if no question has an uploaded image
+   *   <li>Returns <code>404 Not Found</code> if the game does not exist
+   * </ul>
+   *
+   * @param id the ID of the game
+   * @param response the response the archive is written to
+   * @throws IOException if the archive could not be written
+   */
+  @GetMapping("/{id}/assets.zip")
+  public void getAssets(@PathVariable Long id, HttpServletResponse response) throws IOException {
+    List<File> assets = gameAssetService.getAssets(id);
+
+    response.setContentType("application/zip");
+    response.setHeader(
+        HttpHeaders.CONTENT_DISPOSITION,
+        ContentDisposition.attachment().filename("game-" + id + "-assets.zip").build().toString());
+    gameAssetService.writeArchive(assets, response.getOutputStream());
+  }
 }
@@ -1,12 +1,98 @@
 package org.dava.dao;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import lombok.NonNull;
 import org.dava.domain.File;
+import org.dava.response.FileResponse;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface FileRepository extends JpaRepository<@NonNull File, @NonNull Long> {
   Optional<File> findByName(String name);
+
+  boolean existsByName(String name);
+
+  Optional<File> findFirstByDigestOrderByIdAsc(String digest);
+
+  boolean existsByDigest(String digest);
+
+  /**
+   * Retrieves which of the given URLs belong to an uploaded file.
+   *
+   * <p>Only the indexed URL column is selected, so neither the file content nor the {@link File}
+   * entities are loaded.
+   *
+   * @param urls the URLs to look up
+   * @return the subset of the URLs that belong to an uploaded file
+   */
+  @Query("SELECT f.url FROM File f WHERE f.url IN :urls")
+  Set<String> findExistingUrls(@Param("urls") Collection<String> urls);
+
+  /**
+   * Retrieves the metadata of the files with an id greater than the given one, ordered by id.
+   *
+   * <p>Only the listed columns are selected, so no entity is loaded into the persistence context.
+   * Filtering on the primary key instead of skipping an offset keeps every page equally cheap.
+   *
+   * @param after the id of the last file of the previous page, or {@code 0} for the first page
+   * @param limit the maximum number of files to retrieve
+   * @return a list of {@link FileResponse}
+   */
+  @Query(
+      "SELECT new org.dava.response.FileResponse("
+          + "f.id, f.name, f.url, f.contentType, f.width, f.height) "
+          + "FROM File f WHERE f.id > :after ORDER BY f.id")
+  List<FileResponse> findPageAfter(@Param("after") long after, Limit limit);
+
+  /**
+   * Retrieves the files used as question images by the given game, ordered by name.
+   *
+   * <p>The image URLs of the questions are matched against the indexed file URL within a single
+   * query, so the cost does not grow with the number of questions.
+   *
+   * @param gameId the id of the game
+   * @return the list of matching {@link File} objects
+   */
+  @Query(
+      "SELECT f FROM File f WHERE f.url IN "
+          + "(SELECT q.imageUrl FROM Question q WHERE q.game.id = :gameId) ORDER BY f.name")
+  List<File> findAllByGameId(@Param("gameId") Long gameId);
+
+  /**
+   * Retrieves files that no question uses as its image, with an id greater than the given one,
+   * ordered by id.
+   *
+   * @param after the id of the last file of the previous chunk, or {@code 0} for the first chunk
+   * @param createdBefore only files uploaded before this time are returned
+   * @param limit the maximum number of files to retrieve
+   * @return the list of unreferenced {@link File} objects
+   */
+  @Query(
+      "SELECT f FROM File f WHERE f.id > :after AND f.createdAt < :createdBefore "
+          + "AND NOT EXISTS (SELECT 1 FROM Question q WHERE q.imageUrl = f.url) ORDER BY f.id")
+  List<File> findUnreferencedAfter(
+      @Param("after") long after, @Param("createdBefore") LocalDateTime createdBefore, Limit limit);
+
+  /**
+   * Deletes the given files, unless a question started using them in the meantime.
+   *
+   * @param ids the ids of the files to delete
+   * @return the number of deleted files
+   */
+  @Transactional
+  @Modifying
+  @Query(
+      "DELETE FROM File f WHERE f.id IN :ids "
+          + "AND NOT EXISTS (SELECT 1 FROM Question q WHERE q.imageUrl = f.url)")
+  int deleteUnreferenced(@Param("ids") Collection<Long> ids);
 }
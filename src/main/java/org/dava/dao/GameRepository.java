@@ -1,15 +1,63 @@
 package org.dava.dao;
 
+import java.util.List;
 import java.util.Optional;
 import lombok.NonNull;
 import org.dava.domain.Game;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface GameRepository extends JpaRepository<@NonNull Game, @NonNull Long> {
+public interface GameRepository
+    extends JpaRepository<@NonNull Game, @NonNull Long>, JpaSpecificationExecutor<@NonNull Game> {
   Page<@NonNull Game> findAll(Specification<@NonNull Game> gameSpec, Pageable pageable);
 
+  /**
+   * Retrieves a page of games matching the specification without counting the total number of
+   * matches. One extra game is fetched to tell whether a next page exists.
+   *
+   * @param gameSpec the predicate the games must match
+   * @param pageable the page to retrieve
+   * @return the requested slice of matching games
+   */
+  default Slice<Game> findSlice(Specification<@NonNull Game> gameSpec, Pageable pageable) {
+    return findBy(gameSpec, query -> query.slice(pageable));
+  }
+
+  /**
+   * Retrieves the first games matching the specification in ascending id order, without counting
+   * the total number of matches.
+   *
+   * <p>Combined with {@link GameSpecification#idGreaterThan(long)}, this seeks through the primary
+   * key index, so later pages cost as much as the first one.
+   *
+   * @param gameSpec the predicate the games must match
+   * @param limit the maximum number of games to retrieve
+   * @return the matching games, ordered by id
+   */
+  default List<Game> findAllOrderedById(Specification<@NonNull Game> gameSpec, Limit limit) {
+    return findBy(gameSpec, query -> query.sortBy(Sort.by("id")).limit(limit.max()).all());
+  }
+
   Optional<Game> findByIdAndCreatedBy(Long id, Long createdBy);
+
+  /**
+   * Retrieves the stored title of a game in a new transaction, so it can also be called after the
+   * current transaction has completed.
+   *
+   * @param id the game id
+   * @return the title, or an empty {@link Optional} if the game does not exist
+   */
+  @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+  @Query("SELECT g.title FROM Game g WHERE g.id = :id")
+  Optional<String> findTitleById(@Param("id") Long id);
 }
@@ -0,0 +1,29 @@
+package org.dava.dao;
+
+import lombok.NonNull;
+import org.dava.domain.GameSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface GameSnapshotRepository
+    extends JpaRepository<@NonNull GameSnapshot, @NonNull Long> {
+
+  /**
+   * Inserts the snapshot, or replaces the stored snapshot of the same game.
+   *
+   * <p>Unlike {@link #save(Object)}, which inserts after finding no row, concurrent writes of the
+   * snapshot of a game cannot fail on its primary key: the last one wins.
+   *
+   * @param snapshot the snapshot to store
+   */
+  @Modifying
+  @Query(
+      value =
+          "MERGE INTO game_snapshot (game_id, digest, content, gzip_content, created_at) "
+              + "KEY (game_id) VALUES (:#{#snapshot.gameId}, :#{#snapshot.digest}, "
+              + ":#{#snapshot.content}, :#{#snapshot.gzipContent}, :#{#snapshot.createdAt})",
+      nativeQuery = true)
+  void upsert(@Param("snapshot") GameSnapshot snapshot);
+}
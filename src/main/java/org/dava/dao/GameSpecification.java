@@ -3,6 +3,7 @@ package org.dava.dao;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import lombok.NonNull;
 import org.dava.domain.Game;
@@ -16,6 +17,11 @@ import org.springframework.data.jpa.domain.Specification;
  * <p>Each private method in this class returns a {@code Specification<Game>} that can be combined
  * using {@link Specification#and(Specification)} to build dynamic query predicates at runtime.
  *
+ * <p>Filter values may start with an operator: {@code in:} matches any of a comma-separated list of
+ * values ({@code status=in:DRAFT,PUBLISHED}), while {@code gt:}, {@code gte:}, {@code lt:} and
+ * {@code lte:} compare dates by whole days ({@code createdAt=gte:2026-01-01}). Values are parsed
+ * and validated once, when the specification is created, rather than every time it is applied.
+ *
  * <p>This class is not intended to be instantiated and should be used by the service layer when
  * constructing filtered queries.
  */
@@ -47,9 +53,91 @@ public class GameSpecification {
     return gameSpec;
   }
 
+  /**
+   * Creates a predicate matching the games created after the one with the given id, used to seek to
+   * the next page of a keyset-paginated query.
+   *
+   * @param id the id of the last game of the previous page
+   * @return a {@link Specification} matching games with a greater id
+   */
+  public static Specification<@NonNull Game> idGreaterThan(long id) {
+    return (root, query, criteriaBuilder) -> criteriaBuilder.greaterThan(root.get("id"), id);
+  }
+
+  /**
+   * Creates a predicate matching the games with one of the given ids, such as the matches of a
+   * {@link org.dava.search.GameTitleIndex} search.
+   *
+   * @param ids the ids of the games to match
+   * @return a {@link Specification} matching the given ids, or no game if there are none
+   */
+  public static Specification<@NonNull Game> idIn(Collection<Long> ids) {
+    return (root, query, criteriaBuilder) ->
+        ids.isEmpty() ? criteriaBuilder.disjunction() : root.get("id").in(ids);
+  }
+
+  /**
+   * Tells whether a game might be matched by the given filters, without querying the database.
+   *
+   * <p>{@code status}, {@code createdBy} and {@code title} filters are evaluated exactly. Date
+   * filters are assumed to match, since the stored timestamps of a game are not always known in
+   * memory, so the result may be a false positive but never a false negative.
+   *
+   * @param filters a map containing valid {@code field=value} pairs
+   * @param game the game to check
+   * @return {@code false} if the filters certainly exclude the game
+   */
+  public static boolean matches(Map<String, Object> filters, Game game) {
+    for (Map.Entry<String, Object> entry : filters.entrySet()) {
+      if (!matches(entry.getKey(), (String) entry.getValue(), game)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private static boolean matches(String key, String value, Game game) {
+    FilterExpression filter = FilterExpression.parse(value);
+
+    return switch (key) {
+      case "status" ->
+          filter.operator() == Operator.IN
+              ? filter.operands().stream()
+                  .anyMatch(status -> parseStatus(status) == game.getStatus())
+              : parseStatus(filter.operand()) == game.getStatus();
+      case "createdBy" ->
+          filter.operator() == Operator.IN
+              ? filter.operands().stream()
+                  .anyMatch(id -> parseLong(id, key).equals(game.getCreatedBy()))
+              : parseLong(filter.operand(), key).equals(game.getCreatedBy());
+      case "title" ->
+          game.getTitle() == null || game.getTitle().toLowerCase().contains(value.toLowerCase());
+      default -> true;
+    };
+  }
+
   private static Specification<@NonNull Game> isStatus(String status) {
     return (root, query, criteriaBuilder) ->
-        criteriaBuilder.equal(root.get("status"), GameStatus.valueOf(status.toUpperCase()));
+        criteriaBuilder.equal(root.get("status"), parseStatus(status));
+  }
+
+  private static Specification<@NonNull Game> statusIn(List<String> statuses) {
+    List<GameStatus> values = statuses.stream().map(GameSpecification::parseStatus).toList();
+
+    return (root, query, criteriaBuilder) -> root.get("status").in(values);
+  }
+
+  private static Specification<@NonNull Game> isCreatedBy(String createdBy) {
+    Long value = parseLong(createdBy, "createdBy");
+
+    return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("createdBy"), value);
+  }
+
+  private static Specification<@NonNull Game> createdByIn(List<String> createdBy) {
+    List<Long> values = createdBy.stream().map(value -> parseLong(value, "createdBy")).toList();
+
+    return (root, query, criteriaBuilder) -> root.get("createdBy").in(values);
   }
 
   private static Specification<@NonNull Game> titleContains(String title) {
@@ -59,25 +147,134 @@ public class GameSpecification {
   }
 
   private static Specification<@NonNull Game> equalsToDate(String dateTime, String field) {
-    LocalDate date = LocalDate.parse(dateTime);
+    LocalDate date = parseDate(dateTime, field);
 
-    ZoneOffset offset = ZoneOffset.UTC;
-
-    OffsetDateTime start = date.atStartOfDay().atOffset(offset);
-    OffsetDateTime end = date.plusDays(1).atStartOfDay().atOffset(offset);
+    OffsetDateTime start = startOfDay(date);
+    OffsetDateTime end = startOfDay(date.plusDays(1));
 
     return (root, query, cb) -> cb.between(root.get(field), start, end);
   }
 
+  /**
+   * Compares a date field with a whole day: {@code gt} and {@code lte} take the end of the day as
+   * the bound, {@code gte} and {@code lt} its start.
+   */
+  private static Specification<@NonNull Game> comparedToDate(
+      FilterExpression filter, String field) {
+    LocalDate date = parseDate(filter.operand(), field);
+
+    return switch (filter.operator()) {
+      case EQ -> equalsToDate(filter.operand(), field);
+      case GT -> {
+        OffsetDateTime bound = startOfDay(date.plusDays(1));
+        yield (root, query, cb) -> cb.greaterThanOrEqualTo(root.get(field), bound);
+      }
+      case GTE -> {
+        OffsetDateTime bound = startOfDay(date);
+        yield (root, query, cb) -> cb.greaterThanOrEqualTo(root.get(field), bound);
+      }
+      case LT -> {
+        OffsetDateTime bound = startOfDay(date);
+        yield (root, query, cb) -> cb.lessThan(root.get(field), bound);
+      }
+      case LTE -> {
+        OffsetDateTime bound = startOfDay(date.plusDays(1));
+        yield (root, query, cb) -> cb.lessThan(root.get(field), bound);
+      }
+      case IN -> throw unsupportedOperator(filter, field);
+    };
+  }
+
   private static Specification<@NonNull Game> getSpecificationByKey(String key, Object value) {
+    FilterExpression filter = FilterExpression.parse((String) value);
+
     return switch (key) {
-      case "status" -> GameSpecification.isStatus((String) value);
+      case "status" ->
+          switch (filter.operator()) {
+            case EQ -> GameSpecification.isStatus(filter.operand());
+            case IN -> GameSpecification.statusIn(filter.operands());
+            default -> throw unsupportedOperator(filter, key);
+          };
+      case "createdBy" ->
+          switch (filter.operator()) {
+            case EQ -> GameSpecification.isCreatedBy(filter.operand());
+            case IN -> GameSpecification.createdByIn(filter.operands());
+            default -> throw unsupportedOperator(filter, key);
+          };
       case "title" -> GameSpecification.titleContains((String) value);
-      case "createdAt" -> GameSpecification.equalsToDate((String) value, "createdAt");
-      case "updatedAt" -> GameSpecification.equalsToDate((String) value, "updatedAt");
+      case "createdAt" -> GameSpecification.comparedToDate(filter, "createdAt");
+      case "updatedAt" -> GameSpecification.comparedToDate(filter, "updatedAt");
       default ->
           throw new IllegalArgumentException(
               String.format("No field was found with the specified name '%s'", key));
     };
   }
+
+  private static GameStatus parseStatus(String status) {
+    return GameStatus.valueOf(status.trim().toUpperCase());
+  }
+
+  private static Long parseLong(String value, String field) {
+    try {
+      return Long.valueOf(value.trim());
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(
+          String.format("Invalid value '%s' for field '%s'", value, field), e);
+    }
+  }
+
+  private static LocalDate parseDate(String value, String field) {
+    try {
+      return LocalDate.parse(value.trim());
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException(
+          String.format("Invalid date '%s' for field '%s'", value, field), e);
+    }
+  }
+
+  private static OffsetDateTime startOfDay(LocalDate date) {
+    return date.atStartOfDay().atOffset(ZoneOffset.UTC);
+  }
+
+  private static IllegalArgumentException unsupportedOperator(
+      FilterExpression filter, String field) {
+    return new IllegalArgumentException(
+        String.format(
+            "Operator '%s' is not supported for field '%s'",
+            filter.operator().name().toLowerCase(), field));
+  }
+
+  /** Comparison operators that can prefix a filter value, as in {@code gte:2026-01-01}. */
+  private enum Operator {
+    EQ,
+    IN,
+    GT,
+    GTE,
+    LT,
+    LTE
+  }
+
+  /**
+   * A filter value split into its operator and operand. Values without a known operator prefix are
+   * compared for equality as a whole.
+   */
+  private record FilterExpression(Operator operator, String operand) {
+    static FilterExpression parse(String value) {
+      int separator = value.indexOf(':');
+      if (separator > 0) {
+        String prefix = value.substring(0, separator).toUpperCase();
+        for (Operator operator : Operator.values()) {
+          if (operator.name().equals(prefix)) {
+            return new FilterExpression(operator, value.substring(separator + 1));
+          }
+        }
+      }
+
+      return new FilterExpression(Operator.EQ, value);
+    }
+
+    List<String> operands() {
+      return Arrays.stream(operand.split(",")).filter(item -> !item.isBlank()).toList();
+    }
+  }
 }
@@ -4,10 +4,12 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.persistence.autoconfigure.EntityScan;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(scanBasePackages = "org.dava")
 @EnableJpaRepositories(basePackages = "org.dava.dao")
 @EntityScan(basePackages = "org.dava.domain")
+@EnableScheduling
 public class DavaQuizApplication {
 
   public static void main(String[] args) {
@@ -1,9 +1,11 @@
 package org.dava.domain;
 
 import jakarta.persistence.*;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.Size;
+import java.time.LocalDateTime;
 import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.validator.constraints.Length;
 
 @Data
@@ -12,30 +14,48 @@ import org.hibernate.validator.constraints.Length;
 @AllArgsConstructor
 @Table(
     name = "files",
-    indexes = {@Index(name = "idx_file_url", columnList = "url")})
+    indexes = {
+      @Index(name = "idx_file_url", columnList = "url"),
+      @Index(name = "idx_file_digest", columnList = "digest")
+    })
 @Entity
 public class File {
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
   private Long id;
 
-  @Size(max = 10_485_760, message = "File content must not exceed 10 MB")
-  @Lob
-  @Column(columnDefinition = "BLOB")
-  private byte[] content;
-
   @NotBlank
   @Length(max = 100)
   @Column(unique = true)
   private String name;
 
   @NotBlank
-  @Length(max = 150)
-  @Column(unique = true)
+  @Length(max = 1024)
+  @Column(unique = true, length = 1024)
   private String url;
 
   @NotBlank
   @Length(max = 50)
   @Column(name = "content_type")
   private String contentType;
+
+  /** Hex encoded SHA-256 digest locating the content in the file storage. */
+  @NotBlank
+  @Length(min = 64, max = 64)
+  @Column(nullable = false, length = 64)
+  private String digest;
+
+  @Max(value = 10_485_760, message = "File content must not exceed 10 MB")
+  @Column(nullable = false)
+  private long size;
+
+  /** The image width in pixels, or {@code null} if it could not be read from the image header. */
+  private Integer width;
+
+  /** The image height in pixels, or {@code null} if it could not be read from the image header. */
+  private Integer height;
+
+  @CreationTimestamp
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private LocalDateTime createdAt;
 }
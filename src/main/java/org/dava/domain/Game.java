@@ -9,6 +9,8 @@ import java.util.ArrayList;
 import java.util.List;
 import lombok.*;
 import org.dava.enumeration.GameStatus;
+import org.dava.search.GameTitleIndexListener;
+import org.hibernate.Hibernate;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.SourceType;
 import org.hibernate.annotations.UpdateTimestamp;
@@ -21,12 +23,17 @@ import org.hibernate.validator.constraints.Length;
 @AllArgsConstructor
 @Table(
     name = "game",
-    indexes = {@Index(name = "idx_game_created_by", columnList = "created_by")})
+    indexes = {
+      @Index(name = "idx_game_created_by_updated_at", columnList = "created_by, updated_at"),
+      @Index(name = "idx_game_status_created_at", columnList = "status, created_at")
+    })
 @Entity
+@EntityListeners(GameTitleIndexListener.class)
 public class Game {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "game_seq")
+  @SequenceGenerator(name = "game_seq", initialValue = 6, allocationSize = 50)
   private Long id;
 
   @NotBlank
@@ -52,11 +59,26 @@ public class Game {
   @UpdateTimestamp(source = SourceType.DB)
   private LocalDateTime updatedAt;
 
-  @Transient private Integer questionCount;
+  /**
+   * The number of questions, stored with the game so that listings do not have to load the
+   * questions to report it.
+   */
+  @Column(name = "question_count", nullable = false)
+  private int questionCount;
 
+  /**
+   * Returns the number of questions of the game.
+   *
+   * <p>The loaded questions are counted when available; otherwise the stored count is returned, so
+   * calling this method never initializes the lazy {@code questions} collection.
+   *
+   * @return the number of questions
+   */
   @JsonProperty("questionCount")
   public Integer getQuestionCount() {
-    return questions != null ? questions.size() : 0;
+    return questions != null && Hibernate.isInitialized(questions)
+        ? questions.size()
+        : questionCount;
   }
 
   @Builder.Default
@@ -66,5 +88,14 @@ public class Game {
   public void addQuestion(Question q) {
     questions.add(q);
     q.setGame(this);
+    questionCount = questions.size();
+  }
+
+  @PrePersist
+  @PreUpdate
+  void syncQuestionCount() {
+    if (questions != null && Hibernate.isInitialized(questions)) {
+      questionCount = questions.size();
+    }
   }
 }
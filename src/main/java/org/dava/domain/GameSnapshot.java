@@ -0,0 +1,40 @@
+package org.dava.domain;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.*;
+
+/**
+ * The JSON representation of a published game, serialized once when the game is published.
+ *
+ * <p>Published games can no longer change their questions, so the representation is only rebuilt
+ * when their description changes. Reads serve the stored bytes as they are.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "game_snapshot")
+@Entity
+public class GameSnapshot {
+  @Id
+  @Column(name = "game_id")
+  private Long gameId;
+
+  /** Hex encoded SHA-256 digest of {@link #content}, used as its entity tag. */
+  @Column(nullable = false, length = 64)
+  private String digest;
+
+  /** The game, with its questions, serialized as JSON. */
+  @Lob
+  @Column(nullable = false)
+  private byte[] content;
+
+  /** {@link #content} compressed with gzip, or {@code null} if compressing it does not pay off. */
+  @Lob
+  @Column(name = "gzip_content")
+  private byte[] gzipContent;
+
+  @Column(name = "created_at", nullable = false)
+  private LocalDateTime createdAt;
+}
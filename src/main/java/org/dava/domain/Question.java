@@ -7,16 +7,20 @@ import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.dava.domain.converter.StringListConverter;
 
 @Entity
-@Table(name = "question")
+@Table(
+    name = "question",
+    indexes = {@Index(name = "idx_question_image_url", columnList = "image_url")})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Question {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "question_seq")
+  @SequenceGenerator(name = "question_seq", initialValue = 6, allocationSize = 50)
   private Long id;
 
   @ManyToOne(fetch = FetchType.LAZY)
@@ -27,8 +31,9 @@ public class Question {
   @Column(name = "text", nullable = false)
   private String text;
 
-  @ElementCollection
-  @CollectionTable(name = "question_options", joinColumns = @JoinColumn(name = "id"))
+  /** The answer options, stored inline as a JSON array. */
+  @Column(name = "options", length = StringListConverter.MAX_COLUMN_LENGTH)
+  @Convert(converter = StringListConverter.class)
   private List<String> options = new ArrayList<>();
 
   @Column(name = "image_url")
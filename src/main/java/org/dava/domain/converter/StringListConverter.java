@@ -0,0 +1,42 @@
+package org.dava.domain.converter;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import java.util.ArrayList;
+import java.util.List;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Stores a list of strings in a single column as a JSON array, such as {@code ["Paris","Rome"]}.
+ *
+ * <p>Keeping the list inline lets it be read with the row that owns it, instead of with one extra
+ * query per row, and lets it be updated in place instead of being deleted and inserted again.
+ */
+@Converter
+public class StringListConverter implements AttributeConverter<List<String>, String> {
+  /** The length of the {@code question.options} column. */
+  public static final int MAX_COLUMN_LENGTH = 2000;
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final TypeReference<List<String>> STRING_LIST = new TypeReference<>() {};
+
+  @Override
+  public String convertToDatabaseColumn(List<String> values) {
+    return values != null ? OBJECT_MAPPER.writeValueAsString(values) : null;
+  }
+
+  @Override
+  public List<String> convertToEntityAttribute(String column) {
+    if (column == null || column.isEmpty()) {
+      return new ArrayList<>();
+    }
+
+    try {
+      return new ArrayList<>(OBJECT_MAPPER.readValue(column, STRING_LIST));
+    } catch (JacksonException e) {
+      throw new IllegalStateException("Invalid string list column value: " + column, e);
+    }
+  }
+}
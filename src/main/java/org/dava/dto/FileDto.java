@@ -1,13 +1,21 @@
 package org.dava.dto;
 
+import java.time.LocalDateTime;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.core.io.Resource;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 public class FileDto {
   private String type;
-  private byte[] content;
+  private long size;
+  private String digest;
+  private LocalDateTime lastModified;
+  private Resource content;
+
+  /** The width of the resized image, or {@code null} for the original image. */
+  private Integer width;
 }
@@ -0,0 +1,15 @@
+package org.dava.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.core.io.Resource;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImageDerivative {
+  private int width;
+  private long size;
+  private Resource content;
+}
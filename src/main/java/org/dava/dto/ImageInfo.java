@@ -0,0 +1,19 @@
+package org.dava.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Format and dimensions of an image, as read from its header. */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImageInfo {
+  private String contentType;
+
+  /** The width in pixels, or {@code null} if it could not be read from the header. */
+  private Integer width;
+
+  /** The height in pixels, or {@code null} if it could not be read from the header. */
+  private Integer height;
+}
@@ -0,0 +1,13 @@
+package org.dava.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Request DTO used to finish a chunked upload, carrying the digest of the whole file. */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UploadCompleteRequest {
+  private String digest;
+}
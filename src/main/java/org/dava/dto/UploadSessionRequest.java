@@ -0,0 +1,17 @@
+package org.dava.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Request DTO used to start a chunked upload. Describes the file that is about to be sent. */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UploadSessionRequest {
+  private String fileName;
+  private String contentType;
+  private long size;
+}
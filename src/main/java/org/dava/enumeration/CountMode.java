@@ -0,0 +1,27 @@
+package org.dava.enumeration;
+
+/** How the totals of a paginated listing are computed. */
+public enum CountMode {
+  /** Totals are counted exactly, with one extra query per request. */
+  EXACT,
+  /** No totals are returned; only whether a next page exists. */
+  NONE,
+  /** Totals are served from a periodically refreshed count and may be slightly stale. */
+  APPROXIMATE;
+
+  /**
+   * Parses the value of the {@code count} query parameter.
+   *
+   * @param value {@code true}, {@code false} or {@code approx}
+   * @return the corresponding count mode
+   * @throws IllegalArgumentException if the value is not supported
+   */
+  public static CountMode fromParameter(String value) {
+    return switch (value.toLowerCase()) {
+      case "true" -> EXACT;
+      case "false" -> NONE;
+      case "approx" -> APPROXIMATE;
+      default -> throw new IllegalArgumentException("Invalid count mode: " + value);
+    };
+  }
+}
@@ -0,0 +1,7 @@
+package org.dava.exception;
+
+public class CleanupAlreadyRunningException extends RuntimeException {
+  public CleanupAlreadyRunningException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,7 @@
+package org.dava.exception;
+
+public class UploadOffsetException extends RuntimeException {
+  public UploadOffsetException(String message) {
+    super(message);
+  }
+}
@@ -3,9 +3,11 @@ package org.dava.exception.handler;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.Objects;
+import org.dava.exception.CleanupAlreadyRunningException;
 import org.dava.exception.ExceptionMessage;
 import org.dava.exception.ExistentFileException;
 import org.dava.exception.InvalidFileException;
+import org.dava.exception.UploadOffsetException;
 import org.springframework.context.MessageSourceResolvable;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
@@ -55,6 +57,20 @@ public class FileExceptionHandler {
         ExceptionMessage.of("Existent File Exception", e.getMessage()), HttpStatus.CONFLICT);
   }
 
+  @ExceptionHandler(UploadOffsetException.class)
+  public ResponseEntity<ExceptionMessage> handleUploadOffsetException(UploadOffsetException e) {
+    return new ResponseEntity<>(
+        ExceptionMessage.of("Upload Offset Exception", e.getMessage()), HttpStatus.CONFLICT);
+  }
+
+  @ExceptionHandler(CleanupAlreadyRunningException.class)
+  public ResponseEntity<ExceptionMessage> handleCleanupAlreadyRunningException(
+      CleanupAlreadyRunningException e) {
+    return new ResponseEntity<>(
+        ExceptionMessage.of("Cleanup Already Running Exception", e.getMessage()),
+        HttpStatus.CONFLICT);
+  }
+
   @ExceptionHandler({IOException.class, InvalidFileException.class})
   public ResponseEntity<ExceptionMessage> handleIOException(Exception e) {
     return new ResponseEntity<>(
@@ -7,10 +7,13 @@ import org.dava.domain.Game;
 import org.dava.dto.GameRequest;
 import org.dava.response.GameResponse;
 import org.dava.response.PageResponse;
+import org.mapstruct.IterableMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.Named;
 import org.mapstruct.factory.Mappers;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 /**
  * MapStruct mapper responsible for converting between {@link Game} entity and its corresponding
@@ -24,9 +27,6 @@ public interface GameMapper {
 
   PageMapper pageMapper = Mappers.getMapper(PageMapper.class);
 
-  @Mapping(
-      target = "questionCount",
-      expression = "java(gameEntity.getQuestions() != null ? gameEntity.getQuestions().size() : 0)")
   @Mapping(
       target = "createdAt",
       expression =
@@ -39,12 +39,43 @@ public interface GameMapper {
 
   List<GameResponse> toGameResponseList(List<Game> gameEntityList);
 
+  /**
+   * Maps a game for list views, leaving its questions out.
+   *
+   * <p>The question count is taken from the stored count, so mapping a page of games never loads
+   * their lazy question collections.
+   *
+   * @param gameEntity the game to map
+   * @return the game without its questions
+   */
+  @Named("toGameSummary")
+  @Mapping(target = "questions", ignore = true)
+  @Mapping(
+      target = "createdAt",
+      expression =
+          "java(gameEntity.getCreatedAt() != null ? gameEntity.getCreatedAt().toString() : null)")
+  @Mapping(
+      target = "updatedAt",
+      expression =
+          "java(gameEntity.getUpdatedAt() != null ? gameEntity.getUpdatedAt().toString() : null)")
+  GameResponse toGameSummary(Game gameEntity);
+
+  @IterableMapping(qualifiedByName = "toGameSummary")
+  List<GameResponse> toGameSummaryList(List<Game> gameEntityList);
+
   default PageResponse<GameResponse> toResponsePage(Page<@NonNull Game> page, Set<String> filters) {
-    Page<@NonNull GameResponse> gameResponsePage = page.map(this::toGameResponse);
+    Page<@NonNull GameResponse> gameResponsePage = page.map(this::toGameSummary);
 
     return pageMapper.toResponsePage(gameResponsePage, filters);
   }
 
+  default PageResponse<GameResponse> toResponseSlice(
+      Slice<@NonNull Game> slice, Set<String> filters) {
+    Slice<@NonNull GameResponse> gameResponseSlice = slice.map(this::toGameSummary);
+
+    return pageMapper.toResponseSlice(gameResponseSlice, filters);
+  }
+
   @Mapping(target = "id", ignore = true)
   @Mapping(target = "createdAt", ignore = true)
   @Mapping(target = "updatedAt", ignore = true)
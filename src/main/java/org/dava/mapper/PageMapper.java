@@ -5,10 +5,12 @@ import lombok.NonNull;
 import org.dava.response.PageResponse;
 import org.mapstruct.Mapper;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 /**
  * MapStruct mapper responsible for converting between a {@link Page} of any type and its
- * corresponding DTO {@link PageResponse}.
+ * corresponding DTO {@link PageResponse}. A {@link Slice} is converted to a response without
+ * totals.
  */
 @Mapper(componentModel = "spring")
 public interface PageMapper {
@@ -23,4 +25,14 @@ public interface PageMapper {
         .isLastPage(page.isLast())
         .build();
   }
+
+  default <T> PageResponse<T> toResponseSlice(Slice<@NonNull T> slice, Set<String> filters) {
+    return PageResponse.<T>builder()
+        .content(slice.getContent())
+        .filteredBy(filters)
+        .page(slice.getNumber())
+        .size(slice.getSize())
+        .isLastPage(slice.isLast())
+        .build();
+  }
 }
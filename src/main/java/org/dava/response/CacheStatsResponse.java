@@ -0,0 +1,20 @@
+package org.dava.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CacheStatsResponse {
+  private long hitCount;
+  private long missCount;
+  private long evictionCount;
+  private double hitRate;
+  private int entryCount;
+  private long usedBytes;
+  private long maxBytes;
+}
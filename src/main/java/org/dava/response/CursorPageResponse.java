@@ -0,0 +1,27 @@
+package org.dava.response;
+
+import java.util.List;
+import java.util.Set;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A page of results retrieved with keyset pagination.
+ *
+ * <p>Unlike {@link PageResponse}, it carries no page number or totals, since computing them would
+ * require a count query. The next page is requested with {@link #nextCursor}, which is {@code null}
+ * on the last page.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+  private List<T> content;
+  private int size;
+  private String nextCursor;
+  private Set<String> filteredBy;
+  private boolean isLastPage;
+}
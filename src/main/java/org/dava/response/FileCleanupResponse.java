@@ -0,0 +1,19 @@
+package org.dava.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class FileCleanupResponse {
+  private boolean dryRun;
+  private long unreferencedCount;
+  private long unreferencedBytes;
+  private long deletedCount;
+  private long reclaimedBytes;
+  private long durationMillis;
+}
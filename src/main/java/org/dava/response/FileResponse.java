@@ -19,10 +19,14 @@ public class FileResponse {
   private String name;
 
   @NotBlank
-  @Length(max = 150)
+  @Length(max = 1024)
   private String url;
 
   @NotBlank
   @Length(max = 50)
   private String contentType;
+
+  private Integer width;
+
+  private Integer height;
 }
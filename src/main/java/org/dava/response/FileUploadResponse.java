@@ -9,4 +9,5 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class FileUploadResponse {
   private String url;
+  private String contentUrl;
 }
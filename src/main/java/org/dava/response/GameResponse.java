@@ -1,5 +1,6 @@
 package org.dava.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.util.List;
@@ -34,5 +35,7 @@ public class GameResponse {
 
   private Integer questionCount;
 
+  /** The questions of the game, left out of list views. */
+  @JsonInclude(JsonInclude.Include.NON_NULL)
   private List<QuestionResponse> questions;
 }
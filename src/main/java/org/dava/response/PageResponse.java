@@ -1,5 +1,6 @@
 package org.dava.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import java.util.List;
 import java.util.Set;
 import lombok.AllArgsConstructor;
@@ -15,8 +16,15 @@ public class PageResponse<T> {
   private List<T> content;
   private int page;
   private int size;
-  private int totalPages;
-  private long totalElements;
+
+  /** The number of pages, or {@code null} if the listing was not counted. */
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private Integer totalPages;
+
+  /** The number of matching elements, or {@code null} if the listing was not counted. */
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private Long totalElements;
+
   private Set<String> filteredBy;
   private boolean isLastPage;
 }
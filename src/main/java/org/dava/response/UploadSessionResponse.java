@@ -0,0 +1,17 @@
+package org.dava.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UploadSessionResponse {
+  private String id;
+  private String fileName;
+  private long size;
+  private long offset;
+}
@@ -0,0 +1,216 @@
+package org.dava.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.extern.slf4j.Slf4j;
+import org.dava.dao.GameRepository;
+import org.dava.dao.GameSpecification;
+import org.dava.domain.Game;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory trigram index of game titles, used to answer case-insensitive substring searches.
+ *
+ * <p>Every title is split into its overlapping three-character sequences, and each sequence maps to
+ * the ids of the games whose title contains it. A search intersects the id sets of the trigrams of
+ * the searched text and then checks the remaining candidates against their full title, so the
+ * returned ids are exact matches rather than candidates.
+ *
+ * <p>The index is filled from the {@code game} table once the application is ready and is kept in
+ * sync by {@link GameTitleIndexListener}. Searches that it cannot answer well, because the index is
+ * not loaded yet, the text is shorter than a trigram or too many games match, are left to the
+ * database.
+ */
+@Slf4j
+@Component
+public class GameTitleIndex {
+  private static final int GRAM_LENGTH = 3;
+  private static final int LOAD_PAGE_SIZE = 1000;
+
+  private final GameRepository gameRepository;
+  private final int maxMatches;
+
+  private final Map<String, Set<Long>> postings = new HashMap<>();
+  private final Map<Long, String> titles = new HashMap<>();
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private volatile boolean loaded;
+
+  /**
+   * Creates an empty index.
+   *
+   * @param gameRepository the repository the titles are loaded from
+   * @param maxMatches the number of matches above which a search is left to the database
+   */
+  public GameTitleIndex(
+      GameRepository gameRepository,
+      @Value("${games.title-index.max-matches:1000}") int maxMatches) {
+
+    this.gameRepository = gameRepository;
+    this.maxMatches = maxMatches;
+  }
+
+  /** Adds the titles of all stored games to the index, reading them page by page. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() {
+    long after = 0;
+    List<Game> page;
+
+    do {
+      page =
+          gameRepository.findAllOrderedById(
+              GameSpecification.idGreaterThan(after), Limit.of(LOAD_PAGE_SIZE));
+      for (Game game : page) {
+        put(game.getId(), game.getTitle());
+        after = game.getId();
+      }
+    } while (page.size() == LOAD_PAGE_SIZE);
+
+    loaded = true;
+    log.info("Loaded {} game titles into the title index", size());
+  }
+
+  /**
+   * Finds the games whose title contains the given text, ignoring case.
+   *
+   * @param text the text to search for
+   * @return the ids of the matching games, or an empty {@link Optional} if the search should be run
+   *     by the database instead
+   */
+  public Optional<Set<Long>> findIds(String text) {
+    if (!loaded || text == null || text.length() < GRAM_LENGTH) {
+      return Optional.empty();
+    }
+
+    String needle = normalize(text);
+
+    lock.readLock().lock();
+    try {
+      List<Set<Long>> sets = new ArrayList<>();
+      for (String gram : trigrams(needle)) {
+        Set<Long> ids = postings.get(gram);
+        if (ids == null) {
+          return Optional.of(Set.of());
+        }
+        sets.add(ids);
+      }
+      sets.sort((a, b) -> Integer.compare(a.size(), b.size()));
+
+      Set<Long> matches = new HashSet<>();
+      for (Long id : sets.get(0)) {
+        if (containsAll(sets, id) && titles.get(id).contains(needle)) {
+          matches.add(id);
+          if (matches.size() > maxMatches) {
+            return Optional.empty();
+          }
+        }
+      }
+
+      return Optional.of(matches);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Indexes the title of a game, replacing its previous title.
+   *
+   * @param id the game id
+   * @param title the game title
+   */
+  public void put(Long id, String title) {
+    if (id == null || title == null) {
+      return;
+    }
+
+    String normalized = normalize(title);
+
+    lock.writeLock().lock();
+    try {
+      String previous = titles.put(id, normalized);
+      if (normalized.equals(previous)) {
+        return;
+      }
+      if (previous != null) {
+        removePostings(id, previous);
+      }
+      for (String gram : trigrams(normalized)) {
+        postings.computeIfAbsent(gram, key -> new HashSet<>()).add(id);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void remove(Long id) {
+    lock.writeLock().lock();
+    try {
+      String previous = titles.remove(id);
+      if (previous != null) {
+        removePostings(id, previous);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Indexes the stored title of a game again, or removes it if the game no longer exists. Used when
+   * a change that was already indexed is rolled back.
+   *
+   * @param id the game id
+   */
+  public void refresh(Long id) {
+    gameRepository.findTitleById(id).ifPresentOrElse(title -> put(id, title), () -> remove(id));
+  }
+
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return titles.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void removePostings(Long id, String title) {
+    for (String gram : trigrams(title)) {
+      Set<Long> ids = postings.get(gram);
+      if (ids != null && ids.remove(id) && ids.isEmpty()) {
+        postings.remove(gram);
+      }
+    }
+  }
+
+  private static boolean containsAll(List<Set<Long>> sets, Long id) {
+    for (int i = 1; i < sets.size(); i++) {
+      if (!sets.get(i).contains(id)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static Set<String> trigrams(String text) {
+    Set<String> grams = new HashSet<>();
+    for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+      grams.add(text.substring(i, i + GRAM_LENGTH));
+    }
+    return grams;
+  }
+
+  private static String normalize(String text) {
+    return text.toLowerCase(Locale.ROOT);
+  }
+}
@@ -0,0 +1,54 @@
+package org.dava.search;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.dava.domain.Game;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener that keeps the {@link GameTitleIndex} in sync with every write to a {@link
+ * Game}, whichever code path performs it.
+ *
+ * <p>Changes are indexed as soon as they are flushed, so they are visible to searches within the
+ * same transaction. If the transaction is rolled back afterwards, the affected game is indexed
+ * again from the database.
+ */
+public class GameTitleIndexListener {
+  private final ObjectProvider<GameTitleIndex> gameTitleIndex;
+
+  public GameTitleIndexListener(ObjectProvider<GameTitleIndex> gameTitleIndex) {
+    this.gameTitleIndex = gameTitleIndex;
+  }
+
+  @PostPersist
+  @PostUpdate
+  void onSave(Game game) {
+    gameTitleIndex.ifAvailable(index -> index.put(game.getId(), game.getTitle()));
+    refreshOnRollback(game.getId());
+  }
+
+  @PostRemove
+  void onRemove(Game game) {
+    gameTitleIndex.ifAvailable(index -> index.remove(game.getId()));
+    refreshOnRollback(game.getId());
+  }
+
+  private void refreshOnRollback(Long id) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return;
+    }
+
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCompletion(int status) {
+            if (status == STATUS_ROLLED_BACK) {
+              gameTitleIndex.ifAvailable(index -> index.refresh(id));
+            }
+          }
+        });
+  }
+}
@@ -0,0 +1,19 @@
+package org.dava.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import org.dava.dto.UploadSessionRequest;
+import org.dava.response.FileUploadResponse;
+import org.dava.response.UploadSessionResponse;
+
+public interface ChunkedUploadService {
+  UploadSessionResponse start(UploadSessionRequest request);
+
+  UploadSessionResponse getStatus(String id);
+
+  UploadSessionResponse appendChunk(String id, long offset, InputStream chunk) throws IOException;
+
+  FileUploadResponse complete(String id, String digest) throws IOException;
+
+  void abort(String id) throws IOException;
+}
@@ -0,0 +1,347 @@
+package org.dava.service;
+
+import static org.dava.validator.FileValidationMessages.CONTENT_TYPE_MISMATCH_MESSAGE;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.dava.dto.UploadSessionRequest;
+import org.dava.exception.UploadOffsetException;
+import org.dava.response.FileUploadResponse;
+import org.dava.response.UploadSessionResponse;
+import org.dava.util.ContentHelper;
+import org.dava.util.ImageHeaderReader;
+import org.dava.validator.FileValidator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * An implementation for the {@link ChunkedUploadService} interface. Lets clients upload a file in
+ * several requests and resume after a failed one.
+ *
+ * <p>An upload session is started with the name, content type and size of the file. Chunks are then
+ * appended, in order, to a temporary file through a {@link FileChannel}, while the size limit is
+ * enforced and the SHA-256 digest is updated as the bytes arrive, so no request body is ever held
+ * in memory. As soon as the first bytes arrive, their signature is checked against the declared
+ * content type, so mislabeled files are rejected before the rest is sent. The session offset only
+ * advances by the bytes actually written, which lets a client resume an interrupted chunk from
+ * {@link #getStatus(String)}. Once all bytes are received, the upload is completed by checking the
+ * digest sent by the client and handing the content to the {@link FileService}.
+ *
+ * <p>Sessions are kept in memory and expire after a configurable period of inactivity.
+ */
+@Slf4j
+@Service
+public class ChunkedUploadServiceImpl implements ChunkedUploadService {
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final FileService fileService;
+  private final FileValidator fileValidator;
+  private final Path directory;
+  private final long maxSize;
+  private final Duration expiry;
+
+  private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+  private static class UploadSession {
+    private final String id;
+    private final String fileName;
+    private final String contentType;
+    private final long size;
+    private final Path tempFile;
+    private final MessageDigest digest;
+    private long offset;
+    private boolean signatureChecked;
+    private Instant lastActivity = Instant.now();
+
+    UploadSession(String id, String fileName, String contentType, long size, Path tempFile) {
+      this.id = id;
+      this.fileName = fileName;
+      this.contentType = contentType;
+      this.size = size;
+      this.tempFile = tempFile;
+      this.digest = ContentHelper.newSha256();
+    }
+  }
+
+  /**
+   * Creates the service and clears the chunks left over by sessions of a previous run.
+   *
+   * @param fileService the service storing completed uploads
+   * @param fileValidator the validator checking whether a file name is already taken
+   * @param location the directory holding the chunks of ongoing uploads
+   * @param maxSizeMb the maximum size of an uploaded file in MB
+   * @param expiryMinutes the inactivity period after which an upload session is discarded
+   */
+  public ChunkedUploadServiceImpl(
+      FileService fileService,
+      FileValidator fileValidator,
+      @Value("${files.uploads.location:data/uploads}") String location,
+      @Value("${files.uploads.max-size-mb:10}") long maxSizeMb,
+      @Value("${files.uploads.expiry-minutes:1440}") long expiryMinutes) {
+
+    this.fileService = fileService;
+    this.fileValidator = fileValidator;
+    this.directory = Paths.get(location).toAbsolutePath().normalize();
+    this.maxSize = maxSizeMb * ContentHelper.BYTES_PER_MB;
+    this.expiry = Duration.ofMinutes(expiryMinutes);
+
+    try {
+      Files.createDirectories(directory);
+      try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(directory, "*.part")) {
+        for (Path leftover : leftovers) {
+          Files.deleteIfExists(leftover);
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not initialize upload directory at " + directory, e);
+    }
+  }
+
+  /**
+   * Starts an upload session for the described file.
+   *
+   * @param request the name, content type and size of the file
+   * @return an {@link UploadSessionResponse} with the session id and an offset of {@code 0}
+   * @throws IllegalArgumentException if the file description is invalid
+   */
+  @Override
+  public UploadSessionResponse start(UploadSessionRequest request) {
+    removeExpiredSessions();
+
+    if (request.getFileName() == null || request.getFileName().isBlank()) {
+      throw new IllegalArgumentException("File name cannot be empty");
+    }
+    if (!FileValidator.isSupportedContentType(request.getContentType())) {
+      throw new IllegalArgumentException("Unsupported file type: " + request.getContentType());
+    }
+    if (request.getSize() < 1 || request.getSize() > maxSize) {
+      throw new IllegalArgumentException(
+          String.format("Invalid size number, expected a value between 1 and %d", maxSize));
+    }
+    fileValidator.checkIfFileExists(request.getFileName());
+
+    String id = UUID.randomUUID().toString();
+    Path tempFile = directory.resolve(id + ".part");
+    try {
+      Files.createFile(tempFile);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not create upload session " + id, e);
+    }
+
+    UploadSession session =
+        new UploadSession(
+            id, request.getFileName(), request.getContentType(), request.getSize(), tempFile);
+    sessions.put(id, session);
+
+    return toResponse(session);
+  }
+
+  /**
+   * Retrieves the state of an upload session, notably the offset the next chunk must start at.
+   *
+   * @param id the session id
+   * @return an {@link UploadSessionResponse}
+   * @throws NoSuchElementException if no such session exists
+   */
+  @Override
+  public UploadSessionResponse getStatus(String id) {
+    UploadSession session = getSession(id);
+
+    synchronized (session) {
+      return toResponse(session);
+    }
+  }
+
+  /**
+   * Appends a chunk to an upload session.
+   *
+   * @param id the session id
+   * @param offset the position of the chunk within the file; must match the session offset
+   * @param chunk the chunk content
+   * @return an {@link UploadSessionResponse} with the updated offset
+   * @throws NoSuchElementException if no such session exists
+   * @throws UploadOffsetException if the chunk does not start where the previous one ended
+   * @throws IllegalArgumentException if the chunk exceeds the declared file size or the content
+   *     does not match the declared type, in which case the session is discarded
+   * @throws IOException if the chunk could not be read or written
+   */
+  @Override
+  public UploadSessionResponse appendChunk(String id, long offset, InputStream chunk)
+      throws IOException {
+    UploadSession session = getSession(id);
+
+    synchronized (session) {
+      if (offset != session.offset) {
+        throw new UploadOffsetException(
+            String.format(
+                "Expected a chunk at offset %d but received one at %d", session.offset, offset));
+      }
+
+      boolean rejected = false;
+      try (FileChannel channel =
+          FileChannel.open(session.tempFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+        channel.position(session.offset);
+
+        byte[] bytes = new byte[BUFFER_SIZE];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int read;
+        while (!rejected && (read = chunk.read(bytes)) != -1) {
+          if (session.offset + read > session.size) {
+            throw new IllegalArgumentException(
+                String.format("Chunk exceeds the declared file size of %d bytes", session.size));
+          }
+
+          buffer.clear().limit(read);
+          while (buffer.hasRemaining()) {
+            channel.write(buffer);
+          }
+          session.digest.update(bytes, 0, read);
+          session.offset += read;
+          rejected = !checkSignature(session, channel);
+        }
+      } finally {
+        session.lastActivity = Instant.now();
+      }
+
+      if (rejected) {
+        sessions.remove(id);
+        Files.deleteIfExists(session.tempFile);
+        throw new IllegalArgumentException(
+            CONTENT_TYPE_MISMATCH_MESSAGE.getMessage() + ": " + session.contentType);
+      }
+
+      return toResponse(session);
+    }
+  }
+
+  /**
+   * Completes an upload session and stores the assembled file.
+   *
+   * <p>The session is closed whatever the outcome, since a file with a wrong digest can only be
+   * fixed by uploading it again.
+   *
+   * @param id the session id
+   * @param digest the hex encoded SHA-256 digest of the whole file, as computed by the client
+   * @return a {@link FileUploadResponse} object representing the {@code file URL}
+   * @throws NoSuchElementException if no such session exists
+   * @throws IllegalArgumentException if some bytes are missing or the digest does not match
+   * @throws IOException if the assembled file could not be stored
+   */
+  @Override
+  public FileUploadResponse complete(String id, String digest) throws IOException {
+    UploadSession session = getSession(id);
+
+    synchronized (session) {
+      if (session.offset != session.size) {
+        throw new IllegalArgumentException(
+            String.format(
+                "Upload is incomplete, received %d of %d bytes", session.offset, session.size));
+      }
+
+      sessions.remove(id);
+      try {
+        String actual = ContentHelper.toHex(session.digest);
+        if (!actual.equalsIgnoreCase(digest)) {
+          throw new IllegalArgumentException("Digest mismatch, the upload was corrupted");
+        }
+
+        try (InputStream content = Files.newInputStream(session.tempFile)) {
+          return fileService.upload(session.fileName, session.contentType, content);
+        }
+      } finally {
+        Files.deleteIfExists(session.tempFile);
+      }
+    }
+  }
+
+  /**
+   * Discards an upload session and the chunks received so far.
+   *
+   * @param id the session id
+   * @throws NoSuchElementException if no such session exists
+   * @throws IOException if the received chunks could not be deleted
+   */
+  @Override
+  public void abort(String id) throws IOException {
+    UploadSession session = sessions.remove(id);
+    if (session == null) {
+      throw new NoSuchElementException("Upload session not found: " + id);
+    }
+
+    synchronized (session) {
+      Files.deleteIfExists(session.tempFile);
+    }
+  }
+
+  private static boolean checkSignature(UploadSession session, FileChannel channel)
+      throws IOException {
+    if (session.signatureChecked
+        || (session.offset < ImageHeaderReader.HEADER_LENGTH && session.offset < session.size)) {
+      return true;
+    }
+
+    ByteBuffer header =
+        ByteBuffer.allocate((int) Math.min(session.offset, ImageHeaderReader.HEADER_LENGTH));
+    while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+      // keep reading until the header is complete
+    }
+    session.signatureChecked = true;
+
+    return FileValidator.isSignatureMatchingType(header.array(), session.contentType);
+  }
+
+  private UploadSession getSession(String id) {
+    UploadSession session = sessions.get(id);
+    if (session == null) {
+      throw new NoSuchElementException("Upload session not found: " + id);
+    }
+
+    return session;
+  }
+
+  private void removeExpiredSessions() {
+    Instant threshold = Instant.now().minus(expiry);
+
+    sessions
+        .values()
+        .removeIf(
+            session -> {
+              synchronized (session) {
+                if (session.lastActivity.isAfter(threshold)) {
+                  return false;
+                }
+                try {
+                  Files.deleteIfExists(session.tempFile);
+                } catch (IOException e) {
+                  log.warn("Could not delete expired upload {}", session.id, e);
+                }
+                return true;
+              }
+            });
+  }
+
+  private static UploadSessionResponse toResponse(UploadSession session) {
+    return UploadSessionResponse.builder()
+        .id(session.id)
+        .fileName(session.fileName)
+        .size(session.size)
+        .offset(session.offset)
+        .build();
+  }
+}
@@ -0,0 +1,7 @@
+package org.dava.service;
+
+import org.dava.response.FileCleanupResponse;
+
+public interface FileCleanupService {
+  FileCleanupResponse deleteUnreferencedFiles(boolean dryRun);
+}
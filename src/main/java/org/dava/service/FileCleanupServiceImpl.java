@@ -0,0 +1,210 @@
+package org.dava.service;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.dava.cache.FileContentCache;
+import org.dava.dao.FileRepository;
+import org.dava.domain.File;
+import org.dava.exception.CleanupAlreadyRunningException;
+import org.dava.response.FileCleanupResponse;
+import org.dava.storage.FileStorage;
+import org.dava.storage.StorageLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * An implementation for the {@link FileCleanupService} interface. Deletes uploaded files that no
+ * question uses as its image.
+ *
+ * <p>The {@code files} table is walked in chunks ordered by id, each chunk being selected with an
+ * anti-join against the question image URLs. Only files older than the grace period are considered,
+ * so images uploaded for a game that is still being written are kept. Every chunk is deleted with a
+ * single statement that checks again that the files are unreferenced, and the content of a file is
+ * removed from the {@link FileStorage} once no other file shares its digest. Both deletions are
+ * made under the exclusive {@link StorageLock}, so a game being created cannot reference a file,
+ * and an upload of the same content cannot rely on it, between the check and the deletion. The job
+ * pauses between chunks to limit its impact on the database.
+ */
+@Slf4j
+@Service
+public class FileCleanupServiceImpl implements FileCleanupService {
+  private final FileRepository fileRepository;
+  private final FileStorage fileStorage;
+  private final FileContentCache fileContentCache;
+  private final StorageLock storageLock;
+
+  private final boolean enabled;
+  private final boolean scheduledDryRun;
+  private final long gracePeriodHours;
+  private final int chunkSize;
+  private final long chunkDelayMillis;
+
+  private final ReentrantLock running = new ReentrantLock();
+
+  /**
+   * Creates the cleanup service.
+   *
+   * @param fileRepository the repository of uploaded files
+   * @param fileStorage the storage holding the file content
+   * @param fileContentCache the cache deleted files are evicted from
+   * @param storageLock orders content deletions against uploads
+   * @param enabled whether the scheduled cleanup runs
+   * @param scheduledDryRun whether the scheduled cleanup only reports what it would delete
+   * @param gracePeriodHours the age in hours below which unreferenced files are kept
+   * @param chunkSize the number of files selected and deleted at once
+   * @param chunkDelayMillis the pause between two chunks
+   */
+  public FileCleanupServiceImpl(
+      FileRepository fileRepository,
+      FileStorage fileStorage,
+      FileContentCache fileContentCache,
+      StorageLock storageLock,
+      @Value("${files.gc.enabled:true}") boolean enabled,
+      @Value("${files.gc.dry-run:false}") boolean scheduledDryRun,
+      @Value("${files.gc.grace-period-hours:24}") long gracePeriodHours,
+      @Value("${files.gc.chunk-size:100}") int chunkSize,
+      @Value("${files.gc.chunk-delay-ms:200}") long chunkDelayMillis) {
+
+    if (chunkSize < 1) {
+      throw new IllegalArgumentException("The cleanup chunk size must be positive");
+    }
+
+    this.fileRepository = fileRepository;
+    this.fileStorage = fileStorage;
+    this.fileContentCache = fileContentCache;
+    this.storageLock = storageLock;
+    this.enabled = enabled;
+    this.scheduledDryRun = scheduledDryRun;
+    this.gracePeriodHours = gracePeriodHours;
+    this.chunkSize = chunkSize;
+    this.chunkDelayMillis = chunkDelayMillis;
+  }
+
+  @Scheduled(cron = "${files.gc.cron:0 30 3 * * *}")
+  public void deleteUnreferencedFilesOnSchedule() {
+    if (!enabled) {
+      return;
+    }
+
+    try {
+      deleteUnreferencedFiles(scheduledDryRun);
+    } catch (CleanupAlreadyRunningException e) {
+      log.info("Skipping scheduled file cleanup: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Deletes the files that no question uses as its image and that are older than the grace period.
+   *
+   * @param dryRun if {@code true}, the unreferenced files are only counted
+   * @return a {@link FileCleanupResponse} describing what was found and deleted
+   * @throws CleanupAlreadyRunningException if a cleanup is already running
+   */
+  @Override
+  public FileCleanupResponse deleteUnreferencedFiles(boolean dryRun) {
+    if (!running.tryLock()) {
+      throw new CleanupAlreadyRunningException("A file cleanup is already running");
+    }
+
+    try {
+      return run(dryRun);
+    } finally {
+      running.unlock();
+    }
+  }
+
+  private FileCleanupResponse run(boolean dryRun) {
+    long start = System.nanoTime();
+    LocalDateTime createdBefore = LocalDateTime.now().minusHours(gracePeriodHours);
+    FileCleanupResponse report = FileCleanupResponse.builder().dryRun(dryRun).build();
+
+    long after = 0;
+    List<File> chunk;
+    do {
+      chunk = fileRepository.findUnreferencedAfter(after, createdBefore, Limit.of(chunkSize));
+      if (chunk.isEmpty()) {
+        break;
+      }
+      after = chunk.get(chunk.size() - 1).getId();
+
+      report.setUnreferencedCount(report.getUnreferencedCount() + chunk.size());
+      report.setUnreferencedBytes(
+          report.getUnreferencedBytes() + chunk.stream().mapToLong(File::getSize).sum());
+      if (!dryRun) {
+        deleteChunk(chunk, report);
+      }
+
+      log.info(
+          "File cleanup progress: {} unreferenced, {} deleted, {} bytes reclaimed",
+          report.getUnreferencedCount(),
+          report.getDeletedCount(),
+          report.getReclaimedBytes());
+    } while (chunk.size() == chunkSize && pause());
+
+    report.setDurationMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    log.info("File cleanup finished: {}", report);
+    return report;
+  }
+
+  private void deleteChunk(List<File> chunk, FileCleanupResponse report) {
+    int deleted;
+    Lock exclusive = storageLock.exclusive();
+    exclusive.lock();
+    try {
+      deleted = fileRepository.deleteUnreferenced(chunk.stream().map(File::getId).toList());
+    } finally {
+      exclusive.unlock();
+    }
+    report.setDeletedCount(report.getDeletedCount() + deleted);
+
+    Map<String, Long> contentSizes = new LinkedHashMap<>();
+    for (File file : chunk) {
+      fileContentCache.invalidate(file.getName());
+      contentSizes.putIfAbsent(file.getDigest(), file.getSize());
+    }
+
+    for (Map.Entry<String, Long> content : contentSizes.entrySet()) {
+      if (deleteContentIfUnreferenced(content.getKey())) {
+        report.setReclaimedBytes(report.getReclaimedBytes() + content.getValue());
+      }
+    }
+  }
+
+  private boolean deleteContentIfUnreferenced(String digest) {
+    Lock exclusive = storageLock.exclusive();
+    exclusive.lock();
+    try {
+      if (fileRepository.existsByDigest(digest)) {
+        return false;
+      }
+
+      fileStorage.delete(digest);
+      return true;
+    } catch (IOException e) {
+      log.warn("Could not delete content with digest {}", digest, e);
+      return false;
+    } finally {
+      exclusive.unlock();
+    }
+  }
+
+  private boolean pause() {
+    try {
+      Thread.sleep(chunkDelayMillis);
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      log.warn("File cleanup interrupted");
+      return false;
+    }
+  }
+}
@@ -2,8 +2,10 @@ package org.dava.service;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import org.dava.dto.FileDto;
+import org.dava.response.CacheStatsResponse;
 import org.dava.response.FileResponse;
 import org.dava.response.FileUploadResponse;
 import org.springframework.web.multipart.MultipartFile;
@@ -11,7 +13,16 @@ import org.springframework.web.multipart.MultipartFile;
 public interface FileService {
   FileUploadResponse upload(MultipartFile file) throws IOException;
 
-  List<FileResponse> getAll();
+  FileUploadResponse upload(String fileName, String contentType, InputStream content)
+      throws IOException;
+
+  List<FileResponse> getPage(long after, int limit);
 
   FileDto getByName(String name) throws FileNotFoundException;
+
+  FileDto getByName(String name, int width) throws FileNotFoundException;
+
+  FileDto getByDigest(String digest) throws FileNotFoundException;
+
+  CacheStatsResponse getCacheStats();
 }
@@ -1,17 +1,41 @@
 package org.dava.service;
 
+import java.io.BufferedInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
 import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dava.cache.ByteBufferResource;
+import org.dava.cache.CachedFile;
+import org.dava.cache.FileContentCache;
+import org.dava.cache.FileNameFilter;
 import org.dava.dao.FileRepository;
 import org.dava.domain.File;
 import org.dava.dto.FileDto;
-import org.dava.mapper.FileMapper;
+import org.dava.dto.ImageDerivative;
+import org.dava.dto.ImageInfo;
+import org.dava.exception.ExistentFileException;
+import org.dava.exception.InvalidFileException;
+import org.dava.response.CacheStatsResponse;
 import org.dava.response.FileResponse;
 import org.dava.response.FileUploadResponse;
+import org.dava.storage.FileStorage;
+import org.dava.storage.StorageLock;
+import org.dava.storage.StoredContent;
 import org.dava.util.FileUrlGenerator;
+import org.dava.util.ImageHeaderReader;
 import org.dava.validator.FileValidator;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.ConstraintViolationException.ConstraintKind;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -19,73 +43,312 @@ import org.springframework.web.multipart.MultipartFile;
  * An implementation for the {@link FileService} interface. Provides methods for retrieving &
  * uploading files.
  */
+@Slf4j
 @Service
 @AllArgsConstructor
 public class FileServiceImpl implements FileService {
+  public static final int MAX_PAGE_SIZE = 1000;
+
   private final FileRepository fileRepository;
-  private final FileMapper fileMapper;
   private final FileValidator fileValidator;
+  private final FileStorage fileStorage;
+  private final FileContentCache fileContentCache;
+  private final ImageDerivativeService imageDerivativeService;
+  private final FileNameFilter fileNameFilter;
+  private final FileUrlGenerator fileUrlGenerator;
+  private final StorageLock storageLock;
 
   /**
    * Uploads a {@link MultipartFile} object.
    *
-   * <p>Gets a generated url for the file, using {@link FileUrlGenerator}. Creates a {@link File}
-   * object containing file details, such as the name, content, content type and the generated url
-   * and stores the file within the database. If the file storage is successful, it returns a {@link
-   * FileUploadResponse} object, representing the {@code file URL}, otherwise a descriptive
-   * exception is thrown.
+   * <p>Gets a generated url for the file, using {@link FileUrlGenerator}. The file content is
+   * streamed into the {@link FileStorage}, which stores it under its SHA-256 digest, and a {@link
+   * File} object containing the file metadata, such as the name, content type, digest, size and the
+   * generated url is stored within the database. If the file storage is successful, it returns a
+   * {@link FileUploadResponse} object, representing the {@code file URL}, otherwise a descriptive
+   * exception is thrown. Resized derivatives of the image are then generated in the background by
+   * the {@link ImageDerivativeService}.
    *
    * @param fileToUpload a {@link MultipartFile} to be uploaded
    * @return a {@link FileUploadResponse} object representing the {@code file URL}
-   * @throws IOException if the content of the file could not be read with {@link
-   *     MultipartFile#getBytes()}
+   * @throws IOException if the content of the file could not be read or stored
    */
   public FileUploadResponse upload(MultipartFile fileToUpload) throws IOException {
-    fileValidator.checkIfFileExists(fileToUpload.getOriginalFilename());
+    try (InputStream content = fileToUpload.getInputStream()) {
+      return upload(fileToUpload.getOriginalFilename(), fileToUpload.getContentType(), content);
+    }
+  }
 
-    String url = FileUrlGenerator.generateUrl(fileToUpload.getOriginalFilename());
+  /**
+   * Uploads file content read from a stream, such as the content assembled by a chunked upload.
+   *
+   * <p>The image header is read first, to reject content that does not match the declared type
+   * before anything is stored, and to record the image dimensions.
+   *
+   * <p>Duplicate names are detected by the unique constraint on the file name when the metadata is
+   * inserted, so a new name costs a single round trip. The database is only queried beforehand when
+   * the {@link FileNameFilter} reports that the name might already be taken, which avoids storing
+   * the content of most rejected uploads. If the metadata cannot be inserted, the stored content is
+   * deleted again unless another file references it.
+   *
+   * <p>Storing the content and inserting the metadata happen under the shared {@link StorageLock},
+   * so the content cannot be deleted as unreferenced in between.
+   *
+   * @param fileName the name of the file
+   * @param contentType the content type of the file
+   * @param content the file content; it is read fully but not closed
+   * @return a {@link FileUploadResponse} object representing the {@code file URL}
+   * @throws ExistentFileException if a file with the same name was already uploaded
+   * @throws IllegalArgumentException if the content is not an image of the declared type
+   * @throws IOException if the content of the file could not be read or stored
+   * @see #upload(MultipartFile)
+   */
+  @Override
+  public FileUploadResponse upload(String fileName, String contentType, InputStream content)
+      throws IOException {
+    if (fileName == null || fileName.isEmpty()) {
+      throw new InvalidFileException("Invalid file name provided.");
+    }
+    if (fileNameFilter.mightContain(fileName)) {
+      fileValidator.checkIfFileExists(fileName);
+    }
 
-    File file =
-        File.builder()
-            .name(fileToUpload.getOriginalFilename())
-            .content(fileToUpload.getBytes())
-            .contentType(fileToUpload.getContentType())
-            .url(url)
-            .build();
-    fileRepository.save(file);
-
-    return new FileUploadResponse(file.getUrl());
+    BufferedInputStream buffered = new BufferedInputStream(content);
+    buffered.mark(ImageHeaderReader.MAX_HEADER_LENGTH);
+    ImageInfo image = fileValidator.checkImageContent(buffered, contentType);
+    buffered.reset();
+
+    File file;
+    RuntimeException insertFailure = null;
+    Lock shared = storageLock.shared();
+    shared.lock();
+    try {
+      StoredContent storedContent = fileStorage.store(buffered);
+
+      file =
+          File.builder()
+              .name(fileName)
+              .contentType(contentType)
+              .url(fileUrlGenerator.generateUrl(fileName, storedContent.getDigest()))
+              .digest(storedContent.getDigest())
+              .size(storedContent.getSize())
+              .width(image.getWidth())
+              .height(image.getHeight())
+              .build();
+      try {
+        fileRepository.saveAndFlush(file);
+      } catch (RuntimeException e) {
+        insertFailure = e;
+      }
+    } finally {
+      shared.unlock();
+    }
+
+    if (insertFailure != null) {
+      deleteContentIfUnreferenced(file.getDigest());
+      if (insertFailure instanceof DataIntegrityViolationException e && isUniqueViolation(e)) {
+        throw new ExistentFileException(
+            "A file with the same name was already uploaded: " + fileName);
+      }
+      throw insertFailure;
+    }
+
+    fileNameFilter.add(fileName);
+    fileContentCache.invalidate(file.getName());
+    imageDerivativeService.scheduleDerivatives(
+        file.getDigest(), file.getContentType(), file.getWidth(), file.getHeight());
+
+    return new FileUploadResponse(
+        file.getUrl(), fileUrlGenerator.generateContentUrl(file.getDigest()));
   }
 
   /**
-   * Retrieves a list of uploaded files.
+   * Retrieves a page of uploaded files, ordered by id.
    *
-   * <p>The list of the {@link File} objects found is converted into a list of {@link FileResponse}
-   * objects using the {@link FileMapper}.
+   * <p>The metadata is read through a projection query, so neither the file content nor the {@link
+   * File} entities are loaded. Pages are addressed by the id of the last file of the previous page
+   * rather than by an offset, so the cost of a page does not grow with its position.
    *
+   * @param after the id of the last file of the previous page, or {@code 0} for the first page
+   * @param limit the maximum number of files to retrieve, between 1 and {@value #MAX_PAGE_SIZE}
    * @return a list of {@link FileResponse}
+   * @throws IllegalArgumentException if the limit is out of bounds
    */
   @Override
-  public List<FileResponse> getAll() {
-    List<File> files = fileRepository.findAll();
-    return fileMapper.toFileResponseList(files);
+  public List<FileResponse> getPage(long after, int limit) {
+    if (limit < 1 || limit > MAX_PAGE_SIZE) {
+      throw new IllegalArgumentException(
+          String.format("Invalid limit number, expected a value between 1 and %d", MAX_PAGE_SIZE));
+    }
+
+    return fileRepository.findPageAfter(after, Limit.of(limit));
   }
 
   /**
    * Retrieves a file representation based on the provided file name.
    *
+   * <p>The file is served from the {@link FileContentCache} when possible, so repeated requests for
+   * the same image do not reach the database. The file content is never read into the heap; the
+   * returned {@link FileDto} exposes it as a {@link Resource} backed either by an off-heap cache
+   * buffer or by the {@link FileStorage}, so it can be streamed directly to the client.
+   *
    * @param name the name of the file to be found
-   * @return a {@link FileDto} object consisting of the file content and the content type
+   * @return a {@link FileDto} object consisting of the content type, size, digest, upload time and
+   *     file content
    * @throws FileNotFoundException if no file with such name was found
    */
   @Override
   public FileDto getByName(String name) throws FileNotFoundException {
+    return toFileDto(fileContentCache.get(name, this::loadFile));
+  }
+
+  /**
+   * Retrieves a resized representation of the file with the provided name.
+   *
+   * <p>The smallest pre-generated derivative that is at least as wide as requested is returned. If
+   * no such derivative exists, for example because the original image is narrower or because it has
+   * not been generated yet, the original file is returned instead. Only the metadata of the
+   * original is resolved to look the derivative up; its content is loaded only if it is served.
+   *
+   * @param name the name of the file to be found
+   * @param width the requested width in pixels
+   * @return a {@link FileDto} object describing the derivative or the original file
+   * @throws FileNotFoundException if no file with such name was found
+   * @throws IllegalArgumentException if the width is not positive
+   */
+  @Override
+  public FileDto getByName(String name, int width) throws FileNotFoundException {
+    CachedFile original = fileContentCache.peek(name);
+    File file = null;
+    if (original == null) {
+      file = findFile(name);
+      original =
+          new CachedFile(
+              file.getContentType(), file.getSize(), file.getDigest(), file.getCreatedAt(), null);
+    }
+
+    Optional<ImageDerivative> derivative =
+        imageDerivativeService.findDerivative(original.getDigest(), width);
+    if (derivative.isEmpty()) {
+      File loaded = file;
+      return loaded == null
+          ? getByName(name)
+          : toFileDto(fileContentCache.get(name, n -> toCachedFile(loaded)));
+    }
+
+    return new FileDto(
+        original.getContentType(),
+        derivative.get().getSize(),
+        original.getDigest(),
+        original.getLastModified(),
+        derivative.get().getContent(),
+        derivative.get().getWidth());
+  }
+
+  /**
+   * Retrieves a file representation based on the digest of its content.
+   *
+   * <p>Identical content uploaded under several names is stored only once, so any file with the
+   * given digest describes it. The file found is then cached under its name, sharing the cached
+   * content buffer between all names with the same digest, without being looked up again.
+   *
+   * @param digest the hex encoded SHA-256 digest of the file content
+   * @return a {@link FileDto} object consisting of the content type, size, digest, upload time and
+   *     file content
+   * @throws FileNotFoundException if no file with such content was found
+   */
+  @Override
+  public FileDto getByDigest(String digest) throws FileNotFoundException {
     File file =
         fileRepository
-            .findByName(name)
+            .findFirstByDigestOrderByIdAsc(digest)
             .orElseThrow(
-                () -> new FileNotFoundException("File with name '" + name + "' not found."));
+                () -> new FileNotFoundException("File with digest '" + digest + "' not found."));
+
+    return toFileDto(fileContentCache.get(file.getName(), name -> toCachedFile(file)));
+  }
+
+  /**
+   * Retrieves the statistics of the in-memory file cache.
+   *
+   * @return a {@link CacheStatsResponse} describing the cache usage
+   */
+  @Override
+  public CacheStatsResponse getCacheStats() {
+    return fileContentCache.getStats();
+  }
+
+  private FileDto toFileDto(CachedFile file) throws FileNotFoundException {
+    Resource content =
+        file.getContent() != null
+            ? new ByteBufferResource(file.getContent())
+            : fileStorage.load(file.getDigest());
+
+    return new FileDto(
+        file.getContentType(),
+        file.getSize(),
+        file.getDigest(),
+        file.getLastModified(),
+        content,
+        null);
+  }
+
+  /**
+   * Deletes stored content that an upload failed to reference, unless another file references the
+   * same content.
+   */
+  private void deleteContentIfUnreferenced(String digest) {
+    Lock exclusive = storageLock.exclusive();
+    exclusive.lock();
+    try {
+      if (!fileRepository.existsByDigest(digest)) {
+        fileStorage.delete(digest);
+      }
+    } catch (IOException | RuntimeException e) {
+      log.warn("Could not delete content with digest {} of a failed upload", digest, e);
+    } finally {
+      exclusive.unlock();
+    }
+  }
+
+  private File findFile(String name) throws FileNotFoundException {
+    return fileRepository
+        .findByName(name)
+        .orElseThrow(() -> new FileNotFoundException("File with name '" + name + "' not found."));
+  }
+
+  private CachedFile loadFile(String name) throws FileNotFoundException {
+    return toCachedFile(findFile(name));
+  }
+
+  private CachedFile toCachedFile(File file) throws FileNotFoundException {
+    ByteBuffer content = fileContentCache.getContent(file.getDigest());
+    if (content == null && fileContentCache.isCacheable(file.getSize())) {
+      Resource resource = fileStorage.load(file.getDigest());
+      try {
+        content = FileContentCache.readContent(resource, file.getSize());
+      } catch (FileNotFoundException e) {
+        throw e;
+      } catch (IOException e) {
+        log.warn("Could not cache content of file '{}'", file.getName(), e);
+      }
+    }
+
+    return new CachedFile(
+        file.getContentType(), file.getSize(), file.getDigest(), file.getCreatedAt(), content);
+  }
+
+  private static boolean isUniqueViolation(DataIntegrityViolationException e) {
+    if (e instanceof DuplicateKeyException) {
+      return true;
+    }
+
+    for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+      if (cause instanceof ConstraintViolationException violation) {
+        return violation.getKind() == ConstraintKind.UNIQUE;
+      }
+    }
 
-    return new FileDto(file.getContentType(), file.getContent());
+    return false;
   }
 }
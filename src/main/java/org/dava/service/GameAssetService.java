@@ -0,0 +1,12 @@
+package org.dava.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import org.dava.domain.File;
+
+public interface GameAssetService {
+  List<File> getAssets(Long gameId);
+
+  void writeArchive(List<File> assets, OutputStream out) throws IOException;
+}
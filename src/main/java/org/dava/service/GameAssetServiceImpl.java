@@ -0,0 +1,119 @@
+package org.dava.service;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dava.cache.ByteBufferResource;
+import org.dava.cache.FileContentCache;
+import org.dava.dao.FileRepository;
+import org.dava.dao.GameRepository;
+import org.dava.domain.File;
+import org.dava.storage.FileStorage;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+/**
+ * An implementation for the {@link GameAssetService} interface. Bundles the images of a game into a
+ * single ZIP archive, so clients can preload a whole game with one request.
+ */
+@Slf4j
+@Service
+@AllArgsConstructor
+public class GameAssetServiceImpl implements GameAssetService {
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final GameRepository gameRepository;
+  private final FileRepository fileRepository;
+  private final FileStorage fileStorage;
+  private final FileContentCache fileContentCache;
+
+  /**
+   * Retrieves the files used as question images by the given game.
+   *
+   * @param gameId the id of the game
+   * @return the list of {@link File} objects, ordered by name
+   * @throws NoSuchElementException if no game with such id exists
+   */
+  @Override
+  public List<File> getAssets(Long gameId) {
+    if (!gameRepository.existsById(gameId)) {
+      throw new NoSuchElementException(String.format("Game with id %d was not found.", gameId));
+    }
+
+    return fileRepository.findAllByGameId(gameId);
+  }
+
+  /**
+   * Writes the content of the given files to a ZIP archive, one entry per file.
+   *
+   * <p>Images are already compressed, so entries are {@code STORED} rather than deflated. Stored
+   * entries need their CRC-32 before their content is written; it is computed in a first pass over
+   * the content, which is then streamed to the archive in a second pass. Only a fixed-size buffer
+   * is held in memory, whatever the number and size of the files. Content that is missing from the
+   * storage is skipped.
+   *
+   * @param assets the files to write, as returned by {@link #getAssets(Long)}
+   * @param out the stream the archive is written to; it is not closed
+   * @throws IOException if the content could not be read or the archive could not be written
+   */
+  @Override
+  public void writeArchive(List<File> assets, OutputStream out) throws IOException {
+    ZipOutputStream zip = new ZipOutputStream(out);
+    byte[] buffer = new byte[BUFFER_SIZE];
+
+    for (File asset : assets) {
+      Resource content;
+      CRC32 crc = new CRC32();
+      long size = 0;
+      try {
+        content = load(asset.getDigest());
+        try (InputStream in = content.getInputStream()) {
+          for (int read; (read = in.read(buffer)) >= 0; size += read) {
+            crc.update(buffer, 0, read);
+          }
+        }
+      } catch (FileNotFoundException e) {
+        log.warn("Skipping asset '{}' with missing content", asset.getName(), e);
+        continue;
+      }
+
+      ZipEntry entry = new ZipEntry(entryName(asset.getName()));
+      entry.setMethod(ZipEntry.STORED);
+      entry.setSize(size);
+      entry.setCompressedSize(size);
+      entry.setCrc(crc.getValue());
+      if (asset.getCreatedAt() != null) {
+        entry.setTimeLocal(asset.getCreatedAt());
+      }
+
+      zip.putNextEntry(entry);
+      try (InputStream in = content.getInputStream()) {
+        for (int read; (read = in.read(buffer)) >= 0; ) {
+          zip.write(buffer, 0, read);
+        }
+      }
+      zip.closeEntry();
+    }
+
+    zip.finish();
+  }
+
+  private Resource load(String digest) throws FileNotFoundException {
+    ByteBuffer cached = fileContentCache.getContent(digest);
+
+    return cached != null ? new ByteBufferResource(cached) : fileStorage.load(digest);
+  }
+
+  private static String entryName(String fileName) {
+    return fileName.replace('/', '_').replace('\\', '_');
+  }
+}
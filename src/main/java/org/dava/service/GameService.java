@@ -3,13 +3,26 @@ package org.dava.service;
 import java.util.Map;
 import org.dava.dto.GameRequest;
 import org.dava.dto.GameUpdateRequest;
+import org.dava.enumeration.CountMode;
+import org.dava.response.CacheStatsResponse;
+import org.dava.response.CursorPageResponse;
 import org.dava.response.GameResponse;
 import org.dava.response.PageResponse;
 
 public interface GameService {
   GameResponse createGame(GameRequest gameRequest, Long userId);
 
-  PageResponse<GameResponse> getAll(int page, int size, Map<String, Object> filters);
+  default PageResponse<GameResponse> getAll(int page, int size, Map<String, Object> filters) {
+    return getAll(page, size, CountMode.EXACT, filters);
+  }
+
+  PageResponse<GameResponse> getAll(
+      int page, int size, CountMode countMode, Map<String, Object> filters);
+
+  CursorPageResponse<GameResponse> getAllAfter(
+      String cursor, int size, Map<String, Object> filters);
+
+  CacheStatsResponse getListingCacheStats();
 
   GameResponse updateGameMetadata(Long gameId, Long userId, GameUpdateRequest request);
 }
@@ -1,12 +1,23 @@
 package org.dava.service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import org.dava.cache.GameCountCache;
+import org.dava.cache.GameListingCache;
+import org.dava.dao.FileRepository;
 import org.dava.dao.GameRepository;
 import org.dava.dao.GameSpecification;
 import org.dava.domain.Game;
@@ -14,17 +25,27 @@ import org.dava.domain.Question;
 import org.dava.dto.GameRequest;
 import org.dava.dto.GameUpdateRequest;
 import org.dava.dto.QuestionRequest;
+import org.dava.enumeration.CountMode;
+import org.dava.enumeration.GameStatus;
 import org.dava.exception.InvalidGameException;
 import org.dava.mapper.GameMapper;
 import org.dava.mapper.QuestionMapper;
+import org.dava.response.CacheStatsResponse;
+import org.dava.response.CursorPageResponse;
 import org.dava.response.GameResponse;
 import org.dava.response.PageResponse;
 import org.dava.response.QuestionResponse;
+import org.dava.search.GameTitleIndex;
+import org.dava.storage.StorageLock;
 import org.dava.util.FilteringHelper;
 import org.dava.util.GameValidator;
+import org.dava.util.SingleFlight;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
@@ -36,10 +57,32 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class GameServiceImpl implements GameService {
   private final GameRepository gameRepository;
+  private final FileRepository fileRepository;
+  private final StorageLock storageLock;
+  private final GameCountCache gameCountCache;
+  private final GameTitleIndex gameTitleIndex;
+  private final GameListingCache gameListingCache;
+  private final GameSnapshotService gameSnapshotService;
 
   private final GameMapper gameMapper;
   private final QuestionMapper questionMapper;
 
+  private final SingleFlight<ListingKey, PageResponse<GameResponse>> listingFlights =
+      new SingleFlight<>();
+  private final SingleFlight<CursorKey, CursorPageResponse<GameResponse>> cursorFlights =
+      new SingleFlight<>();
+
+  /** Normalized form of a listing request; equal keys return the same page. */
+  private record ListingKey(
+      Pageable pageable,
+      CountMode countMode,
+      Map<String, Object> filters,
+      Set<String> filteredBy) {}
+
+  /** Normalized form of a cursor listing request; equal keys return the same page. */
+  private record CursorKey(
+      String cursor, int size, Map<String, Object> filters, Set<String> filteredBy) {}
+
   /**
    * Retrieves a paginated list of games, optionally filtered by several fields.
    *
@@ -47,22 +90,63 @@ public class GameServiceImpl implements GameService {
    * {@code filters} are provided, all games are returned, based on the provided {@code pagination
    * parameters}.
    *
+   * <p>Games are returned in the order given by the {@code sort} parameter, written as {@code
+   * field} or {@code field,direction}, such as {@code updatedAt,desc}. Games with equal values are
+   * ordered by id, so pages do not overlap.
+   *
+   * <p>Pages are served from the {@link GameListingCache} while they are fresh and no game they
+   * could contain has been created or updated since. Concurrent requests for a page that has to be
+   * loaded share a single load.
+   *
+   * <p>With {@link CountMode#EXACT}, the matching games are counted on every call. The other modes
+   * fetch one extra game to tell whether a next page exists instead; {@link CountMode#APPROXIMATE}
+   * then adds totals from the {@link GameCountCache}, which recounts each filter combination at
+   * most once per refresh period.
+   *
    * @param page the page number
    * @param size the size of the page
+   * @param countMode how the totals of the response are computed
    * @param filters a map of filters written as {@code field=value} pairs
    * @return a {@link PageResponse} containing the requested page of {@link GameResponse} objects
+   * @throws NoSuchElementException if a page after the first one has no games
    */
-  public PageResponse<GameResponse> getAll(int page, int size, Map<String, Object> filters) {
+  @Override
+  public PageResponse<GameResponse> getAll(
+      int page, int size, CountMode countMode, Map<String, Object> filters) {
     GameValidator.checkIntegerInput(page, "page");
     GameValidator.checkIntegerInput(size, "size");
 
     Map<String, Object> parsedFilters =
         FilteringHelper.parseFilters(new ConcurrentHashMap<>(filters), getFilterFields());
 
-    Pageable pageable = PageRequest.of(page, size);
-    Page<@NonNull Game> games;
+    Pageable pageable = PageRequest.of(page, size, parseSort(filters.get("sort")));
+    ListingKey key =
+        new ListingKey(
+            pageable, countMode, Map.copyOf(parsedFilters), new LinkedHashSet<>(filters.keySet()));
+
+    return gameListingCache.get(
+        page,
+        size,
+        countMode,
+        filters,
+        parsedFilters,
+        () ->
+            listingFlights.execute(
+                key, () -> loadPage(pageable, countMode, parsedFilters, key.filteredBy())));
+  }
 
-    Specification<@NonNull Game> gameSpec = GameSpecification.createSpecification(parsedFilters);
+  private PageResponse<GameResponse> loadPage(
+      Pageable pageable,
+      CountMode countMode,
+      Map<String, Object> parsedFilters,
+      Set<String> filteredBy) {
+    Specification<@NonNull Game> gameSpec = createSpecification(parsedFilters);
+
+    if (countMode != CountMode.EXACT) {
+      return getSlice(pageable, gameSpec, countMode, parsedFilters, filteredBy);
+    }
+
+    Page<@NonNull Game> games;
 
     if (gameSpec == null) {
       games = gameRepository.findAll(pageable);
@@ -70,11 +154,80 @@ public class GameServiceImpl implements GameService {
       games = gameRepository.findAll(gameSpec, pageable);
     }
 
+    int page = pageable.getPageNumber();
     if (page != 0 && page >= games.getTotalPages()) {
       throw new NoSuchElementException(String.format("Page with number %d was not found.", page));
     }
 
-    return gameMapper.toResponsePage(games, filters.keySet());
+    return gameMapper.toResponsePage(games, filteredBy);
+  }
+
+  /**
+   * Retrieves the page of games following the given cursor, optionally filtered by several fields.
+   *
+   * <p>Games are ordered by id and the page is located by seeking past the id encoded in the
+   * cursor, so no rows are skipped with an offset and no count query is run. An empty or missing
+   * {@code cursor} starts from the first game. The same filters must be passed for every page.
+   * Concurrent requests for the same page share a single query.
+   *
+   * @param cursor the opaque cursor returned with the previous page, or {@code null} for the first
+   * @param size the size of the page
+   * @param filters a map of filters written as {@code field=value} pairs
+   * @return a {@link CursorPageResponse} with the requested games and the cursor of the next page
+   * @throws IllegalArgumentException if the size is not positive, the cursor is malformed or a sort
+   *     order is requested
+   */
+  @Override
+  public CursorPageResponse<GameResponse> getAllAfter(
+      String cursor, int size, Map<String, Object> filters) {
+    if (size < 1) {
+      throw new IllegalArgumentException("Invalid size number");
+    }
+    if (filters.containsKey("sort")) {
+      throw new IllegalArgumentException("Cursor pagination only supports the default sort order");
+    }
+
+    Map<String, Object> parsedFilters =
+        FilteringHelper.parseFilters(new ConcurrentHashMap<>(filters), getFilterFields());
+    String normalizedCursor = cursor == null || cursor.isEmpty() ? null : cursor;
+    CursorKey key =
+        new CursorKey(
+            normalizedCursor,
+            size,
+            Map.copyOf(parsedFilters),
+            new LinkedHashSet<>(filters.keySet()));
+
+    return cursorFlights.execute(key, () -> loadPageAfter(key));
+  }
+
+  private CursorPageResponse<GameResponse> loadPageAfter(CursorKey key) {
+    String cursor = key.cursor();
+    int size = key.size();
+
+    Specification<@NonNull Game> gameSpec = createSpecification(key.filters());
+    if (cursor != null) {
+      Specification<@NonNull Game> afterCursor =
+          GameSpecification.idGreaterThan(decodeCursor(cursor));
+      gameSpec = gameSpec == null ? afterCursor : gameSpec.and(afterCursor);
+    }
+    if (gameSpec == null) {
+      gameSpec = Specification.unrestricted();
+    }
+
+    // One extra game tells whether a next page exists without counting the matches.
+    List<Game> games = gameRepository.findAllOrderedById(gameSpec, Limit.of(size + 1));
+    boolean isLastPage = games.size() <= size;
+    if (!isLastPage) {
+      games = games.subList(0, size);
+    }
+
+    return CursorPageResponse.<GameResponse>builder()
+        .content(gameMapper.toGameSummaryList(games))
+        .size(size)
+        .nextCursor(isLastPage ? null : encodeCursor(games.get(size - 1).getId()))
+        .filteredBy(key.filteredBy())
+        .isLastPage(isLastPage)
+        .build();
   }
 
   /**
@@ -86,16 +239,24 @@ public class GameServiceImpl implements GameService {
    * <ul>
    *   <li>Validates the incoming {@link GameRequest} and its nested {@link QuestionResponse}
    *       objects.
+   *   <li>Checks that every referenced image was uploaded, with a single query for the whole game,
+   *       and reports all missing images at once.
    *   <li>Constructs a new {@link Game} entity and populates its fields using {@link
    *       DomainFieldsHelper}.
    *   <li>Creates and populates {@link Question} entities for each question in the request.
-   *   <li>Persists the assembled game using {@link GameRepository}.
+   *   <li>Persists the assembled game using {@link GameRepository}. The image check and the save
+   *       hold the shared {@link StorageLock}, so the file cleanup cannot delete a referenced image
+   *       in between.
+   *   <li>Stores the snapshot of the game through the {@link GameSnapshotService} if it is
+   *       published right away.
    *   <li>Converts the saved entity into a {@link GameResponse} via {@link GameMapper}.
    * </ul>
    *
    * @param request the incoming payload containing game details and associated questions
    * @param userId the identifier of the user creating the game
    * @return a {@link GameResponse} representation of the newly created and persisted game
+   * @throws InvalidGameException if the request is invalid or references images that were not
+   *     uploaded
    */
   @Override
   public GameResponse createGame(GameRequest request, Long userId) {
@@ -104,15 +265,32 @@ public class GameServiceImpl implements GameService {
 
     Game newGame = gameMapper.toEntity(request, userId);
 
+    Set<String> imageUrls = new LinkedHashSet<>();
+
     for (QuestionRequest qReq : request.getQuestions()) {
       GameValidator.processQuestionFromRequest(qReq);
+      imageUrls.add(qReq.getImageUrl());
 
       Question q = questionMapper.toEntity(qReq);
 
       newGame.addQuestion(q);
     }
 
-    Game saved = gameRepository.save(newGame);
+    Game saved;
+    Lock shared = storageLock.shared();
+    shared.lock();
+    try {
+      GameValidator.checkImageReferences(imageUrls, fileRepository.findExistingUrls(imageUrls));
+      saved = gameRepository.save(newGame);
+    } finally {
+      shared.unlock();
+    }
+    forgetListingsInFlight();
+    gameListingCache.invalidate(saved);
+
+    if (saved.getStatus() == GameStatus.PUBLISHED) {
+      gameSnapshotService.createSnapshot(saved.getId());
+    }
 
     return gameMapper.toGameResponse(saved);
   }
@@ -128,6 +306,9 @@ public class GameServiceImpl implements GameService {
    *   <li>Status transitions forbidden: PUBLISHED → DRAFT.
    * </ul>
    *
+   * <p>The snapshot of the game is created when it gets published and recreated when the
+   * description of a published game changes, the only part of it that can still change.
+   *
    * @param gameId ID of the game to update
    * @param userId ID of the user performing the update (must match createdBy)
    * @param request Partial update request containing metadata fields
@@ -140,6 +321,14 @@ public class GameServiceImpl implements GameService {
         gameRepository
             .findByIdAndCreatedBy(gameId, userId)
             .orElseThrow(() -> new InvalidGameException("Game not found"));
+    Game before =
+        Game.builder()
+            .id(game.getId())
+            .title(game.getTitle())
+            .status(game.getStatus())
+            .createdBy(game.getCreatedBy())
+            .build();
+    String previousDescription = game.getDescription();
 
     if (request.getDescription() != null) {
       game.setDescription(request.getDescription());
@@ -153,9 +342,118 @@ public class GameServiceImpl implements GameService {
     game.setUpdatedAt(LocalDateTime.now());
 
     Game saved = gameRepository.save(game);
+    forgetListingsInFlight();
+    gameListingCache.invalidate(before, saved);
+
+    if (game.getStatus() == GameStatus.PUBLISHED
+        && (before.getStatus() != GameStatus.PUBLISHED
+            || !Objects.equals(previousDescription, game.getDescription()))) {
+      gameSnapshotService.createSnapshot(gameId);
+    }
+
     return gameMapper.toGameResponse(saved);
   }
 
+  @Override
+  public CacheStatsResponse getListingCacheStats() {
+    return gameListingCache.getStats();
+  }
+
+  /** Keeps requests arriving after a write from sharing a listing loaded before it. */
+  private void forgetListingsInFlight() {
+    listingFlights.forgetAll();
+    cursorFlights.forgetAll();
+  }
+
+  private PageResponse<GameResponse> getSlice(
+      Pageable pageable,
+      Specification<@NonNull Game> gameSpec,
+      CountMode countMode,
+      Map<String, Object> parsedFilters,
+      Set<String> filteredBy) {
+    Specification<@NonNull Game> spec = gameSpec != null ? gameSpec : Specification.unrestricted();
+    Slice<@NonNull Game> games = gameRepository.findSlice(spec, pageable);
+
+    if (pageable.getPageNumber() != 0 && !games.hasContent()) {
+      throw new NoSuchElementException(
+          String.format("Page with number %d was not found.", pageable.getPageNumber()));
+    }
+
+    PageResponse<GameResponse> response = gameMapper.toResponseSlice(games, filteredBy);
+
+    if (countMode == CountMode.APPROXIMATE) {
+      long total = gameCountCache.get(parsedFilters, () -> gameRepository.count(spec));
+      response.setTotalElements(total);
+      response.setTotalPages((int) ((total + pageable.getPageSize() - 1) / pageable.getPageSize()));
+    }
+
+    return response;
+  }
+
+  /**
+   * Creates the specification for the given filters, resolving the {@code title} filter through the
+   * {@link GameTitleIndex} when it can answer it, so that it becomes an id lookup instead of a
+   * {@code LIKE '%...%'} scan.
+   */
+  private Specification<@NonNull Game> createSpecification(Map<String, Object> filters) {
+    Optional<Set<Long>> titleMatches =
+        filters.get("title") instanceof String title
+            ? gameTitleIndex.findIds(title)
+            : Optional.empty();
+    if (titleMatches.isEmpty()) {
+      return GameSpecification.createSpecification(filters);
+    }
+
+    Map<String, Object> otherFilters = new HashMap<>(filters);
+    otherFilters.remove("title");
+
+    Specification<@NonNull Game> byTitle = GameSpecification.idIn(titleMatches.get());
+    Specification<@NonNull Game> gameSpec = GameSpecification.createSpecification(otherFilters);
+    return gameSpec == null ? byTitle : gameSpec.and(byTitle);
+  }
+
+  private static Sort parseSort(Object sort) {
+    if (!(sort instanceof String value) || value.isBlank()) {
+      return Sort.unsorted();
+    }
+
+    String[] parts = value.split(",", -1);
+    String field = parts[0].trim();
+    if (parts.length > 2 || !getSortFields().contains(field)) {
+      throw new IllegalArgumentException(String.format("Invalid sort order '%s'", value));
+    }
+
+    Sort.Direction direction =
+        parts.length == 2
+            ? Sort.Direction.fromOptionalString(parts[1].trim())
+                .orElseThrow(
+                    () ->
+                        new IllegalArgumentException(
+                            String.format("Invalid sort order '%s'", value)))
+            : Sort.Direction.ASC;
+
+    return Sort.by(direction, field).and(Sort.by("id"));
+  }
+
+  private static String encodeCursor(Long id) {
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(id.toString().getBytes(StandardCharsets.US_ASCII));
+  }
+
+  private static long decodeCursor(String cursor) {
+    try {
+      return Long.parseLong(
+          new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+    }
+  }
+
+  private static Set<String> getSortFields() {
+    return Set.of("id", "title", "createdAt", "updatedAt");
+  }
+
   private static Set<String> getFilterFields() {
     return Set.of("status", "createdAt", "updatedAt", "createdBy", "title");
   }
@@ -0,0 +1,9 @@
+package org.dava.service;
+
+import org.dava.domain.GameSnapshot;
+
+public interface GameSnapshotService {
+  GameSnapshot getSnapshot(Long gameId);
+
+  GameSnapshot createSnapshot(Long gameId);
+}
@@ -0,0 +1,125 @@
+package org.dava.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.NoSuchElementException;
+import java.util.zip.GZIPOutputStream;
+import org.dava.dao.GameRepository;
+import org.dava.dao.GameSnapshotRepository;
+import org.dava.domain.Game;
+import org.dava.domain.GameSnapshot;
+import org.dava.enumeration.GameStatus;
+import org.dava.mapper.GameMapper;
+import org.dava.util.ContentHelper;
+import org.dava.util.SingleFlight;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * An implementation for the {@link GameSnapshotService} interface. Keeps the serialized JSON of
+ * published games in the database, so reading one is a primary key lookup of ready-made bytes.
+ *
+ * <p>Snapshots are created when a game is published and replaced when its description changes.
+ * Published games without a snapshot, such as those published before snapshots existed, get one on
+ * their first read; concurrent first reads of a game share a single build. Snapshots are written
+ * with an upsert, so builds that are not shared, such as a first read racing the publication of the
+ * game, replace each other instead of failing on the primary key.
+ */
+@Service
+public class GameSnapshotServiceImpl implements GameSnapshotService {
+  private final GameSnapshotRepository gameSnapshotRepository;
+  private final GameRepository gameRepository;
+  private final GameMapper gameMapper;
+  private final ObjectMapper objectMapper;
+  private final int gzipMinSize;
+
+  private final SingleFlight<Long, GameSnapshot> builds = new SingleFlight<>();
+
+  /**
+   * Creates the service.
+   *
+   * @param gameSnapshotRepository the repository the snapshots are stored in
+   * @param gameRepository the repository the published games are read from
+   * @param gameMapper maps a game to the representation that is serialized
+   * @param objectMapper serializes the representation, as for any other response
+   * @param gzipMinSize the size in bytes from which a gzip variant of the JSON is stored
+   */
+  public GameSnapshotServiceImpl(
+      GameSnapshotRepository gameSnapshotRepository,
+      GameRepository gameRepository,
+      GameMapper gameMapper,
+      ObjectMapper objectMapper,
+      @Value("${games.snapshots.gzip-min-size-bytes:1024}") int gzipMinSize) {
+
+    this.gameSnapshotRepository = gameSnapshotRepository;
+    this.gameRepository = gameRepository;
+    this.gameMapper = gameMapper;
+    this.objectMapper = objectMapper;
+    this.gzipMinSize = gzipMinSize;
+  }
+
+  /**
+   * Retrieves the snapshot of a published game, building it if the game has none yet.
+   *
+   * @param gameId the game id
+   * @return the snapshot of the game
+   * @throws NoSuchElementException if the game does not exist or is not published
+   */
+  @Override
+  @Transactional
+  public GameSnapshot getSnapshot(Long gameId) {
+    return gameSnapshotRepository
+        .findById(gameId)
+        .orElseGet(() -> builds.execute(gameId, () -> createSnapshot(gameId)));
+  }
+
+  /**
+   * Serializes a published game with its questions and stores the result, replacing any previous
+   * snapshot of the game.
+   *
+   * @param gameId the game id
+   * @return the new snapshot
+   * @throws NoSuchElementException if the game does not exist or is not published
+   */
+  @Override
+  @Transactional
+  public GameSnapshot createSnapshot(Long gameId) {
+    Game game =
+        gameRepository
+            .findById(gameId)
+            .filter(g -> g.getStatus() == GameStatus.PUBLISHED)
+            .orElseThrow(
+                () ->
+                    new NoSuchElementException(
+                        String.format("Published game with id %d was not found.", gameId)));
+
+    byte[] content = objectMapper.writeValueAsBytes(gameMapper.toGameResponse(game));
+    byte[] gzipContent = content.length >= gzipMinSize ? gzip(content) : null;
+
+    GameSnapshot snapshot =
+        GameSnapshot.builder()
+            .gameId(gameId)
+            .digest(ContentHelper.sha256(content))
+            .content(content)
+            .gzipContent(
+                gzipContent != null && gzipContent.length < content.length ? gzipContent : null)
+            .createdAt(LocalDateTime.now())
+            .build();
+    gameSnapshotRepository.upsert(snapshot);
+    return snapshot;
+  }
+
+  private static byte[] gzip(byte[] content) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 4);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(content);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return out.toByteArray();
+  }
+}
@@ -0,0 +1,10 @@
+package org.dava.service;
+
+import java.util.Optional;
+import org.dava.dto.ImageDerivative;
+
+public interface ImageDerivativeService {
+  void scheduleDerivatives(String digest, String contentType, Integer width, Integer height);
+
+  Optional<ImageDerivative> findDerivative(String digest, int width);
+}
@@ -0,0 +1,231 @@
+package org.dava.service;
+
+import jakarta.annotation.PreDestroy;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.dava.dto.ImageDerivative;
+import org.dava.storage.FileStorage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * An implementation for the {@link ImageDerivativeService} interface. Produces and looks up
+ * downscaled copies of uploaded images.
+ *
+ * <p>Derivatives are generated with {@link ImageIO} on a bounded pool of background workers, right
+ * after an upload, and are persisted next to the original in the {@link FileStorage}. Requests
+ * therefore never resize images themselves; a derivative that is not ready yet is simply replaced
+ * by the original image.
+ */
+@Slf4j
+@Service
+public class ImageDerivativeServiceImpl implements ImageDerivativeService {
+  private final FileStorage fileStorage;
+  private final int[] widths;
+  private final long maxSourcePixels;
+  private final ThreadPoolExecutor executor;
+
+  /**
+   * Creates the service and its worker pool.
+   *
+   * @param fileStorage the storage holding the originals and their derivatives
+   * @param widths the widths, in pixels, of the derivatives generated for each image
+   * @param poolSize the number of worker threads resizing images
+   * @param queueCapacity the number of images waiting to be resized; further images are skipped
+   * @param maxSourcePixels the largest number of pixels of an image that is decoded to be resized
+   */
+  public ImageDerivativeServiceImpl(
+      FileStorage fileStorage,
+      @Value("${files.derivatives.widths:320,640,1280}") int[] widths,
+      @Value("${files.derivatives.pool-size:2}") int poolSize,
+      @Value("${files.derivatives.queue-capacity:100}") int queueCapacity,
+      @Value("${files.derivatives.max-source-pixels:25000000}") long maxSourcePixels) {
+
+    this.fileStorage = fileStorage;
+    this.widths = Arrays.stream(widths).filter(width -> width > 0).sorted().distinct().toArray();
+    this.maxSourcePixels = maxSourcePixels;
+
+    CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("image-derivative-");
+    threadFactory.setDaemon(true);
+    this.executor =
+        new ThreadPoolExecutor(
+            poolSize,
+            poolSize,
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            threadFactory,
+            (task, pool) -> log.warn("Derivative queue is full, skipping an image"));
+  }
+
+  /**
+   * Queues the generation of all derivatives of an uploaded image.
+   *
+   * <p>Nothing is queued if the image format cannot be written by {@link ImageIO} or if the
+   * derivatives of the same content already exist. Images whose dimensions are unknown or exceed
+   * the configured number of pixels are not queued either, since decoding them would allocate a
+   * buffer of that size.
+   *
+   * @param digest the digest of the original image content
+   * @param contentType the content type of the original image
+   * @param width the width of the original image read from its header, if known
+   * @param height the height of the original image read from its header, if known
+   */
+  @Override
+  public void scheduleDerivatives(
+      String digest, String contentType, Integer width, Integer height) {
+    if (widths.length == 0 || !isWritable(contentType)) {
+      return;
+    }
+    if (!isDecodable(width, height)) {
+      log.debug("Skipping derivatives of content {} sized {}x{}", digest, width, height);
+      return;
+    }
+    if (findDerivative(digest, widths[0]).isPresent()) {
+      return;
+    }
+
+    executor.execute(() -> generate(digest, contentType));
+  }
+
+  /**
+   * Retrieves the smallest stored derivative that is at least as wide as requested.
+   *
+   * @param digest the digest of the original image content
+   * @param width the requested width in pixels
+   * @return the derivative, or an empty {@link Optional} if the original should be served instead
+   * @throws IllegalArgumentException if the width is not positive
+   */
+  @Override
+  public Optional<ImageDerivative> findDerivative(String digest, int width) {
+    if (width < 1) {
+      throw new IllegalArgumentException("Invalid width number");
+    }
+
+    for (int derivativeWidth : widths) {
+      if (derivativeWidth < width) {
+        continue;
+      }
+
+      try {
+        Resource content = fileStorage.loadDerivative(digest, variant(derivativeWidth));
+        return Optional.of(new ImageDerivative(derivativeWidth, content.contentLength(), content));
+      } catch (IOException e) {
+        return Optional.empty();
+      }
+    }
+
+    return Optional.empty();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  boolean isDecodable(Integer width, Integer height) {
+    return width != null
+        && height != null
+        && width > 0
+        && height > 0
+        && (long) width * height <= maxSourcePixels;
+  }
+
+  void generate(String digest, String contentType) {
+    try {
+      BufferedImage original;
+      try (InputStream content = fileStorage.load(digest).getInputStream()) {
+        original = ImageIO.read(content);
+      }
+      if (original == null) {
+        log.debug("No image reader available for content {}", digest);
+        return;
+      }
+
+      for (int width : widths) {
+        if (width >= original.getWidth()) {
+          break;
+        }
+
+        BufferedImage resized = resize(original, width, hasAlpha(contentType, original));
+        byte[] encoded = encode(resized, contentType);
+        fileStorage.storeDerivative(digest, variant(width), new ByteArrayInputStream(encoded));
+      }
+
+      log.debug("Generated derivatives for content {}", digest);
+    } catch (IOException | RuntimeException e) {
+      log.warn("Could not generate derivatives for content {}", digest, e);
+    }
+  }
+
+  private static BufferedImage resize(BufferedImage original, int width, boolean alpha) {
+    int height =
+        Math.max(1, Math.round((float) original.getHeight() * width / original.getWidth()));
+    BufferedImage resized =
+        new BufferedImage(
+            width, height, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+
+    Graphics2D graphics = resized.createGraphics();
+    try {
+      graphics.setRenderingHint(
+          RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+      graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+      graphics.drawImage(original, 0, 0, width, height, null);
+    } finally {
+      graphics.dispose();
+    }
+
+    return resized;
+  }
+
+  private static byte[] encode(BufferedImage image, String contentType) throws IOException {
+    ImageWriter writer =
+        findWriter(contentType)
+            .orElseThrow(() -> new IOException("No image writer for " + contentType));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+      writer.setOutput(output);
+      writer.write(image);
+    } finally {
+      writer.dispose();
+    }
+
+    return out.toByteArray();
+  }
+
+  private static Optional<ImageWriter> findWriter(String contentType) {
+    Iterator<ImageWriter> writers = ImageIO.getImageWritersByMIMEType(contentType);
+    return writers.hasNext() ? Optional.of(writers.next()) : Optional.empty();
+  }
+
+  private static boolean isWritable(String contentType) {
+    return contentType != null && ImageIO.getImageWritersByMIMEType(contentType).hasNext();
+  }
+
+  private static boolean hasAlpha(String contentType, BufferedImage image) {
+    return image.getColorModel().hasAlpha() && !MediaType.IMAGE_JPEG_VALUE.equals(contentType);
+  }
+
+  private static String variant(int width) {
+    return "w" + width;
+  }
+}
@@ -0,0 +1,63 @@
+package org.dava.storage;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import org.springframework.core.io.Resource;
+
+/**
+ * Storage backend for uploaded file content.
+ *
+ * <p>Content is addressed by the hex encoded SHA-256 digest of its bytes, so the metadata kept in
+ * the {@code files} table only needs to reference the digest in order to locate the payload.
+ */
+public interface FileStorage {
+
+  /**
+   * Streams the given content into the store, computing its digest on the fly.
+   *
+   * @param content the stream to consume; it is read fully but not closed
+   * @return the digest and size of the stored content
+   * @throws IOException if the content could not be read or written
+   */
+  StoredContent store(InputStream content) throws IOException;
+
+  /**
+   * Returns a {@link Resource} pointing at the content with the given digest.
+   *
+   * @param digest the hex encoded SHA-256 digest of the content
+   * @return a readable {@link Resource}
+   * @throws FileNotFoundException if no content is stored under the given digest
+   */
+  Resource load(String digest) throws FileNotFoundException;
+
+  /**
+   * Stores a variant derived from the content with the given digest, such as a resized image.
+   *
+   * @param digest the hex encoded SHA-256 digest of the original content
+   * @param variant a short name identifying the variant, e.g. {@code w640}
+   * @param content the stream to consume; it is read fully but not closed
+   * @throws IOException if the content could not be read or written
+   */
+  void storeDerivative(String digest, String variant, InputStream content) throws IOException;
+
+  /**
+   * Returns a {@link Resource} pointing at a variant of the content with the given digest.
+   *
+   * @param digest the hex encoded SHA-256 digest of the original content
+   * @param variant the name of the variant
+   * @return a readable {@link Resource}
+   * @throws FileNotFoundException if the variant was not stored
+   */
+  Resource loadDerivative(String digest, String variant) throws FileNotFoundException;
+
+  boolean exists(String digest);
+
+  /**
+   * Deletes the content with the given digest along with all of its derivatives.
+   *
+   * @param digest the hex encoded SHA-256 digest of the content
+   * @throws IOException if the content could not be deleted
+   */
+  void delete(String digest) throws IOException;
+}
@@ -0,0 +1,159 @@
+package org.dava.storage;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.dava.util.ContentHelper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link FileStorage} that keeps every payload as a single file in a local directory.
+ *
+ * <p>Uploads are streamed into a temporary file while their SHA-256 digest is computed and are then
+ * moved to {@code <root>/<first two digest chars>/<digest>}. Identical payloads therefore end up at
+ * the same location and are written only once. Derivatives of a payload, such as resized images,
+ * are kept next to it as {@code <digest>-<variant>}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "files.storage.type", havingValue = "local", matchIfMissing = true)
+public class LocalFileStorage implements FileStorage {
+  static final Pattern DIGEST_PATTERN = Pattern.compile("[0-9a-f]{64}");
+  static final Pattern VARIANT_PATTERN = Pattern.compile("[a-z0-9]{1,16}");
+
+  private final Path root;
+  private final Path tempDirectory;
+
+  /**
+   * Creates a local storage rooted at the configured directory.
+   *
+   * @param location the directory under which file content is stored
+   */
+  public LocalFileStorage(@Value("${files.storage.location:data/files}") String location) {
+    this.root = Paths.get(location).toAbsolutePath().normalize();
+    this.tempDirectory = root.resolve("tmp");
+
+    try {
+      Files.createDirectories(tempDirectory);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not initialize file storage at " + root, e);
+    }
+  }
+
+  @Override
+  public StoredContent store(InputStream content) throws IOException {
+    MessageDigest messageDigest = ContentHelper.newSha256();
+    Path tempFile = Files.createTempFile(tempDirectory, "upload-", ".tmp");
+
+    long size;
+    try (OutputStream out = Files.newOutputStream(tempFile)) {
+      size = new DigestInputStream(content, messageDigest).transferTo(out);
+    } catch (IOException e) {
+      Files.deleteIfExists(tempFile);
+      throw e;
+    }
+
+    String digest = ContentHelper.toHex(messageDigest);
+    Path target = resolve(digest);
+
+    if (Files.exists(target)) {
+      Files.delete(tempFile);
+    } else {
+      Files.createDirectories(target.getParent());
+      Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE);
+      log.debug("Stored {} bytes under digest {}", size, digest);
+    }
+
+    return new StoredContent(digest, size);
+  }
+
+  @Override
+  public Resource load(String digest) throws FileNotFoundException {
+    Path path = resolve(digest);
+    if (!Files.isRegularFile(path)) {
+      throw new FileNotFoundException("No content stored for digest '" + digest + "'.");
+    }
+
+    return new FileSystemResource(path);
+  }
+
+  @Override
+  public void storeDerivative(String digest, String variant, InputStream content)
+      throws IOException {
+    Path target = resolveDerivative(digest, variant);
+    Path tempFile = Files.createTempFile(tempDirectory, "derivative-", ".tmp");
+
+    try {
+      try (OutputStream out = Files.newOutputStream(tempFile)) {
+        content.transferTo(out);
+      }
+      Files.createDirectories(target.getParent());
+      Files.move(
+          tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  @Override
+  public Resource loadDerivative(String digest, String variant) throws FileNotFoundException {
+    Path path = resolveDerivative(digest, variant);
+    if (!Files.isRegularFile(path)) {
+      throw new FileNotFoundException(
+          "No '" + variant + "' derivative stored for digest '" + digest + "'.");
+    }
+
+    return new FileSystemResource(path);
+  }
+
+  @Override
+  public boolean exists(String digest) {
+    return Files.isRegularFile(resolve(digest));
+  }
+
+  @Override
+  public void delete(String digest) throws IOException {
+    Path path = resolve(digest);
+    Files.deleteIfExists(path);
+
+    if (Files.isDirectory(path.getParent())) {
+      try (DirectoryStream<Path> derivatives =
+          Files.newDirectoryStream(path.getParent(), digest + "-*")) {
+        for (Path derivative : derivatives) {
+          Files.deleteIfExists(derivative);
+        }
+      }
+    }
+  }
+
+  private Path resolve(String digest) {
+    if (digest == null || !DIGEST_PATTERN.matcher(digest).matches()) {
+      throw new IllegalArgumentException("Invalid content digest: " + digest);
+    }
+
+    return root.resolve(digest.substring(0, 2)).resolve(digest);
+  }
+
+  private Path resolveDerivative(String digest, String variant) {
+    if (variant == null || !VARIANT_PATTERN.matcher(variant).matches()) {
+      throw new IllegalArgumentException("Invalid derivative variant: " + variant);
+    }
+
+    return resolve(digest).resolveSibling(digest + "-" + variant);
+  }
+}
@@ -0,0 +1,151 @@
+package org.dava.storage;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only file holding the records of a {@link SegmentFileStorage}.
+ *
+ * <p>Records are appended through the file channel. Once the segment is sealed, it no longer grows
+ * and is read through a single read-only memory mapping of the whole file; until then, reads copy
+ * the requested region from the file, so that a growing segment is not mapped again at every new
+ * size. Slices handed out stay readable after the segment is closed or deleted, since the mapping
+ * lives as long as they are referenced.
+ */
+class Segment implements Closeable {
+  private final int id;
+  private final Path path;
+  private final FileChannel channel;
+
+  private MappedByteBuffer mapping;
+  private long size;
+  private long deadBytes;
+  private boolean sealed;
+
+  private Segment(int id, Path path, FileChannel channel) throws IOException {
+    this.id = id;
+    this.path = path;
+    this.channel = channel;
+    this.size = channel.size();
+  }
+
+  static Segment open(int id, Path path) throws IOException {
+    FileChannel channel =
+        FileChannel.open(
+            path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+    return new Segment(id, path, channel);
+  }
+
+  int getId() {
+    return id;
+  }
+
+  synchronized long size() {
+    return size;
+  }
+
+  synchronized long deadBytes() {
+    return deadBytes;
+  }
+
+  synchronized void addDeadBytes(long bytes) {
+    deadBytes += bytes;
+  }
+
+  /** Marks the segment as complete: no record is appended to it anymore. */
+  synchronized void seal() {
+    sealed = true;
+  }
+
+  /**
+   * Appends a record at the end of the segment.
+   *
+   * @param buffers the record, split into buffers that are written in order
+   * @return the offset of the record within the segment
+   * @throws IOException if the record could not be written
+   */
+  synchronized long append(ByteBuffer... buffers) throws IOException {
+    long offset = size;
+    long position = offset;
+
+    for (ByteBuffer buffer : buffers) {
+      while (buffer.hasRemaining()) {
+        position += channel.write(buffer, position);
+      }
+    }
+
+    size = position;
+    return offset;
+  }
+
+  /**
+   * Returns a read-only view of a region of the segment.
+   *
+   * @param offset the offset of the region
+   * @param length the length of the region
+   * @return a buffer positioned at the start of the region
+   * @throws IOException if the segment could not be read or mapped
+   */
+  synchronized ByteBuffer slice(long offset, int length) throws IOException {
+    if (!sealed) {
+      return read(offset, length);
+    }
+
+    if (mapping == null || offset + length > mapping.capacity()) {
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException("Segment " + path + " is too large to be mapped");
+      }
+      mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+
+    return mapping.slice(Math.toIntExact(offset), length);
+  }
+
+  private ByteBuffer read(long offset, int length) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    long position = offset;
+    while (buffer.hasRemaining()) {
+      int read = channel.read(buffer, position);
+      if (read < 0) {
+        throw new EOFException("Segment " + path + " ends before offset " + (offset + length));
+      }
+      position += read;
+    }
+
+    return buffer.flip().asReadOnlyBuffer();
+  }
+
+  /**
+   * Discards everything past the given size, such as a record torn by a crash.
+   *
+   * @param newSize the size to truncate the segment to
+   * @throws IOException if the segment could not be truncated
+   */
+  synchronized void truncate(long newSize) throws IOException {
+    channel.truncate(newSize);
+    size = newSize;
+    mapping = null;
+  }
+
+  synchronized void force() throws IOException {
+    channel.force(false);
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    channel.close();
+  }
+
+  void delete() throws IOException {
+    close();
+    Files.deleteIfExists(path);
+  }
+}
@@ -0,0 +1,484 @@
+package org.dava.storage;
+
+import jakarta.annotation.PreDestroy;
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32C;
+import lombok.extern.slf4j.Slf4j;
+import org.dava.cache.ByteBufferResource;
+import org.dava.util.ContentHelper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link FileStorage} that packs small payloads into large append-only segment files.
+ *
+ * <p>Question images are mostly a few hundred KB at most, so keeping each of them in its own file
+ * wastes inodes and a file open per read. Payloads up to the configured entry size are instead
+ * appended to {@code <root>/segments/segment-<id>.dat}; larger payloads are delegated to a {@link
+ * LocalFileStorage} under the same root. Each record is laid out as:
+ *
+ * <pre>
+ * magic (4) | type (1) | key length (2) | content length (4) | CRC32C of content (4) | key | content
+ * </pre>
+ *
+ * <p>A {@link SegmentIndex} maps every key, the digest of a payload or {@code <digest>-<variant>}
+ * for a derivative, to the segment and offset of its latest record. The index is rebuilt by
+ * scanning the segments on startup, which also drops records torn by a crash. Reads from sealed
+ * segments are served as slices of read-only memory mappings, so their content is never copied onto
+ * the heap; only reads from the active segment, which is still growing, are copied.
+ *
+ * <p>Deleted and replaced records are only marked as dead. A background compactor copies the live
+ * records of segments whose dead ratio exceeds the configured threshold into the active segment and
+ * deletes the old segment files.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "files.storage.type", havingValue = "segment")
+public class SegmentFileStorage implements FileStorage {
+  private static final int RECORD_MAGIC = 0x44415641;
+  private static final byte PUT = 0;
+  private static final byte DELETE = 1;
+  private static final int HEADER_LENGTH = 15;
+  private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d{6})\\.dat");
+
+  private final LocalFileStorage largeFiles;
+  private final Path directory;
+  private final long segmentBytes;
+  private final int maxEntryBytes;
+  private final double compactionThreshold;
+
+  private final SegmentIndex index = new SegmentIndex(1024);
+  private final NavigableMap<Integer, Segment> segments = new TreeMap<>();
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final ScheduledExecutorService compactor;
+  private Segment active;
+
+  /** Header of a record read back from a segment. */
+  private static final class Record {
+    private byte type;
+    private String key;
+    private long offset;
+    private int length;
+
+    private long contentOffset() {
+      return offset + HEADER_LENGTH + key.length();
+    }
+
+    private long end() {
+      return contentOffset() + length;
+    }
+  }
+
+  /**
+   * Opens the segment storage rooted at the configured directory, rebuilding its index.
+   *
+   * @param location the directory under which file content is stored
+   * @param segmentSizeMb the size in MB at which the active segment is sealed
+   * @param maxEntrySizeKb the size in KB above which payloads are stored as individual files
+   * @param compactionThreshold the ratio of dead bytes at which a segment is compacted
+   * @param compactionIntervalMinutes the delay between compaction runs; {@code 0} disables them
+   */
+  public SegmentFileStorage(
+      @Value("${files.storage.location:data/files}") String location,
+      @Value("${files.storage.segment.size-mb:64}") long segmentSizeMb,
+      @Value("${files.storage.segment.max-entry-size-kb:256}") int maxEntrySizeKb,
+      @Value("${files.storage.segment.compaction-threshold:0.5}") double compactionThreshold,
+      @Value("${files.storage.segment.compaction-interval-minutes:10}")
+          long compactionIntervalMinutes) {
+
+    this.largeFiles = new LocalFileStorage(location);
+    this.directory = Paths.get(location).toAbsolutePath().normalize().resolve("segments");
+    this.segmentBytes = Math.min(segmentSizeMb * ContentHelper.BYTES_PER_MB, Integer.MAX_VALUE);
+    this.maxEntryBytes = (int) Math.min(maxEntrySizeKb * 1024L, segmentBytes - HEADER_LENGTH - 96);
+    this.compactionThreshold = compactionThreshold;
+
+    try {
+      open();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not open segment storage at " + directory, e);
+    }
+
+    this.compactor =
+        Executors.newSingleThreadScheduledExecutor(
+            new CustomizableThreadFactory("segment-compactor-"));
+    if (compactionIntervalMinutes > 0) {
+      compactor.scheduleWithFixedDelay(
+          this::compactQuietly,
+          compactionIntervalMinutes,
+          compactionIntervalMinutes,
+          TimeUnit.MINUTES);
+    }
+  }
+
+  @Override
+  public StoredContent store(InputStream content) throws IOException {
+    byte[] bytes = content.readNBytes(maxEntryBytes + 1);
+    if (bytes.length > maxEntryBytes) {
+      return largeFiles.store(new SequenceInputStream(new ByteArrayInputStream(bytes), content));
+    }
+
+    String digest = ContentHelper.sha256(bytes);
+
+    lock.writeLock().lock();
+    try {
+      if (index.find(digest) == SegmentIndex.ABSENT) {
+        append(PUT, digest, ByteBuffer.wrap(bytes));
+        log.debug(
+            "Stored {} bytes under digest {} in segment {}", bytes.length, digest, active.getId());
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+
+    return new StoredContent(digest, bytes.length);
+  }
+
+  @Override
+  public Resource load(String digest) throws FileNotFoundException {
+    ByteBuffer content = read(checkDigest(digest));
+
+    return content != null ? new ByteBufferResource(content) : largeFiles.load(digest);
+  }
+
+  @Override
+  public void storeDerivative(String digest, String variant, InputStream content)
+      throws IOException {
+    String key = derivativeKey(digest, variant);
+
+    byte[] bytes = content.readNBytes(maxEntryBytes + 1);
+    if (bytes.length > maxEntryBytes) {
+      largeFiles.storeDerivative(
+          digest, variant, new SequenceInputStream(new ByteArrayInputStream(bytes), content));
+      return;
+    }
+
+    lock.writeLock().lock();
+    try {
+      append(PUT, key, ByteBuffer.wrap(bytes));
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public Resource loadDerivative(String digest, String variant) throws FileNotFoundException {
+    ByteBuffer content = read(derivativeKey(digest, variant));
+
+    return content != null
+        ? new ByteBufferResource(content)
+        : largeFiles.loadDerivative(digest, variant);
+  }
+
+  @Override
+  public boolean exists(String digest) {
+    lock.readLock().lock();
+    try {
+      if (index.find(checkDigest(digest)) != SegmentIndex.ABSENT) {
+        return true;
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+
+    return largeFiles.exists(digest);
+  }
+
+  @Override
+  public void delete(String digest) throws IOException {
+    checkDigest(digest);
+
+    lock.writeLock().lock();
+    try {
+      for (String key : index.keysStartingWith(digest)) {
+        append(DELETE, key, ByteBuffer.allocate(0));
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+
+    largeFiles.delete(digest);
+  }
+
+  /**
+   * Rewrites the live records of every sealed segment with enough dead bytes into the active
+   * segment, then deletes those segments.
+   *
+   * @return the number of segments that were compacted
+   * @throws IOException if a segment could not be read or written
+   */
+  int compact() throws IOException {
+    List<Segment> candidates = new ArrayList<>();
+
+    lock.readLock().lock();
+    try {
+      for (Segment segment : segments.values()) {
+        if (segment != active && segment.deadBytes() >= segment.size() * compactionThreshold) {
+          candidates.add(segment);
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+
+    for (Segment segment : candidates) {
+      compact(segment);
+    }
+
+    return candidates.size();
+  }
+
+  @PreDestroy
+  public void close() throws IOException {
+    compactor.shutdownNow();
+
+    lock.writeLock().lock();
+    try {
+      active.force();
+      for (Segment segment : segments.values()) {
+        segment.close();
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void open() throws IOException {
+    Files.createDirectories(directory);
+
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+      for (Path file : files) {
+        Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+        if (matcher.matches()) {
+          int id = Integer.parseInt(matcher.group(1));
+          segments.put(id, Segment.open(id, file));
+        }
+      }
+    }
+
+    active = segments.isEmpty() ? openSegment(1) : segments.lastEntry().getValue();
+    for (Segment segment : segments.values()) {
+      if (segment != active) {
+        segment.seal();
+      }
+      replay(segment);
+    }
+
+    log.info("Opened {} segments holding {} entries", segments.size(), index.size());
+  }
+
+  private void replay(Segment segment) throws IOException {
+    long size = segment.size();
+    long offset = 0;
+
+    Record record;
+    while ((record = readRecord(segment, offset, size)) != null) {
+      apply(segment, record.type, record.key, offset, record.length);
+      offset = record.end();
+    }
+
+    if (offset < size) {
+      log.warn(
+          "Discarding {} bytes of incomplete records in segment {}",
+          size - offset,
+          segment.getId());
+      segment.truncate(offset);
+    }
+  }
+
+  private Record readRecord(Segment segment, long offset, long size) throws IOException {
+    if (offset + HEADER_LENGTH > size) {
+      return null;
+    }
+
+    ByteBuffer header = segment.slice(offset, HEADER_LENGTH);
+    if (header.getInt() != RECORD_MAGIC) {
+      return null;
+    }
+
+    Record record = new Record();
+    record.type = header.get();
+    int keyLength = header.getShort();
+    record.length = header.getInt();
+    int crc = header.getInt();
+    record.offset = offset;
+
+    if (keyLength <= 0 || record.length < 0 || offset + HEADER_LENGTH + keyLength > size) {
+      return null;
+    }
+    record.key =
+        StandardCharsets.US_ASCII
+            .decode(segment.slice(offset + HEADER_LENGTH, keyLength))
+            .toString();
+
+    if (record.end() > size || crc(segment.slice(record.contentOffset(), record.length)) != crc) {
+      return null;
+    }
+
+    return record;
+  }
+
+  private void compact(Segment segment) throws IOException {
+    long size = segment.size();
+    long offset = 0;
+    int copied = 0;
+
+    Record record;
+    while ((record = readRecord(segment, offset, size)) != null) {
+      lock.writeLock().lock();
+      try {
+        if (isLive(segment, record)) {
+          append(record.type, record.key, segment.slice(record.contentOffset(), record.length));
+          copied++;
+        }
+      } finally {
+        lock.writeLock().unlock();
+      }
+      offset = record.end();
+    }
+
+    lock.writeLock().lock();
+    try {
+      segments.remove(segment.getId());
+      segment.delete();
+    } finally {
+      lock.writeLock().unlock();
+    }
+
+    log.info("Compacted segment {}, {} records moved", segment.getId(), copied);
+  }
+
+  private boolean isLive(Segment segment, Record record) {
+    int slot = index.find(record.key);
+
+    if (record.type == PUT) {
+      return slot != SegmentIndex.ABSENT
+          && index.locationAt(slot) == SegmentIndex.location(segment.getId(), record.offset);
+    }
+
+    // a deletion only matters while an older segment may still hold the deleted record
+    return slot == SegmentIndex.ABSENT && segments.firstKey() < segment.getId();
+  }
+
+  private void compactQuietly() {
+    try {
+      compact();
+    } catch (IOException | RuntimeException e) {
+      log.warn("Could not compact segments", e);
+    }
+  }
+
+  private ByteBuffer read(String key) {
+    lock.readLock().lock();
+    try {
+      int slot = index.find(key);
+      if (slot == SegmentIndex.ABSENT) {
+        return null;
+      }
+
+      long location = index.locationAt(slot);
+      Segment segment = segments.get(SegmentIndex.segmentOf(location));
+      return segment.slice(
+          SegmentIndex.offsetOf(location) + HEADER_LENGTH + key.length(), index.lengthAt(slot));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not read '" + key + "' from segment storage", e);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void append(byte type, String key, ByteBuffer content) throws IOException {
+    int length = content.remaining();
+    if (active.size() > 0 && active.size() + recordLength(key, length) > segmentBytes) {
+      active.force();
+      active.seal();
+      active = openSegment(active.getId() + 1);
+    }
+
+    ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH + key.length());
+    header
+        .putInt(RECORD_MAGIC)
+        .put(type)
+        .putShort((short) key.length())
+        .putInt(length)
+        .putInt(crc(content))
+        .put(key.getBytes(StandardCharsets.US_ASCII))
+        .flip();
+
+    long offset = active.append(header, content.duplicate());
+    apply(active, type, key, offset, length);
+  }
+
+  private void apply(Segment segment, byte type, String key, long offset, int length) {
+    int slot = index.find(key);
+    if (slot != SegmentIndex.ABSENT) {
+      long previous = index.locationAt(slot);
+      segments
+          .get(SegmentIndex.segmentOf(previous))
+          .addDeadBytes(recordLength(key, index.lengthAt(slot)));
+    }
+
+    if (type == PUT) {
+      index.put(key, SegmentIndex.location(segment.getId(), offset), length);
+    } else {
+      index.remove(key);
+      segment.addDeadBytes(recordLength(key, length));
+    }
+  }
+
+  private Segment openSegment(int id) throws IOException {
+    Segment segment = Segment.open(id, directory.resolve(String.format("segment-%06d.dat", id)));
+    segments.put(id, segment);
+    return segment;
+  }
+
+  private static long recordLength(String key, int length) {
+    return HEADER_LENGTH + key.length() + (long) length;
+  }
+
+  private static int crc(ByteBuffer content) {
+    CRC32C crc = new CRC32C();
+    crc.update(content.duplicate());
+    return (int) crc.getValue();
+  }
+
+  private static String checkDigest(String digest) {
+    if (digest == null || !LocalFileStorage.DIGEST_PATTERN.matcher(digest).matches()) {
+      throw new IllegalArgumentException("Invalid content digest: " + digest);
+    }
+
+    return digest;
+  }
+
+  private static String derivativeKey(String digest, String variant) {
+    if (variant == null || !LocalFileStorage.VARIANT_PATTERN.matcher(variant).matches()) {
+      throw new IllegalArgumentException("Invalid derivative variant: " + variant);
+    }
+
+    return checkDigest(digest) + "-" + variant;
+  }
+}
@@ -0,0 +1,153 @@
+package org.dava.storage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Open-addressing hash index mapping content keys to their location within the segment files.
+ *
+ * <p>Locations are kept in primitive arrays: a single {@code long} packs the segment id and the
+ * record offset, and an {@code int} holds the content length, so an entry costs little more than
+ * its key. Instances are not thread-safe and are expected to be guarded by the owning storage.
+ */
+class SegmentIndex {
+  static final int ABSENT = -1;
+
+  private static final int OFFSET_BITS = 40;
+  private static final long OFFSET_MASK = (1L << OFFSET_BITS) - 1;
+
+  private String[] keys;
+  private long[] locations;
+  private int[] lengths;
+  private int size;
+
+  SegmentIndex(int expectedEntries) {
+    allocate(Integer.highestOneBit(Math.max(expectedEntries, 8) * 2 - 1) << 1);
+  }
+
+  static long location(int segment, long offset) {
+    return ((long) segment << OFFSET_BITS) | offset;
+  }
+
+  static int segmentOf(long location) {
+    return (int) (location >>> OFFSET_BITS);
+  }
+
+  static long offsetOf(long location) {
+    return location & OFFSET_MASK;
+  }
+
+  /**
+   * Looks up a key.
+   *
+   * @param key the content key
+   * @return the slot holding the key, or {@link #ABSENT}
+   */
+  int find(String key) {
+    int mask = keys.length - 1;
+
+    for (int slot = hash(key) & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+      if (keys[slot].equals(key)) {
+        return slot;
+      }
+    }
+
+    return ABSENT;
+  }
+
+  long locationAt(int slot) {
+    return locations[slot];
+  }
+
+  int lengthAt(int slot) {
+    return lengths[slot];
+  }
+
+  void put(String key, long location, int length) {
+    if ((size + 1) * 4L > keys.length * 3L) {
+      resize();
+    }
+
+    int mask = keys.length - 1;
+    int slot = hash(key) & mask;
+    while (keys[slot] != null && !keys[slot].equals(key)) {
+      slot = (slot + 1) & mask;
+    }
+
+    if (keys[slot] == null) {
+      keys[slot] = key;
+      size++;
+    }
+    locations[slot] = location;
+    lengths[slot] = length;
+  }
+
+  void remove(String key) {
+    int slot = find(key);
+    if (slot == ABSENT) {
+      return;
+    }
+
+    // shift the following entries of the probe sequence back, so no lookup stops at a hole
+    int mask = keys.length - 1;
+    int hole = slot;
+    for (int next = (hole + 1) & mask; keys[next] != null; next = (next + 1) & mask) {
+      int home = hash(keys[next]) & mask;
+      if (((next - home) & mask) >= ((next - hole) & mask)) {
+        keys[hole] = keys[next];
+        locations[hole] = locations[next];
+        lengths[hole] = lengths[next];
+        hole = next;
+      }
+    }
+
+    keys[hole] = null;
+    size--;
+  }
+
+  /**
+   * Collects the keys starting with the given prefix, by scanning the whole index.
+   *
+   * @param prefix the key prefix
+   * @return the matching keys
+   */
+  List<String> keysStartingWith(String prefix) {
+    List<String> matching = new ArrayList<>();
+    for (String key : keys) {
+      if (key != null && key.startsWith(prefix)) {
+        matching.add(key);
+      }
+    }
+
+    return matching;
+  }
+
+  int size() {
+    return size;
+  }
+
+  private void resize() {
+    String[] oldKeys = keys;
+    long[] oldLocations = locations;
+    int[] oldLengths = lengths;
+
+    allocate(oldKeys.length * 2);
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != null) {
+        put(oldKeys[i], oldLocations[i], oldLengths[i]);
+      }
+    }
+  }
+
+  private void allocate(int capacity) {
+    keys = new String[capacity];
+    locations = new long[capacity];
+    lengths = new int[capacity];
+    size = 0;
+  }
+
+  private static int hash(String key) {
+    int h = key.hashCode() * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+}
@@ -0,0 +1,33 @@
+package org.dava.storage;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.springframework.stereotype.Component;
+
+/**
+ * Orders the deletion of files and stored content against the writes that are about to reference
+ * them.
+ *
+ * <p>Content is stored once per digest, so an upload may find its content already stored and skip
+ * writing it. Uploads therefore hold the {@link #shared()} lock from storing their content until
+ * their file row is inserted, while content is only deleted under the {@link #exclusive()} lock,
+ * after checking again that no file row references it. Likewise, a game is created under the shared
+ * lock from checking that its images exist until its questions are saved, while unreferenced file
+ * rows are only deleted under the exclusive lock. Neither a file nor its content can then be
+ * deleted between a write relying on it and the write referencing it.
+ */
+@Component
+public class StorageLock {
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  /** Held while content or files are checked and referenced by new rows; writers share it. */
+  public Lock shared() {
+    return lock.readLock();
+  }
+
+  /** Held while checking that files or content are unreferenced and deleting them. */
+  public Lock exclusive() {
+    return lock.writeLock();
+  }
+}
@@ -0,0 +1,14 @@
+package org.dava.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Describes content written to a {@link FileStorage}. */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StoredContent {
+  private String digest;
+  private long size;
+}
@@ -0,0 +1,50 @@
+package org.dava.util;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Computes the SHA-256 digests content is addressed by and converts the sizes configured for it.
+ *
+ * <p>Digests are hex encoded, as stored in the {@code files} table and used in image URLs.
+ */
+@UtilityClass
+public class ContentHelper {
+  public final long BYTES_PER_MB = 1024L * 1024L;
+
+  /**
+   * Creates a SHA-256 digest, to be updated as content is read.
+   *
+   * @return a new {@link MessageDigest}
+   * @throws IllegalStateException if the platform does not provide SHA-256
+   */
+  public MessageDigest newSha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  /**
+   * Completes a digest created by {@link #newSha256()}.
+   *
+   * @param digest the digest, updated with the whole content
+   * @return the hex encoded digest
+   */
+  public String toHex(MessageDigest digest) {
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  /**
+   * Computes the SHA-256 digest of content held in memory.
+   *
+   * @param content the content
+   * @return the hex encoded digest
+   */
+  public String sha256(byte[] content) {
+    return HexFormat.of().formatHex(newSha256().digest(content));
+  }
+}
@@ -1,25 +1,68 @@
 package org.dava.util;
 
-import lombok.experimental.UtilityClass;
 import org.dava.exception.InvalidFileException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
 
-@UtilityClass
+/**
+ * Generates the public URLs under which uploaded files are served.
+ *
+ * <p>URLs start with the configured public base URL, which may point at a CDN in front of the
+ * application rather than at the application itself.
+ */
+@Component
 public class FileUrlGenerator {
-  private final String BASE_URL = "http://localhost:8080/api";
+  private final String baseUrl;
+
+  /**
+   * Creates a generator for the configured base URL.
+   *
+   * @param baseUrl the public URL the {@code /api} endpoints are reachable under
+   */
+  public FileUrlGenerator(
+      @Value("${files.public-base-url:http://localhost:8080/api}") String baseUrl) {
+    this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+  }
 
   /**
    * Generates a valid, stable and accessible URL for an image.
    *
-   * @param path the file path
+   * <p>The URL is versioned by the digest of the file content, as {@code
+   * <base>/images/<digest>/<name>}. It therefore never points at different content, even if the
+   * name is reused after the file was deleted, and can be cached indefinitely by browsers and CDNs.
+   *
+   * @param name the file name
+   * @param digest the hex encoded SHA-256 digest of the file content
    * @return a {@code generated url} for the image that can be accessed in order to render the
    *     content by the clients, such as web browsers
    * @throws InvalidFileException if a url for the file could not be generated
    */
-  public String generateUrl(String path) {
-    if (path == null || path.isEmpty()) {
+  public String generateUrl(String name, String digest) {
+    if (name == null || name.isEmpty()) {
       throw new InvalidFileException("Invalid path provided.");
     }
+    if (digest == null || digest.isEmpty()) {
+      throw new InvalidFileException("Invalid digest provided.");
+    }
+
+    return baseUrl + "/images/" + digest + "/" + name;
+  }
+
+  /**
+   * Generates a URL addressing an image by the digest of its content.
+   *
+   * <p>Every file uploaded with the same content shares this URL, so clients and caches download
+   * the image only once, no matter under how many names it was uploaded.
+   *
+   * @param digest the hex encoded SHA-256 digest of the file content
+   * @return a {@code generated url} for the image content
+   * @throws InvalidFileException if a url for the content could not be generated
+   */
+  public String generateContentUrl(String digest) {
+    if (digest == null || digest.isEmpty()) {
+      throw new InvalidFileException("Invalid digest provided.");
+    }
 
-    return BASE_URL + "/images/" + path;
+    return baseUrl + "/content/" + digest;
   }
 }
@@ -9,7 +9,7 @@ import lombok.experimental.UtilityClass;
 
 @UtilityClass
 public class FilteringHelper {
-  private final List<String> basicFilters = List.of("page", "size");
+  private final List<String> basicFilters = List.of("page", "size", "cursor", "count", "sort");
 
   public Map<String, Object> parseFilters(
       ConcurrentMap<String, Object> filters, Set<String> availableFields) {
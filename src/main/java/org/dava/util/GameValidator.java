@@ -1,7 +1,11 @@
 package org.dava.util;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 import lombok.experimental.UtilityClass;
 import org.dava.domain.Game;
+import org.dava.domain.converter.StringListConverter;
 import org.dava.dto.GameRequest;
 import org.dava.dto.QuestionRequest;
 import org.dava.enumeration.GameStatus;
@@ -9,6 +13,7 @@ import org.dava.exception.InvalidGameException;
 
 @UtilityClass
 public class GameValidator {
+  private final StringListConverter OPTIONS_CONVERTER = new StringListConverter();
 
   public void checkIntegerInput(Integer input, String paramName) {
     if (input == null || input < 0) {
@@ -47,6 +52,11 @@ public class GameValidator {
       throw new InvalidGameException("Each question must have between two and six options");
     }
 
+    if (OPTIONS_CONVERTER.convertToDatabaseColumn(q.getOptions()).length()
+        > StringListConverter.MAX_COLUMN_LENGTH) {
+      throw new InvalidGameException("The options are too long for your question: " + q.getText());
+    }
+
     if (q.getCorrectOptionIndex() == null) {
       throw new InvalidGameException("A correct option index is required for each question");
     }
@@ -61,6 +71,22 @@ public class GameValidator {
     }
   }
 
+  /**
+   * Checks that every image referenced by the questions of a game was uploaded.
+   *
+   * @param imageUrls the image URLs referenced by the questions
+   * @param existingUrls the subset of those URLs that belong to an uploaded file
+   * @throws InvalidGameException listing every missing image, if any
+   */
+  public void checkImageReferences(Collection<String> imageUrls, Set<String> existingUrls) {
+    List<String> missing =
+        imageUrls.stream().distinct().filter(url -> !existingUrls.contains(url)).toList();
+
+    if (!missing.isEmpty()) {
+      throw new InvalidGameException("Images not found: " + String.join(", ", missing));
+    }
+  }
+
   public void handleStatusTransition(Game game, GameStatus requestedStatus) {
     GameStatus currentStatus = game.getStatus();
 
@@ -0,0 +1,203 @@
+package org.dava.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Optional;
+import lombok.experimental.UtilityClass;
+import org.dava.dto.ImageInfo;
+import org.springframework.http.MediaType;
+
+/**
+ * Detects the format and dimensions of an image from the first bytes of its content.
+ *
+ * <p>JPEG, PNG, GIF and WebP are recognized by their signatures. Except for JPEG, both the format
+ * and the dimensions are found within the first {@value #HEADER_LENGTH} bytes. JPEG dimensions are
+ * located by skipping over the segments that precede the frame header, which reads at most {@value
+ * #MAX_HEADER_LENGTH} bytes.
+ */
+@UtilityClass
+public class ImageHeaderReader {
+  public final int HEADER_LENGTH = 30;
+  public final int MAX_HEADER_LENGTH = 64 * 1024;
+
+  private final String IMAGE_WEBP_VALUE = "image/webp";
+
+  private final byte[] JPEG_SIGNATURE = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+  private final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+  private final byte[] GIF87_SIGNATURE = "GIF87a".getBytes(StandardCharsets.US_ASCII);
+  private final byte[] GIF89_SIGNATURE = "GIF89a".getBytes(StandardCharsets.US_ASCII);
+
+  /**
+   * Detects the image format from a content signature.
+   *
+   * @param header the first bytes of the content; at least 12 are needed to recognize WebP
+   * @return the content type of the image, or an empty {@link Optional} if it is not recognized
+   */
+  public Optional<String> detectContentType(byte[] header) {
+    if (startsWith(header, 0, JPEG_SIGNATURE)) {
+      return Optional.of(MediaType.IMAGE_JPEG_VALUE);
+    }
+    if (startsWith(header, 0, PNG_SIGNATURE)) {
+      return Optional.of(MediaType.IMAGE_PNG_VALUE);
+    }
+    if (startsWith(header, 0, GIF87_SIGNATURE) || startsWith(header, 0, GIF89_SIGNATURE)) {
+      return Optional.of(MediaType.IMAGE_GIF_VALUE);
+    }
+    if (startsWith(header, 0, ascii("RIFF")) && startsWith(header, 8, ascii("WEBP"))) {
+      return Optional.of(IMAGE_WEBP_VALUE);
+    }
+
+    return Optional.empty();
+  }
+
+  /**
+   * Reads the format and dimensions of an image from the beginning of its content.
+   *
+   * <p>The stream is left positioned after the bytes that were read, at most {@value
+   * #MAX_HEADER_LENGTH} of them, so callers that need the whole content should mark and reset it.
+   *
+   * @param content the image content
+   * @return the image format and dimensions, or an empty {@link Optional} if the content is not a
+   *     supported image
+   * @throws IOException if the content could not be read
+   */
+  public Optional<ImageInfo> read(InputStream content) throws IOException {
+    byte[] header = content.readNBytes(HEADER_LENGTH);
+    Optional<String> contentType = detectContentType(header);
+    if (contentType.isEmpty()) {
+      return Optional.empty();
+    }
+
+    int[] dimensions =
+        switch (contentType.get()) {
+          case MediaType.IMAGE_PNG_VALUE -> readPngDimensions(header);
+          case MediaType.IMAGE_GIF_VALUE -> readGifDimensions(header);
+          case IMAGE_WEBP_VALUE -> readWebpDimensions(header);
+          default -> readJpegDimensions(header, content);
+        };
+
+    return Optional.of(
+        dimensions == null
+            ? new ImageInfo(contentType.get(), null, null)
+            : new ImageInfo(contentType.get(), dimensions[0], dimensions[1]));
+  }
+
+  private int[] readPngDimensions(byte[] header) {
+    if (header.length < 24 || !startsWith(header, 12, ascii("IHDR"))) {
+      return null;
+    }
+
+    return new int[] {bigEndian32(header, 16), bigEndian32(header, 20)};
+  }
+
+  private int[] readGifDimensions(byte[] header) {
+    if (header.length < 10) {
+      return null;
+    }
+
+    return new int[] {littleEndian16(header, 6), littleEndian16(header, 8)};
+  }
+
+  private int[] readWebpDimensions(byte[] header) {
+    if (header.length < HEADER_LENGTH) {
+      return null;
+    }
+
+    if (startsWith(header, 12, ascii("VP8 "))) {
+      return new int[] {littleEndian16(header, 26) & 0x3FFF, littleEndian16(header, 28) & 0x3FFF};
+    }
+    if (startsWith(header, 12, ascii("VP8L")) && header[20] == 0x2F) {
+      int bits = littleEndian32(header, 21);
+      return new int[] {(bits & 0x3FFF) + 1, ((bits >>> 14) & 0x3FFF) + 1};
+    }
+    if (startsWith(header, 12, ascii("VP8X"))) {
+      return new int[] {littleEndian24(header, 24) + 1, littleEndian24(header, 27) + 1};
+    }
+
+    return null;
+  }
+
+  private int[] readJpegDimensions(byte[] header, InputStream rest) throws IOException {
+    DataInputStream in =
+        new DataInputStream(
+            new SequenceInputStream(new ByteArrayInputStream(header, 2, header.length - 2), rest));
+    long position = 2;
+
+    try {
+      while (position < MAX_HEADER_LENGTH) {
+        if (in.readUnsignedByte() != 0xFF) {
+          return null;
+        }
+        int marker = in.readUnsignedByte();
+        position += 2;
+        while (marker == 0xFF) {
+          marker = in.readUnsignedByte();
+          position++;
+        }
+
+        if (marker == 0xD8 || marker == 0x01 || (marker >= 0xD0 && marker <= 0xD7)) {
+          continue;
+        }
+        if (marker == 0xD9 || marker == 0xDA) {
+          return null;
+        }
+
+        int length = in.readUnsignedShort();
+        if (length < 2 || position + length > MAX_HEADER_LENGTH) {
+          return null;
+        }
+        if (isStartOfFrame(marker)) {
+          in.readUnsignedByte();
+          int height = in.readUnsignedShort();
+          int width = in.readUnsignedShort();
+          return new int[] {width, height};
+        }
+
+        in.skipNBytes(length - 2L);
+        position += length;
+      }
+    } catch (EOFException e) {
+      return null;
+    }
+
+    return null;
+  }
+
+  private boolean isStartOfFrame(int marker) {
+    return marker >= 0xC0 && marker <= 0xCF && marker != 0xC4 && marker != 0xC8 && marker != 0xCC;
+  }
+
+  private boolean startsWith(byte[] content, int offset, byte[] prefix) {
+    return content.length >= offset + prefix.length
+        && Arrays.equals(content, offset, offset + prefix.length, prefix, 0, prefix.length);
+  }
+
+  private byte[] ascii(String value) {
+    return value.getBytes(StandardCharsets.US_ASCII);
+  }
+
+  private int bigEndian32(byte[] bytes, int offset) {
+    return ((bytes[offset] & 0xFF) << 24)
+        | ((bytes[offset + 1] & 0xFF) << 16)
+        | ((bytes[offset + 2] & 0xFF) << 8)
+        | (bytes[offset + 3] & 0xFF);
+  }
+
+  private int littleEndian16(byte[] bytes, int offset) {
+    return (bytes[offset] & 0xFF) | ((bytes[offset + 1] & 0xFF) << 8);
+  }
+
+  private int littleEndian24(byte[] bytes, int offset) {
+    return littleEndian16(bytes, offset) | ((bytes[offset + 2] & 0xFF) << 16);
+  }
+
+  private int littleEndian32(byte[] bytes, int offset) {
+    return littleEndian24(bytes, offset) | ((bytes[offset + 3] & 0xFF) << 24);
+  }
+}
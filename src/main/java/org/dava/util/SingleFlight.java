@@ -0,0 +1,76 @@
+package org.dava.util;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key, so that only one of them runs the loader while the
+ * others wait for and share its result.
+ *
+ * <p>Nothing is kept once a call completes: a call arriving after that runs the loader again. It
+ * can therefore be used on its own or in front of the loader of a result cache, where it collapses
+ * the concurrent misses of a key into one load.
+ *
+ * @param <K> the key type, which must implement {@code equals} and {@code hashCode}
+ * @param <V> the result type; results are shared between callers and should not be modified
+ */
+public class SingleFlight<K, V> {
+  private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the result of the loader, sharing the call in flight for the same key if there is one.
+   *
+   * @param key the key identifying equivalent calls
+   * @param loader invoked if no call for the key is in flight
+   * @return the result of the loader
+   * @throws RuntimeException the exception thrown by the loader, rethrown to every caller sharing
+   *     its call
+   */
+  public V execute(K key, Supplier<V> loader) {
+    CompletableFuture<V> future = new CompletableFuture<>();
+    CompletableFuture<V> pending = inFlight.putIfAbsent(key, future);
+    if (pending != null) {
+      return await(pending);
+    }
+
+    try {
+      V result = loader.get();
+      future.complete(result);
+      return result;
+    } catch (RuntimeException | Error e) {
+      future.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, future);
+    }
+  }
+
+  /**
+   * Detaches all calls in flight, so that later calls run the loader again instead of sharing a
+   * result that may predate a write. Callers already waiting still receive their result.
+   */
+  public void forgetAll() {
+    inFlight.clear();
+  }
+
+  public int inFlightCount() {
+    return inFlight.size();
+  }
+
+  private static <V> V await(CompletableFuture<V> pending) {
+    try {
+      return pending.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      if (e.getCause() instanceof Error error) {
+        throw error;
+      }
+      throw e;
+    }
+  }
+}
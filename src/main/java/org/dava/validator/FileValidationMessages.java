@@ -16,6 +16,11 @@ public enum FileValidationMessages {
       return "File is empty.";
     }
   },
+  CONTENT_TYPE_MISMATCH_MESSAGE {
+    public String getMessage() {
+      return "File content does not match its type";
+    }
+  },
   INVALID_FILE_MESSAGE {
     public String getMessage() {
       return "Invalid file provided.";
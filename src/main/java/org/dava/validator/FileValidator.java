@@ -4,13 +4,17 @@ import static org.dava.validator.FileValidationMessages.*;
 
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Optional;
 import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import org.dava.dao.FileRepository;
-import org.dava.domain.File;
+import org.dava.dto.ImageInfo;
 import org.dava.exception.ExistentFileException;
+import org.dava.util.ImageHeaderReader;
 import org.dava.validator.annotation.ValidFile;
+import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
@@ -48,8 +52,9 @@ public class FileValidator implements ConstraintValidator<ValidFile, MultipartFi
    * Performs validation of the provided {@link MultipartFile} parameter.
    *
    * <p>This method checks whether the file satisfies the validation criteria, such as checking
-   * whether the file is not null, not empty and the content type is supported. If the file does not
-   * meet the requirements, a custom constraint violation message is set to the {@link
+   * whether the file is not null, not empty, the content type is supported and the content starts
+   * with the signature of that type. Only the first bytes of the content are read. If the file does
+   * not meet the requirements, a custom constraint violation message is set to the {@link
    * ConstraintValidatorContext}, using {@link
    * FileValidator#setContextWithException(ConstraintValidatorContext, String)}, and the method
    * returns {@code false}.
@@ -62,17 +67,69 @@ public class FileValidator implements ConstraintValidator<ValidFile, MultipartFi
   public boolean isValid(MultipartFile file, ConstraintValidatorContext context) {
     if (isFileNull(file, context)) return false;
     if (!isFileTypeValid(file, context)) return false;
-    return !isFileEmpty(file, context);
+    if (isFileEmpty(file, context)) return false;
+    return isFileContentMatchingType(file, context);
   }
 
   public void checkIfFileExists(String fileName) {
-    Optional<File> file = fileRepository.findByName(fileName);
-    if (file.isPresent()) {
+    if (fileRepository.existsByName(fileName)) {
       throw new ExistentFileException(
           "A file with the same name was already uploaded: " + fileName);
     }
   }
 
+  /**
+   * Reads the image header at the beginning of the given content and checks that it matches the
+   * declared content type.
+   *
+   * <p>Only the header is read, so mislabeled content is rejected before the rest of it is
+   * consumed. The stream is left positioned after the header.
+   *
+   * @param content the file content
+   * @param contentType the declared content type
+   * @return the detected format and dimensions of the image
+   * @throws IllegalArgumentException if the content is not an image of the declared type
+   * @throws IOException if the content could not be read
+   */
+  public ImageInfo checkImageContent(InputStream content, String contentType) throws IOException {
+    Optional<ImageInfo> image = ImageHeaderReader.read(content);
+
+    if (image.isEmpty() || !isSameType(image.get().getContentType(), contentType)) {
+      throw new IllegalArgumentException(
+          CONTENT_TYPE_MISMATCH_MESSAGE.getMessage() + ": " + contentType);
+    }
+
+    return image.get();
+  }
+
+  /**
+   * Checks whether the signature at the beginning of some content matches the declared type.
+   *
+   * @param header the first bytes of the content
+   * @param contentType the declared content type
+   * @return {@code true} if the signature matches; {@code false} otherwise
+   */
+  public static boolean isSignatureMatchingType(byte[] header, String contentType) {
+    return ImageHeaderReader.detectContentType(header)
+        .map(detected -> isSameType(detected, contentType))
+        .orElse(false);
+  }
+
+  /**
+   * Checks whether files of the given content type can be uploaded.
+   *
+   * @param contentType the content type to check
+   * @return {@code true} if the content type is supported; {@code false} otherwise
+   */
+  public static boolean isSupportedContentType(String contentType) {
+    try {
+      return SUPPORTED_FILE_TYPES.contains(MediaType.parseMediaType(contentType))
+          || contentType.equals("image/webp");
+    } catch (InvalidMediaTypeException e) {
+      return false;
+    }
+  }
+
   private static boolean isFileTypeValid(MultipartFile file, ConstraintValidatorContext context) {
     String fileType = file.getContentType();
     if (fileType == null) {
@@ -80,9 +137,7 @@ public class FileValidator implements ConstraintValidator<ValidFile, MultipartFi
       return false;
     }
 
-    boolean isValidType =
-        SUPPORTED_FILE_TYPES.contains(MediaType.parseMediaType(fileType))
-            || fileType.equals("image/webp");
+    boolean isValidType = isSupportedContentType(fileType);
     if (!isValidType) {
       setContextWithException(context, INVALID_FILE_TYPE_MESSAGE.getMessage() + ": " + fileType);
       return false;
@@ -91,6 +146,34 @@ public class FileValidator implements ConstraintValidator<ValidFile, MultipartFi
     return true;
   }
 
+  private static boolean isFileContentMatchingType(
+      MultipartFile file, ConstraintValidatorContext context) {
+    byte[] header;
+    try (InputStream content = file.getInputStream()) {
+      header = content.readNBytes(ImageHeaderReader.HEADER_LENGTH);
+    } catch (IOException e) {
+      setContextWithException(context, INVALID_FILE_MESSAGE.getMessage());
+      return false;
+    }
+
+    if (!isSignatureMatchingType(header, file.getContentType())) {
+      setContextWithException(
+          context, CONTENT_TYPE_MISMATCH_MESSAGE.getMessage() + ": " + file.getContentType());
+      return false;
+    }
+
+    return true;
+  }
+
+  private static boolean isSameType(String detected, String declared) {
+    try {
+      return MediaType.parseMediaType(detected)
+          .equalsTypeAndSubtype(MediaType.parseMediaType(declared));
+    } catch (InvalidMediaTypeException e) {
+      return false;
+    }
+  }
+
   private static boolean isFileEmpty(MultipartFile file, ConstraintValidatorContext context) {
     boolean isFileEmpty = file.isEmpty();
 
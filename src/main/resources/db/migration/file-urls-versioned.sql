@@ -0,0 +1,24 @@
+-- Rewrites file URLs stored before versioned URLs were introduced to <base>/images/<digest>/<name>,
+-- along with the question image URLs pointing at them. Run once against databases holding such
+-- URLs, after replacing ${files.public-base-url} below with the configured base URL as a quoted
+-- string, such as 'https://cdn.example.com/api'. The script fails without changing anything if the
+-- placeholder is left in place.
+
+SET @base_url = ${files.public-base-url};
+
+UPDATE question q
+SET image_url = (SELECT @base_url || '/images/' || f.digest || '/' || f.name
+                 FROM files f
+                 WHERE f.url = q.image_url)
+WHERE EXISTS (SELECT 1
+              FROM files f
+              WHERE f.url = q.image_url
+                AND f.url <> @base_url || '/images/' || f.digest || '/' || f.name);
+
+UPDATE files
+SET url = @base_url || '/images/' || digest || '/' || name
+WHERE url <> @base_url || '/images/' || digest || '/' || name;
+
+-- Snapshots of published games embed the image URLs and are otherwise only rebuilt when the
+-- description of the game changes; they are rebuilt with the new URLs on their next read.
+DELETE FROM game_snapshot;
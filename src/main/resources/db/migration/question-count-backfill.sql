@@ -0,0 +1,6 @@
+-- Fills game.question_count from the questions of each game. Run once against databases created
+-- before the column existed, where every game starts with a count of 0; fresh databases are
+-- created by schema.sql and need no backfill.
+
+UPDATE game
+SET question_count = (SELECT COUNT(*) FROM question q WHERE q.game_id = game.id);
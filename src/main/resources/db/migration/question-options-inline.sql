@@ -0,0 +1,11 @@
+-- Moves question options from the former question_options table into the options column of
+-- question, encoded as a JSON array. Run once against databases created before options were
+-- stored inline; fresh databases are created by schema.sql and need no migration.
+
+UPDATE question q
+SET options = (SELECT CAST(JSON_ARRAYAGG(o.options ORDER BY o._ROWID_) AS VARCHAR(2000))
+               FROM question_options o
+               WHERE o.id = q.id)
+WHERE EXISTS (SELECT 1 FROM question_options o WHERE o.id = q.id);
+
+DROP TABLE question_options;
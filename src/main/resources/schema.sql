@@ -1,20 +1,26 @@
+-- Pooled sequences, letting Hibernate batch the inserts of games and questions
+CREATE SEQUENCE game_seq START WITH 6 INCREMENT BY 50;
+CREATE SEQUENCE question_seq START WITH 6 INCREMENT BY 50;
+
 CREATE TABLE game (
-                      id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                      id BIGINT PRIMARY KEY,
                       title VARCHAR(100) NOT NULL,
                       description VARCHAR(500),
                       status VARCHAR(16) NOT NULL CHECK (status IN ('DRAFT', 'PUBLISHED')),
                       created_by BIGINT NOT NULL,
                       created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
-                      updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+                      updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                      question_count INT NOT NULL DEFAULT 0
 );
 
-ALTER TABLE game ALTER COLUMN id RESTART WITH 6;
+-- Index on ('created_by', 'updated_at'), serving "my games" listings sorted by last update
+CREATE INDEX idx_game_created_by_updated_at ON game (created_by, updated_at);
 
--- Index on ('created_by')
-CREATE INDEX idx_game_created_by ON game (created_by);
+-- Index on ('status', 'created_at'), serving status filters with creation date ranges
+CREATE INDEX idx_game_status_created_at ON game (status, created_at);
 
 CREATE TABLE question (
-                          id BIGINT AUTO_INCREMENT  PRIMARY KEY,
+                          id BIGINT PRIMARY KEY,
                           game_id BIGINT NOT NULL REFERENCES game(id) ON DELETE CASCADE,
                           text VARCHAR(500) NOT NULL,
                           image_url VARCHAR(1024),
@@ -24,11 +30,21 @@ CREATE TABLE question (
                               correct_option_index IS NULL OR correct_option_index >= 0
                               ));
 
-ALTER TABLE question ALTER COLUMN id RESTART WITH 6;
-
 -- Index on game_id
 CREATE INDEX idx_question_game_id ON question (game_id);
 
+-- Index on image_url, used to find unreferenced files
+CREATE INDEX idx_question_image_url ON question (image_url);
+
+-- JSON of published games, served as-is by GET /api/games/{id}
+CREATE TABLE game_snapshot (
+                               game_id BIGINT PRIMARY KEY REFERENCES game(id) ON DELETE CASCADE,
+                               digest VARCHAR(64) NOT NULL,
+                               content BLOB NOT NULL,
+                               gzip_content BLOB,
+                               created_at TIMESTAMP NOT NULL
+);
+
 
 
 CREATE TABLE player (
@@ -45,10 +61,15 @@ CREATE INDEX index_player_game_id ON player(game_id);
  -- File
 CREATE TABLE files (
                       id BIGINT AUTO_INCREMENT PRIMARY KEY,
-                      content BLOB NOT NULL,
                       name VARCHAR(100) UNIQUE NOT NULL,
-                      url VARCHAR(150) UNIQUE NOT NULL,
-                      content_type VARCHAR(50) NOT NULL
+                      url VARCHAR(1024) UNIQUE NOT NULL,
+                      content_type VARCHAR(50) NOT NULL,
+                      digest VARCHAR(64) NOT NULL,
+                      size BIGINT NOT NULL,
+                      width INT,
+                      height INT,
+                      created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
 
 CREATE INDEX idx_file_url ON files (url);
+CREATE INDEX idx_file_digest ON files (digest);
@@ -0,0 +1,240 @@
+package org.dava.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.dava.response.CacheStatsResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+
+class FileContentCacheTest {
+  private static final int LARGE_CONTENT_SIZE = 600 * 1024;
+
+  private FileContentCache cache;
+
+  @BeforeEach
+  void setUp() {
+    cache = new FileContentCache(1, 1024);
+  }
+
+  @Test
+  void getWithRepeatedNameLoadsOnceAndCountsHit() throws FileNotFoundException {
+    // Arrange
+    AtomicInteger loads = new AtomicInteger();
+    FileContentCache.Loader loader =
+        name -> {
+          loads.incrementAndGet();
+          return buildCachedFile(5);
+        };
+
+    // Act
+    cache.get("image.webp", loader);
+    cache.get("image.webp", loader);
+
+    // Assert
+    CacheStatsResponse stats = cache.getStats();
+    assertEquals(1, loads.get());
+    assertEquals(1, stats.getHitCount());
+    assertEquals(1, stats.getMissCount());
+    assertEquals(0.5, stats.getHitRate());
+    assertEquals(1, stats.getEntryCount());
+  }
+
+  @Test
+  void getWithMissingFilePropagatesExceptionAndCachesNothing() {
+    // Act & Assert
+    assertThrows(
+        FileNotFoundException.class,
+        () ->
+            cache.get(
+                "missing.webp",
+                name -> {
+                  throw new FileNotFoundException(name);
+                }));
+    assertNull(cache.getIfPresent("missing.webp"));
+  }
+
+  @Test
+  void putBeyondBudgetEvictsLeastRecentlyUsedEntry() {
+    // Arrange
+    cache.put("first.webp", buildCachedFile(LARGE_CONTENT_SIZE));
+
+    // Act
+    cache.put("second.webp", buildCachedFile(LARGE_CONTENT_SIZE));
+
+    // Assert
+    CacheStatsResponse stats = cache.getStats();
+    assertNull(cache.getIfPresent("first.webp"));
+    assertNotNull(cache.getIfPresent("second.webp"));
+    assertEquals(1, stats.getEvictionCount());
+    assertTrue(stats.getUsedBytes() <= stats.getMaxBytes());
+  }
+
+  @Test
+  void putWithRarelyRequestedFileKeepsFrequentlyRequestedEntry() {
+    // Arrange
+    for (int i = 0; i < 5; i++) {
+      cache.getIfPresent("popular.webp");
+    }
+    cache.put("popular.webp", buildCachedFile(LARGE_CONTENT_SIZE));
+
+    // Act
+    cache.put("one-off.webp", buildCachedFile(LARGE_CONTENT_SIZE));
+
+    // Assert
+    assertNotNull(cache.getIfPresent("popular.webp"));
+    assertNull(cache.getIfPresent("one-off.webp"));
+    assertEquals(0, cache.getStats().getEvictionCount());
+  }
+
+  @Test
+  void invalidateRemovesEntryAndReleasesBytes() {
+    // Arrange
+    cache.put("image.webp", buildCachedFile(5));
+
+    // Act
+    cache.invalidate("image.webp");
+
+    // Assert
+    assertNull(cache.getIfPresent("image.webp"));
+    assertEquals(0, cache.getStats().getUsedBytes());
+  }
+
+  @Test
+  void getWithConcurrentMissesInvokesLoaderOnce() throws Exception {
+    // Arrange
+    AtomicInteger loads = new AtomicInteger();
+    CountDownLatch release = new CountDownLatch(1);
+    FileContentCache.Loader loader =
+        name -> {
+          loads.incrementAndGet();
+          try {
+            release.await(5, TimeUnit.SECONDS);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          return buildCachedFile(5);
+        };
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    try {
+      // Act
+      Future<CachedFile> first = executor.submit(() -> cache.get("image.webp", loader));
+      Future<CachedFile> second = executor.submit(() -> cache.get("image.webp", loader));
+      Thread.sleep(100);
+      release.countDown();
+
+      // Assert
+      assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+      assertEquals(1, loads.get());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void putWithSameDigestUnderAnotherNameSharesContent() {
+    // Arrange
+    CachedFile original = buildCachedFile("digest", LARGE_CONTENT_SIZE);
+    cache.put("original.webp", original);
+
+    // Act
+    cache.put("copy.webp", buildCachedFile("digest", LARGE_CONTENT_SIZE));
+
+    // Assert
+    assertSame(original.getContent(), cache.getIfPresent("copy.webp").getContent());
+    assertSame(original.getContent(), cache.getContent("digest"));
+    assertEquals(0, cache.getStats().getEvictionCount());
+    assertTrue(cache.getStats().getUsedBytes() < 2L * LARGE_CONTENT_SIZE);
+  }
+
+  @Test
+  void putEvictingNamesOfSharedContentCountsTheirBufferOnce() {
+    // Arrange
+    cache.put("original.webp", buildCachedFile("shared", LARGE_CONTENT_SIZE));
+    cache.put("copy.webp", buildCachedFile("shared", LARGE_CONTENT_SIZE));
+    cache.put("small.webp", buildCachedFile(100 * 1024));
+
+    // Act
+    cache.put("new.webp", buildCachedFile(LARGE_CONTENT_SIZE));
+
+    // Assert
+    CacheStatsResponse stats = cache.getStats();
+    assertNull(cache.getContent("shared"));
+    assertNotNull(cache.getIfPresent("small.webp"));
+    assertNotNull(cache.getIfPresent("new.webp"));
+    assertEquals(2, stats.getEvictionCount());
+    assertTrue(stats.getUsedBytes() <= stats.getMaxBytes());
+  }
+
+  @Test
+  void putSharingContentOfEvictedNameStaysWithinBudget() {
+    // Arrange
+    cache.put("original.webp", buildCachedFile("shared", LARGE_CONTENT_SIZE));
+    cache.put("other.webp", buildCachedFile(1024 * 1024 - LARGE_CONTENT_SIZE - 512));
+
+    // Act
+    cache.put("copy.webp", buildCachedFile("shared", LARGE_CONTENT_SIZE));
+
+    // Assert
+    CacheStatsResponse stats = cache.getStats();
+    assertNotNull(cache.getContent("shared"));
+    assertTrue(stats.getUsedBytes() <= stats.getMaxBytes());
+  }
+
+  @Test
+  void invalidateWithSharedContentKeepsContentForRemainingName() {
+    // Arrange
+    cache.put("original.webp", buildCachedFile("digest", 5));
+    cache.put("copy.webp", buildCachedFile("digest", 5));
+
+    // Act
+    cache.invalidate("original.webp");
+
+    // Assert
+    assertNotNull(cache.getContent("digest"));
+    cache.invalidate("copy.webp");
+    assertNull(cache.getContent("digest"));
+    assertEquals(0, cache.getStats().getUsedBytes());
+  }
+
+  @Test
+  void isCacheableWithContentAboveEntryLimitReturnsFalse() {
+    // Act & Assert
+    assertTrue(cache.isCacheable(1024 * 1024));
+    assertFalse(cache.isCacheable(1024 * 1024 + 1));
+  }
+
+  @Test
+  void readContentCopiesResourceIntoDirectBuffer() throws IOException {
+    // Arrange
+    byte[] content = "image".getBytes();
+
+    // Act
+    ByteBuffer actual = FileContentCache.readContent(new ByteArrayResource(content), 5);
+
+    // Assert
+    assertTrue(actual.isDirect());
+    assertArrayEquals(content, new ByteBufferResource(actual).getContentAsByteArray());
+  }
+
+  private static CachedFile buildCachedFile(int size) {
+    return buildCachedFile(UUID.randomUUID().toString(), size);
+  }
+
+  private static CachedFile buildCachedFile(String digest, int size) {
+    ByteBuffer content = ByteBuffer.allocateDirect(size);
+    return new CachedFile("image/webp", size, digest, LocalDateTime.now(), content);
+  }
+}
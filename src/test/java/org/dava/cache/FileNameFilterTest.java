@@ -0,0 +1,67 @@
+package org.dava.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import org.dava.dao.FileRepository;
+import org.dava.response.FileResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class FileNameFilterTest {
+  @Mock private FileRepository fileRepository;
+
+  private FileNameFilter filter;
+
+  @BeforeEach
+  void setUp() {
+    filter = new FileNameFilter(fileRepository, 1000, 0.01);
+  }
+
+  @Test
+  void mightContainBeforeLoadReturnsTrue() {
+    // Act & Assert
+    assertTrue(filter.mightContain("unknown.png"));
+  }
+
+  @Test
+  void mightContainAfterLoadReturnsTrueForStoredNames() {
+    // Arrange
+    when(fileRepository.findPageAfter(anyLong(), any()))
+        .thenReturn(
+            List.of(
+                new FileResponse(1L, "first.png", null, "image/png", 1, 1),
+                new FileResponse(2L, "second.png", null, "image/png", 1, 1)));
+
+    // Act
+    filter.load();
+
+    // Assert
+    assertTrue(filter.mightContain("first.png"));
+    assertTrue(filter.mightContain("second.png"));
+  }
+
+  @Test
+  void mightContainAfterLoadRejectsMostUnknownNames() {
+    // Arrange
+    when(fileRepository.findPageAfter(anyLong(), any())).thenReturn(List.of());
+    filter.load();
+    IntStream.range(0, 1000).forEach(i -> filter.add("stored-" + i + ".png"));
+
+    // Act
+    long falsePositives =
+        IntStream.range(0, 10_000).filter(i -> filter.mightContain("new-" + i + ".png")).count();
+
+    // Assert
+    assertTrue(filter.mightContain("stored-999.png"));
+    assertTrue(falsePositives < 300, "Too many false positives: " + falsePositives);
+  }
+}
@@ -0,0 +1,57 @@
+package org.dava.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class GameCountCacheTest {
+
+  @Test
+  void getWithinTimeToLiveReusesCountPerFilters() {
+    // Arrange
+    GameCountCache cache = new GameCountCache(60, 10);
+    AtomicInteger counts = new AtomicInteger();
+
+    // Act
+    long first = cache.get(Map.of("status", "DRAFT"), () -> counts.incrementAndGet() * 10L);
+    long second = cache.get(Map.of("status", "DRAFT"), () -> counts.incrementAndGet() * 10L);
+    long other = cache.get(Map.of("status", "PUBLISHED"), () -> counts.incrementAndGet() * 10L);
+
+    // Assert
+    assertEquals(10, first);
+    assertEquals(10, second);
+    assertEquals(20, other);
+    assertEquals(2, counts.get());
+  }
+
+  @Test
+  void getAfterTimeToLiveCountsAgain() {
+    // Arrange
+    GameCountCache cache = new GameCountCache(0, 10);
+    AtomicInteger counts = new AtomicInteger();
+
+    // Act
+    cache.get(Map.of(), counts::incrementAndGet);
+    long second = cache.get(Map.of(), counts::incrementAndGet);
+
+    // Assert
+    assertEquals(2, second);
+  }
+
+  @Test
+  void getBeyondMaxEntriesEvictsLeastRecentlyUsedFilters() {
+    // Arrange
+    GameCountCache cache = new GameCountCache(60, 1);
+    AtomicInteger counts = new AtomicInteger();
+    cache.get(Map.of("status", "DRAFT"), counts::incrementAndGet);
+    cache.get(Map.of("status", "PUBLISHED"), counts::incrementAndGet);
+
+    // Act
+    long recounted = cache.get(Map.of("status", "DRAFT"), counts::incrementAndGet);
+
+    // Assert
+    assertEquals(3, recounted);
+  }
+}
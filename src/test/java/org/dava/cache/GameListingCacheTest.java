@@ -0,0 +1,130 @@
+package org.dava.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.dava.domain.Game;
+import org.dava.enumeration.CountMode;
+import org.dava.enumeration.GameStatus;
+import org.dava.response.CacheStatsResponse;
+import org.dava.response.GameResponse;
+import org.dava.response.PageResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class GameListingCacheTest {
+  private static final Map<String, Object> PUBLISHED = Map.of("status", "PUBLISHED");
+  private static final Map<String, Object> DRAFTS_OF_USER_7 =
+      Map.of("status", "DRAFT", "createdBy", "7");
+
+  private GameListingCache cache;
+  private AtomicInteger loads;
+
+  @BeforeEach
+  void setUp() {
+    cache = new GameListingCache(60, 10);
+    loads = new AtomicInteger();
+  }
+
+  @Test
+  void getWithSameRequestLoadsOnceAndCountsHits() {
+    // Act
+    PageResponse<GameResponse> first = get(PUBLISHED, 1L);
+    PageResponse<GameResponse> second = get(PUBLISHED, 1L);
+    get(Map.of("status", "PUBLISHED", "sort", "title"), 1L);
+
+    // Assert
+    assertSame(first, second);
+    assertEquals(2, loads.get());
+    CacheStatsResponse stats = cache.getStats();
+    assertEquals(1, stats.getHitCount());
+    assertEquals(2, stats.getMissCount());
+    assertEquals(2, stats.getEntryCount());
+    assertEquals(1.0 / 3, stats.getHitRate(), 1e-9);
+  }
+
+  @Test
+  void getWithZeroTimeToLiveAlwaysLoads() {
+    // Arrange
+    cache = new GameListingCache(0, 10);
+
+    // Act
+    get(PUBLISHED, 1L);
+    get(PUBLISHED, 1L);
+
+    // Assert
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  void invalidateRemovesOnlyPagesTheGameMatchesOrIsListedOn() {
+    // Arrange
+    get(PUBLISHED, 1L);
+    get(DRAFTS_OF_USER_7, 2L);
+    get(Map.of("status", "DRAFT", "createdBy", "8"), 3L);
+
+    // Act
+    cache.invalidate(game(9L, GameStatus.DRAFT, 7L));
+    cache.invalidate(game(3L, GameStatus.PUBLISHED, 9L));
+
+    // Assert
+    assertEquals(0, cache.getStats().getEntryCount());
+    loads.set(0);
+    get(PUBLISHED, 1L);
+    get(DRAFTS_OF_USER_7, 2L);
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  void invalidateKeepsPagesThatCannotContainTheGame() {
+    // Arrange
+    get(PUBLISHED, 1L);
+    get(DRAFTS_OF_USER_7, 2L);
+
+    // Act
+    cache.invalidate(game(9L, GameStatus.DRAFT, 8L));
+
+    // Assert
+    assertEquals(2, cache.getStats().getEntryCount());
+  }
+
+  @Test
+  void getDoesNotCachePageLoadedDuringInvalidation() {
+    // Act
+    cache.get(
+        0,
+        10,
+        CountMode.EXACT,
+        PUBLISHED,
+        PUBLISHED,
+        () -> {
+          cache.invalidateAll();
+          return page(1L);
+        });
+
+    // Assert
+    assertEquals(0, cache.getStats().getEntryCount());
+  }
+
+  private PageResponse<GameResponse> get(Map<String, Object> filters, Long gameId) {
+    Supplier<PageResponse<GameResponse>> loader =
+        () -> {
+          loads.incrementAndGet();
+          return page(gameId);
+        };
+    return cache.get(0, 10, CountMode.EXACT, filters, filters, loader);
+  }
+
+  private static PageResponse<GameResponse> page(Long gameId) {
+    return PageResponse.<GameResponse>builder()
+        .content(List.of(GameResponse.builder().id(gameId).build()))
+        .build();
+  }
+
+  private static Game game(Long id, GameStatus status, Long createdBy) {
+    return Game.builder().id(id).title("Quiz").status(status).createdBy(createdBy).build();
+  }
+}
@@ -0,0 +1,114 @@
+package org.dava.controller;
+
+import static org.dava.mock.FileMockData.URL_GENERATOR;
+import static org.dava.mock.FileMockData.WEBP_CONTENT;
+import static org.dava.mock.FileMockData.sha256;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.springframework.test.web.servlet.setup.MockMvcBuilders.webAppContextSetup;
+
+import com.jayway.jsonpath.JsonPath;
+import jakarta.transaction.Transactional;
+import java.util.Arrays;
+import org.dava.dao.FileRepository;
+import org.dava.davaquiz.DavaQuizApplication;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.web.context.WebApplicationContext;
+
+@SpringBootTest(classes = DavaQuizApplication.class)
+@ActiveProfiles("test")
+@Transactional
+class ChunkedUploadControllerTest {
+  private static final byte[] CONTENT = WEBP_CONTENT;
+
+  @Autowired private WebApplicationContext context;
+
+  @Autowired private FileRepository fileRepository;
+
+  private MockMvc mockMvc;
+
+  @BeforeEach
+  void setUp() {
+    mockMvc = webAppContextSetup(context).build();
+    fileRepository.deleteAll();
+  }
+
+  @Test
+  void uploadInChunksReturnsOk200AndStoresFile() throws Exception {
+    // Arrange
+    String id = startUpload();
+
+    // Act & Assert
+    sendChunk(id, 0, 6).andExpect(status().isOk()).andExpect(jsonPath("$.offset").value(6));
+    sendChunk(id, 6, CONTENT.length)
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.offset").value(CONTENT.length));
+    mockMvc
+        .perform(
+            post("/api/uploads/" + id + "/complete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"digest\":\"" + sha256(CONTENT) + "\"}"))
+        .andExpect(status().isOk())
+        .andExpect(
+            jsonPath("$.url").value(URL_GENERATOR.generateUrl("chunked.webp", sha256(CONTENT))));
+    mockMvc
+        .perform(get("/api/images/chunked.webp"))
+        .andExpect(status().isOk())
+        .andExpect(content().bytes(CONTENT));
+  }
+
+  @Test
+  void sendChunkWithWrongOffsetReturns409Conflict() throws Exception {
+    // Arrange
+    String id = startUpload();
+    sendChunk(id, 0, 6);
+
+    // Act & Assert
+    sendChunk(id, 0, 6).andExpect(status().isConflict());
+    mockMvc.perform(get("/api/uploads/" + id)).andExpect(jsonPath("$.offset").value(6));
+  }
+
+  @Test
+  void startWithUnsupportedContentTypeReturns400BadRequest() throws Exception {
+    // Act & Assert
+    mockMvc
+        .perform(
+            post("/api/uploads")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"fileName\":\"notes.txt\",\"contentType\":\"text/plain\",\"size\":5}"))
+        .andExpect(status().isBadRequest());
+  }
+
+  private String startUpload() throws Exception {
+    String response =
+        mockMvc
+            .perform(
+                post("/api/uploads")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(
+                        "{\"fileName\":\"chunked.webp\",\"contentType\":\"image/webp\",\"size\":"
+                            + CONTENT.length
+                            + "}"))
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+    return JsonPath.read(response, "$.id");
+  }
+
+  private ResultActions sendChunk(String id, int from, int to) throws Exception {
+    return mockMvc.perform(
+        put("/api/uploads/" + id)
+            .param("offset", String.valueOf(from))
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .content(Arrays.copyOfRange(CONTENT, from, to)));
+  }
+}
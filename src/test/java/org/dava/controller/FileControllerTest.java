@@ -1,19 +1,41 @@
 package org.dava.controller;
 
 import static org.dava.mock.FileMockData.*;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.springframework.test.web.servlet.setup.MockMvcBuilders.webAppContextSetup;
 
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import javax.sql.DataSource;
 import org.dava.dao.FileRepository;
+import org.dava.dao.GameRepository;
+import org.dava.dao.GameSnapshotRepository;
 import org.dava.davaquiz.DavaQuizApplication;
 import org.dava.domain.File;
+import org.dava.domain.Game;
+import org.dava.domain.GameSnapshot;
+import org.dava.domain.Question;
+import org.dava.storage.FileStorage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.jdbc.datasource.init.ScriptException;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -28,6 +50,16 @@ class FileControllerTest {
 
   @Autowired private FileRepository fileRepository;
 
+  @Autowired private GameRepository gameRepository;
+
+  @Autowired private GameSnapshotRepository gameSnapshotRepository;
+
+  @Autowired private FileStorage fileStorage;
+
+  @Autowired private DataSource dataSource;
+
+  @Autowired private EntityManager entityManager;
+
   private MockMvc mockMvc;
 
   @BeforeEach
@@ -50,8 +82,7 @@ class FileControllerTest {
   void uploadWithInvalidFileReturns400BadRequest() throws Exception {
     // Arrange
     String url = "/api/upload";
-    MockMultipartFile noNameFile =
-        new MockMultipartFile("file", null, "image/webp", "image".getBytes());
+    MockMultipartFile noNameFile = new MockMultipartFile("file", null, "image/webp", WEBP_CONTENT);
 
     // Act & Assert
     mockMvc.perform(multipart(url).file(noNameFile)).andExpect(status().isInternalServerError());
@@ -81,6 +112,21 @@ class FileControllerTest {
         .andExpect(jsonPath("$.url").value(file.getUrl()));
   }
 
+  @Test
+  void uploadWithLongFileNameReturnsOk200() throws Exception {
+    // Arrange
+    MockMultipartFile longNamed =
+        new MockMultipartFile(
+            "file", "a".repeat(95) + ".webp", VALID_FILE.getContentType(), WEBP_CONTENT);
+    File file = buildFile(longNamed);
+
+    // Act & Assert
+    mockMvc
+        .perform(multipart("/api/upload").file(longNamed))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.url").value(file.getUrl()));
+  }
+
   @Test
   void getByNameWithExistentFileReturnsOK200AndFileBytes() throws Exception {
     // Arrange
@@ -92,9 +138,123 @@ class FileControllerTest {
         .perform(get(url + VALID_FILE.getOriginalFilename()))
         .andExpect(status().isOk())
         .andExpect(header().string("Content-Type", VALID_FILE.getContentType()))
+        .andExpect(header().longValue("Content-Length", VALID_FILE.getSize()))
         .andExpect(content().bytes(VALID_FILE.getBytes()));
   }
 
+  @Test
+  void getByNameWithExistentFileReturnsRevalidatedCachingHeaders() throws Exception {
+    // Arrange
+    File file = saveFile();
+
+    // Act & Assert
+    mockMvc
+        .perform(get("/api/images/" + VALID_FILE.getOriginalFilename()))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", "\"" + file.getDigest() + "\""))
+        .andExpect(header().exists("Last-Modified"))
+        .andExpect(header().string("Accept-Ranges", "bytes"))
+        .andExpect(header().string("Cache-Control", containsString("no-cache")));
+  }
+
+  @Test
+  void getByVersionedNameWithExistentFileReturnsImmutableCachingHeaders() throws Exception {
+    // Arrange
+    File file = saveFile();
+
+    // Act & Assert
+    mockMvc
+        .perform(get(file.getUrl()))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", "\"" + file.getDigest() + "\""))
+        .andExpect(header().string("Cache-Control", containsString("immutable")))
+        .andExpect(header().string("Cache-Control", containsString("max-age=31536000")))
+        .andExpect(content().bytes(VALID_FILE.getBytes()));
+  }
+
+  @Test
+  void getByVersionedNameWithOtherDigestReturns404NotFound() throws Exception {
+    // Arrange
+    File file = saveFile();
+
+    // Act & Assert
+    mockMvc
+        .perform(get("/api/images/" + "0".repeat(64) + "/" + file.getName()))
+        .andExpect(status().isNotFound());
+  }
+
+  @Test
+  void versionedUrlMigrationRewritesFileAndQuestionUrls() throws Exception {
+    // Arrange
+    File file = saveFile("legacy.webp");
+    String legacyUrl = file.getUrl();
+    Game game = Game.builder().title("Image Quiz").createdBy(1L).build();
+    Question question = new Question();
+    question.setText("Which image is this?");
+    question.setImageUrl(legacyUrl);
+    game.addQuestion(question);
+    gameRepository.saveAndFlush(game);
+    gameSnapshotRepository.saveAndFlush(
+        GameSnapshot.builder()
+            .gameId(game.getId())
+            .digest("0".repeat(64))
+            .content(legacyUrl.getBytes())
+            .createdAt(LocalDateTime.now())
+            .build());
+    String versionedUrl = URL_GENERATOR.generateUrl(file.getName(), file.getDigest());
+
+    // Act
+    runVersionedUrlMigration("'http://localhost:8080/api'");
+    entityManager.clear();
+
+    // Assert
+    assertEquals(versionedUrl, fileRepository.findByName(file.getName()).orElseThrow().getUrl());
+    assertEquals(Set.of(versionedUrl), fileRepository.findExistingUrls(List.of(versionedUrl)));
+    assertEquals(1, fileRepository.findAllByGameId(game.getId()).size());
+    assertEquals(0, gameSnapshotRepository.count());
+  }
+
+  @Test
+  void versionedUrlMigrationWithoutBaseUrlFailsWithoutRewriting() throws Exception {
+    // Arrange
+    File file = saveFile("legacy.webp");
+    fileRepository.flush();
+
+    // Act & Assert
+    assertThrows(ScriptException.class, () -> runVersionedUrlMigration(null));
+    entityManager.clear();
+    assertEquals(file.getUrl(), fileRepository.findByName(file.getName()).orElseThrow().getUrl());
+  }
+
+  @Test
+  void getByNameWithMatchingIfNoneMatchReturns304NotModified() throws Exception {
+    // Arrange
+    File file = saveFile();
+
+    // Act & Assert
+    mockMvc
+        .perform(
+            get("/api/images/" + VALID_FILE.getOriginalFilename())
+                .header("If-None-Match", "\"" + file.getDigest() + "\""))
+        .andExpect(status().isNotModified())
+        .andExpect(content().bytes(new byte[0]));
+  }
+
+  @Test
+  void getByNameWithRangeReturns206PartialContent() throws Exception {
+    // Arrange
+    saveFile();
+
+    // Act & Assert
+    mockMvc
+        .perform(
+            get("/api/images/" + VALID_FILE.getOriginalFilename()).header("Range", "bytes=1-3"))
+        .andExpect(status().isPartialContent())
+        .andExpect(header().string("Content-Range", "bytes 1-3/" + VALID_FILE.getSize()))
+        .andExpect(header().longValue("Content-Length", 3))
+        .andExpect(content().bytes("IFF".getBytes()));
+  }
+
   @Test
   void getByNameWithNonexistentFileReturns404NotFound() throws Exception {
     mockMvc.perform(get("/api/images/missing.png")).andExpect(status().isNotFound());
@@ -113,8 +273,190 @@ class FileControllerTest {
         .andExpect(jsonPath("$[0].name").value(VALID_FILE.getOriginalFilename()));
   }
 
-  private void saveFile() throws IOException {
+  @Test
+  void getAllWithManyFilesStreamsEveryFileResponse() throws Exception {
+    // Arrange
+    for (int i = 0; i < 3; i++) {
+      saveFile("image" + i + ".webp");
+    }
+
+    // Act & Assert
+    mockMvc
+        .perform(get("/api/files"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+        .andExpect(jsonPath("$.length()").value(3))
+        .andExpect(jsonPath("$[2].name").value("image2.webp"));
+  }
+
+  @Test
+  void getPageWithAfterAndLimitReturnsOk200AndNextFileResponses() throws Exception {
+    // Arrange
+    File first = saveFile("image0.webp");
+    saveFile("image1.webp");
+    saveFile("image2.webp");
+
+    // Act & Assert
+    mockMvc
+        .perform(
+            get("/api/files").param("after", String.valueOf(first.getId())).param("limit", "1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1))
+        .andExpect(jsonPath("$[0].name").value("image1.webp"));
+  }
+
+  @Test
+  void getPageWithInvalidLimitReturns400BadRequest() throws Exception {
+    // Act & Assert
+    mockMvc.perform(get("/api/files").param("limit", "0")).andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void uploadWithSameContentUnderTwoNamesReturnsSameContentUrl() throws Exception {
+    // Arrange
+    MockMultipartFile copy =
+        new MockMultipartFile(
+            "file", "copy.webp", VALID_FILE.getContentType(), VALID_FILE.getBytes());
+    String contentUrl = URL_GENERATOR.generateContentUrl(sha256(VALID_FILE.getBytes()));
+
+    // Act & Assert
+    mockMvc
+        .perform(multipart("/api/upload").file(VALID_FILE))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.contentUrl").value(contentUrl));
+    mockMvc
+        .perform(multipart("/api/upload").file(copy))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.contentUrl").value(contentUrl));
+  }
+
+  @Test
+  void getByDigestWithExistingContentReturnsOk200AndContent() throws Exception {
+    // Arrange
+    File file = saveFile();
+
+    // Act & Assert
+    mockMvc
+        .perform(get("/api/content/" + file.getDigest()))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"" + file.getDigest() + "\""))
+        .andExpect(content().bytes(VALID_FILE.getBytes()));
+  }
+
+  @Test
+  void getByDigestWithUnknownContentReturns404NotFound() throws Exception {
+    // Act & Assert
+    mockMvc.perform(get("/api/content/" + "0".repeat(64))).andExpect(status().isNotFound());
+  }
+
+  @Test
+  void getByNameWithWidthAndNoDerivativeReturnsOriginal() throws Exception {
+    // Arrange
+    File file = saveFile();
+
+    // Act & Assert
+    mockMvc
+        .perform(get("/api/images/" + file.getName()).param("w", "640"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"" + file.getDigest() + "\""))
+        .andExpect(content().bytes(VALID_FILE.getBytes()));
+  }
+
+  @Test
+  void getByNameWithInvalidWidthReturns400BadRequest() throws Exception {
+    // Arrange
+    File file = saveFile();
+
+    // Act & Assert
+    mockMvc
+        .perform(get("/api/images/" + file.getName()).param("w", "0"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void uploadWithContentNotMatchingTypeReturns400BadRequest() throws Exception {
+    // Arrange
+    MockMultipartFile mislabeledFile =
+        new MockMultipartFile("file", "mislabeled.png", "image/png", WEBP_CONTENT);
+
+    // Act & Assert
+    mockMvc
+        .perform(multipart("/api/upload").file(mislabeledFile))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void uploadWithValidFileStoresImageDimensions() throws Exception {
+    // Act
+    mockMvc.perform(multipart("/api/upload").file(VALID_FILE)).andExpect(status().isOk());
+
+    // Assert
+    mockMvc
+        .perform(get("/api/files").param("limit", "10"))
+        .andExpect(jsonPath("$[0].width").value(4))
+        .andExpect(jsonPath("$[0].height").value(3));
+  }
+
+  @Test
+  void deleteUnreferencedFilesWithDryRunReportsFilesWithoutDeletingThem() throws Exception {
+    // Arrange
+    File file = saveFile("orphan.webp");
+
+    // Act & Assert
+    mockMvc
+        .perform(post("/api/files/gc").param("dryRun", "true"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.dryRun").value(true))
+        .andExpect(jsonPath("$.unreferencedCount").value(1))
+        .andExpect(jsonPath("$.deletedCount").value(0));
+    mockMvc.perform(get("/api/images/" + file.getName())).andExpect(status().isOk());
+  }
+
+  @Test
+  void deleteUnreferencedFilesDeletesOnlyFilesNoQuestionUses() throws Exception {
+    // Arrange
+    File orphan = saveFile("orphan.webp");
+    File used = saveFile("used.webp");
+    Game game = Game.builder().title("Image Quiz").createdBy(1L).build();
+    Question question = new Question();
+    question.setText("Which image is this?");
+    question.setImageUrl(used.getUrl());
+    game.addQuestion(question);
+    gameRepository.save(game);
+
+    // Act & Assert
+    mockMvc
+        .perform(post("/api/files/gc"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.dryRun").value(false))
+        .andExpect(jsonPath("$.deletedCount").value(1));
+    mockMvc.perform(get("/api/images/" + orphan.getName())).andExpect(status().isNotFound());
+    mockMvc.perform(get("/api/images/" + used.getName())).andExpect(status().isOk());
+  }
+
+  private void runVersionedUrlMigration(String baseUrl) throws IOException {
+    String script =
+        new ClassPathResource("db/migration/file-urls-versioned.sql")
+            .getContentAsString(StandardCharsets.UTF_8);
+    if (baseUrl != null) {
+      script = script.replace("${files.public-base-url}", baseUrl);
+    }
+
+    new ResourceDatabasePopulator(new ByteArrayResource(script.getBytes(StandardCharsets.UTF_8)))
+        .populate(DataSourceUtils.getConnection(dataSource));
+  }
+
+  private File saveFile(String name) throws IOException {
+    File file = buildFile(VALID_FILE);
+    file.setName(name);
+    file.setUrl("http://localhost:8080/api/files/" + name);
+    fileStorage.store(VALID_FILE.getInputStream());
+    return fileRepository.save(file);
+  }
+
+  private File saveFile() throws IOException {
     File existing = buildFile(VALID_FILE);
-    fileRepository.save(existing);
+    fileStorage.store(VALID_FILE.getInputStream());
+    return fileRepository.save(existing);
   }
 }
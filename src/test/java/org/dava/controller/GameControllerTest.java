@@ -0,0 +1,376 @@
+package org.dava.controller;
+
+import static org.dava.mock.FileMockData.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.springframework.test.web.servlet.setup.MockMvcBuilders.webAppContextSetup;
+
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import org.dava.dao.FileRepository;
+import org.dava.dao.GameRepository;
+import org.dava.davaquiz.DavaQuizApplication;
+import org.dava.domain.File;
+import org.dava.domain.Game;
+import org.dava.domain.Question;
+import org.dava.enumeration.GameStatus;
+import org.dava.storage.FileStorage;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.context.WebApplicationContext;
+
+@SpringBootTest(classes = DavaQuizApplication.class)
+@ActiveProfiles("test")
+@Transactional
+class GameControllerTest {
+
+  @Autowired private WebApplicationContext context;
+
+  @Autowired private GameRepository gameRepository;
+
+  @Autowired private FileRepository fileRepository;
+
+  @Autowired private FileStorage fileStorage;
+
+  @Autowired private EntityManager entityManager;
+
+  private MockMvc mockMvc;
+
+  @BeforeEach
+  void setUp() {
+    mockMvc = webAppContextSetup(context).build();
+  }
+
+  @Test
+  void getAssetsWithExistingGameReturnsZipOfQuestionImages() throws Exception {
+    // Arrange
+    File first = saveFile("first.webp");
+    File second = saveFile("second.webp");
+    saveFile("unused.webp");
+    Game game = saveGame(second.getUrl(), first.getUrl(), null);
+
+    // Act
+    byte[] archive =
+        mockMvc
+            .perform(get("/api/games/{id}/assets.zip", game.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/zip"))
+            .andExpect(
+                header()
+                    .string(
+                        "Content-Disposition",
+                        "attachment; filename=\"game-" + game.getId() + "-assets.zip\""))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+    // Assert
+    List<String> names = new ArrayList<>();
+    try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(archive))) {
+      for (ZipEntry entry; (entry = zip.getNextEntry()) != null; ) {
+        names.add(entry.getName());
+        assertArrayEquals(WEBP_CONTENT, zip.readAllBytes());
+      }
+    }
+    assertEquals(List.of("first.webp", "second.webp"), names);
+  }
+
+  @Test
+  void getAssetsWithUnknownGameReturns404NotFound() throws Exception {
+    // Act & Assert
+    mockMvc.perform(get("/api/games/{id}/assets.zip", 999_999L)).andExpect(status().isNotFound());
+  }
+
+  @Test
+  void getAllReturnsQuestionCountWithoutLoadingQuestions() throws Exception {
+    // Arrange
+    Game game = saveGame("first.webp", "second.webp");
+    entityManager.flush();
+    entityManager.clear();
+
+    // Act
+    mockMvc
+        .perform(get("/api/games").param("count", "false").param("size", "100"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content[?(@.id == " + game.getId() + ")].questionCount").value(2))
+        .andExpect(jsonPath("$.content[0].questions").doesNotExist());
+
+    // Assert
+    Game listed = entityManager.find(Game.class, game.getId());
+    assertFalse(Hibernate.isInitialized(listed.getQuestions()));
+    assertEquals(List.of("Cat", "Dog"), listed.getQuestions().get(0).getOptions());
+  }
+
+  @Test
+  void getAllWithCountFalseReturnsPageWithoutTotals() throws Exception {
+    // Arrange
+    for (int i = 0; i < 3; i++) {
+      gameRepository.saveAndFlush(Game.builder().title("Slice Quiz " + i).createdBy(1L).build());
+    }
+
+    // Act & Assert
+    mockMvc
+        .perform(
+            get("/api/games").param("count", "false").param("size", "2").param("title", "slice"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content.length()").value(2))
+        .andExpect(jsonPath("$.lastPage").value(false))
+        .andExpect(jsonPath("$.totalPages").doesNotExist())
+        .andExpect(jsonPath("$.totalElements").doesNotExist());
+  }
+
+  @Test
+  void getAllWithApproximateCountReturnsTotals() throws Exception {
+    // Arrange
+    for (int i = 0; i < 3; i++) {
+      gameRepository.saveAndFlush(Game.builder().title("Approx Quiz " + i).createdBy(1L).build());
+    }
+
+    // Act & Assert
+    mockMvc
+        .perform(
+            get("/api/games").param("count", "approx").param("size", "2").param("title", "approx"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.totalElements").value(3))
+        .andExpect(jsonPath("$.totalPages").value(2));
+  }
+
+  @Test
+  void getAllWithUnknownCountModeReturns400BadRequest() throws Exception {
+    // Act & Assert
+    mockMvc.perform(get("/api/games").param("count", "maybe")).andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void getAllWithCursorPagesThroughFilteredGamesWithoutOverlap() throws Exception {
+    // Arrange
+    List<Long> expectedIds = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      Game game = Game.builder().title("Cursor Quiz " + i).createdBy(1L).build();
+      expectedIds.add(gameRepository.saveAndFlush(game).getId());
+    }
+    gameRepository.saveAndFlush(Game.builder().title("Unrelated").createdBy(1L).build());
+
+    // Act
+    List<Long> ids = new ArrayList<>();
+    String cursor = "";
+    int pages = 0;
+    do {
+      String body =
+          mockMvc
+              .perform(
+                  get("/api/games")
+                      .param("cursor", cursor)
+                      .param("size", "2")
+                      .param("title", "cursor quiz"))
+              .andExpect(status().isOk())
+              .andExpect(jsonPath("$.totalElements").doesNotExist())
+              .andReturn()
+              .getResponse()
+              .getContentAsString();
+      ids.addAll(
+          JsonPath.<List<Integer>>read(body, "$.content[*].id").stream()
+              .map(Integer::longValue)
+              .toList());
+      cursor = JsonPath.read(body, "$.nextCursor");
+      pages++;
+    } while (cursor != null);
+
+    // Assert
+    assertEquals(expectedIds, ids);
+    assertEquals(3, pages);
+  }
+
+  @Test
+  void getAllWithTitleFilterFindsRenamedGameByNewTitleOnly() throws Exception {
+    // Arrange
+    Game game =
+        gameRepository.saveAndFlush(Game.builder().title("Original Trivia").createdBy(1L).build());
+    game.setTitle("Renamed Trivia");
+    gameRepository.saveAndFlush(game);
+
+    // Act & Assert
+    mockMvc
+        .perform(get("/api/games").param("title", "renamed triv"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content[0].id").value(game.getId()));
+    mockMvc
+        .perform(get("/api/games").param("title", "original triv"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content").isEmpty());
+  }
+
+  @Test
+  void getAllWithTypedFiltersAndSortReturnsMatchingGamesInOrder() throws Exception {
+    // Arrange
+    Game draft =
+        gameRepository.saveAndFlush(Game.builder().title("Mine Draft").createdBy(77L).build());
+    Game published =
+        gameRepository.saveAndFlush(
+            Game.builder()
+                .title("Mine Published")
+                .status(GameStatus.PUBLISHED)
+                .createdBy(77L)
+                .build());
+    gameRepository.saveAndFlush(Game.builder().title("Someone Else's").createdBy(78L).build());
+
+    // Act & Assert
+    mockMvc
+        .perform(
+            get("/api/games")
+                .param("createdBy", "77")
+                .param("status", "in:DRAFT,PUBLISHED")
+                .param("createdAt", "gte:2000-01-01")
+                .param("sort", "title,desc"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content.length()").value(2))
+        .andExpect(jsonPath("$.content[0].id").value(published.getId()))
+        .andExpect(jsonPath("$.content[1].id").value(draft.getId()));
+    mockMvc
+        .perform(get("/api/games").param("createdBy", "77").param("createdAt", "lt:2000-01-01"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content").isEmpty());
+  }
+
+  @Test
+  void getAllWithInvalidFilterValueReturns400BadRequest() throws Exception {
+    // Act & Assert
+    mockMvc
+        .perform(get("/api/games").param("createdAt", "gte:soon"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void getPublishedGameServesSnapshotWithETagAndGzipVariant() throws Exception {
+    // Arrange
+    String[] imageUrls = new String[20];
+    Arrays.fill(imageUrls, "http://localhost:8080/api/images/quiz.webp");
+    Game game = saveGame(imageUrls);
+    game.setStatus(GameStatus.PUBLISHED);
+    gameRepository.saveAndFlush(game);
+
+    // Act
+    MockHttpServletResponse plain =
+        mockMvc
+            .perform(get("/api/games/{id}", game.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/json"))
+            .andExpect(header().doesNotExist("Content-Encoding"))
+            .andExpect(jsonPath("$.id").value(game.getId()))
+            .andExpect(jsonPath("$.questions.length()").value(20))
+            .andReturn()
+            .getResponse();
+    MockHttpServletResponse gzipped =
+        mockMvc
+            .perform(get("/api/games/{id}", game.getId()).header("Accept-Encoding", "gzip"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Content-Encoding", "gzip"))
+            .andReturn()
+            .getResponse();
+
+    // Assert
+    String eTag = plain.getHeader("ETag");
+    assertNotNull(eTag);
+    assertNotEquals(eTag, gzipped.getHeader("ETag"));
+    try (GZIPInputStream in =
+        new GZIPInputStream(new ByteArrayInputStream(gzipped.getContentAsByteArray()))) {
+      assertArrayEquals(plain.getContentAsByteArray(), in.readAllBytes());
+    }
+    mockMvc
+        .perform(get("/api/games/{id}", game.getId()).header("If-None-Match", eTag))
+        .andExpect(status().isNotModified());
+  }
+
+  @Test
+  void getPublishedGameServesGzipOnlyWhenItsQualityIsPositive() throws Exception {
+    // Arrange
+    String[] imageUrls = new String[20];
+    Arrays.fill(imageUrls, "http://localhost:8080/api/images/quiz.webp");
+    Game game = saveGame(imageUrls);
+    game.setStatus(GameStatus.PUBLISHED);
+    gameRepository.saveAndFlush(game);
+
+    // Act & Assert
+    for (String refused :
+        List.of("gzip;q=0", "identity", "x-gzip-like", "*;q=0", "br, gzip;q=0, *")) {
+      mockMvc
+          .perform(get("/api/games/{id}", game.getId()).header("Accept-Encoding", refused))
+          .andExpect(status().isOk())
+          .andExpect(header().doesNotExist("Content-Encoding"));
+    }
+    for (String accepted : List.of("deflate, GZIP;q=0.5", "br;q=1.0, *;q=0.1", "x-gzip")) {
+      mockMvc
+          .perform(get("/api/games/{id}", game.getId()).header("Accept-Encoding", accepted))
+          .andExpect(status().isOk())
+          .andExpect(header().string("Content-Encoding", "gzip"));
+    }
+  }
+
+  @Test
+  void getPublishedGameWithSmallGameStoresNoGzipVariant() throws Exception {
+    // Arrange
+    Game game = saveGame("first.webp");
+    game.setStatus(GameStatus.PUBLISHED);
+    gameRepository.saveAndFlush(game);
+
+    // Act & Assert
+    mockMvc
+        .perform(get("/api/games/{id}", game.getId()).header("Accept-Encoding", "gzip"))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist("Content-Encoding"))
+        .andExpect(jsonPath("$.questions.length()").value(1));
+  }
+
+  @Test
+  void getPublishedGameWithDraftGameReturns404NotFound() throws Exception {
+    // Arrange
+    Game game = gameRepository.saveAndFlush(saveGame("first.webp"));
+
+    // Act & Assert
+    mockMvc.perform(get("/api/games/{id}", game.getId())).andExpect(status().isNotFound());
+  }
+
+  @Test
+  void getAllWithMalformedCursorReturns400BadRequest() throws Exception {
+    // Act & Assert
+    mockMvc.perform(get("/api/games").param("cursor", "%%%")).andExpect(status().isBadRequest());
+  }
+
+  private Game saveGame(String... imageUrls) {
+    Game game = Game.builder().title("Image Quiz").createdBy(1L).build();
+    for (String imageUrl : imageUrls) {
+      Question question = new Question();
+      question.setText("Which image is this?");
+      question.setImageUrl(imageUrl);
+      question.setOptions(List.of("Cat", "Dog"));
+      question.setCorrectOptionIndex(0);
+      game.addQuestion(question);
+    }
+
+    return gameRepository.save(game);
+  }
+
+  private File saveFile(String name) throws IOException {
+    File file = buildFile(VALID_FILE);
+    file.setName(name);
+    file.setUrl("http://localhost:8080/api/images/" + name);
+    fileStorage.store(VALID_FILE.getInputStream());
+    return fileRepository.save(file);
+  }
+}
@@ -0,0 +1,89 @@
+package org.dava.dao;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.transaction.Transactional;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.dava.davaquiz.DavaQuizApplication;
+import org.dava.domain.Game;
+import org.dava.domain.Question;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Counts the JDBC statements sent to insert a game with many questions, with and without batching.
+ */
+@Slf4j
+@SpringBootTest(classes = DavaQuizApplication.class)
+@ActiveProfiles("test")
+@Transactional
+class GameInsertBenchmarkTest {
+  private static final int QUESTION_COUNT = 100;
+
+  @Autowired private GameRepository gameRepository;
+
+  @Autowired private EntityManager entityManager;
+
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.setStatisticsEnabled(true);
+  }
+
+  @AfterEach
+  void tearDown() {
+    statistics.setStatisticsEnabled(false);
+  }
+
+  @Test
+  void saveGameWithManyQuestionsSendsBatchedInserts() {
+    // Arrange
+    long unbatched = countStatementsToSave(1);
+
+    // Act
+    long batched = countStatementsToSave(null);
+
+    // Assert
+    log.info(
+        "Inserting a game with {} questions took {} statements unbatched and {} batched",
+        QUESTION_COUNT,
+        unbatched,
+        batched);
+    assertTrue(unbatched > QUESTION_COUNT, "Every question is inserted on its own without batches");
+    assertTrue(batched <= 10, "Questions are inserted in a handful of batches, got " + batched);
+  }
+
+  private long countStatementsToSave(Integer jdbcBatchSize) {
+    entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+    statistics.clear();
+
+    Game game = Game.builder().title("Bulk Quiz").createdBy(1L).build();
+    for (int i = 0; i < QUESTION_COUNT; i++) {
+      Question question = new Question();
+      question.setText("Question " + i);
+      question.setOptions(List.of("Yes", "No"));
+      question.setCorrectOptionIndex(0);
+      question.setImageUrl("http://localhost:8080/api/images/question-" + i + ".webp");
+      game.addQuestion(question);
+    }
+    gameRepository.saveAndFlush(game);
+
+    long statements = statistics.getPrepareStatementCount();
+    entityManager.clear();
+    return statements;
+  }
+}
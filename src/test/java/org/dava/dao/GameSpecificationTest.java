@@ -8,6 +8,7 @@ import static org.mockito.Mockito.*;
 import jakarta.persistence.criteria.*;
 import java.time.OffsetDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import lombok.NonNull;
 import org.dava.domain.Game;
@@ -39,6 +40,8 @@ class GameSpecificationTest {
 
   @Mock Path<Object> createdAtPath;
 
+  @Mock Path<Object> createdByPath;
+
   private Map<String, Object> invalidFilter;
 
   private Map<String, Object> validFilters;
@@ -137,4 +140,123 @@ class GameSpecificationTest {
     Assertions.assertNotNull(result, "The result must be a predicate.");
     verify(cb, atLeastOnce()).and(any(Predicate.class), any(Predicate.class));
   }
+
+  @Test
+  void statusInWithListOfStatusesReturnsSpecification() {
+    // Arrange
+    Map<String, Object> filters = Map.of("status", "in:draft,PUBLISHED");
+
+    when(root.get("status")).thenReturn(statusPath);
+    when(statusPath.in(List.of(GameStatus.DRAFT, GameStatus.PUBLISHED))).thenReturn(predicate);
+
+    // Act
+    Specification<@NonNull Game> spec = GameSpecification.createSpecification(filters);
+    Predicate result = spec.toPredicate(root, query, cb);
+
+    // Assert
+    assertThat(result).isSameAs(predicate);
+  }
+
+  @Test
+  void createdByWithSingleOrListOfUsersReturnsSpecification() {
+    // Arrange
+    when(root.get("createdBy")).thenReturn(createdByPath);
+    when(cb.equal(createdByPath, 7L)).thenReturn(predicate);
+    when(createdByPath.in(List.of(7L, 8L))).thenReturn(predicate);
+
+    // Act
+    Predicate single =
+        GameSpecification.createSpecification(Map.of("createdBy", "7"))
+            .toPredicate(root, query, cb);
+    Predicate list =
+        GameSpecification.createSpecification(Map.of("createdBy", "in:7,8"))
+            .toPredicate(root, query, cb);
+
+    // Assert
+    assertThat(single).isSameAs(predicate);
+    assertThat(list).isSameAs(predicate);
+  }
+
+  @Test
+  void dateRangeOperatorsCompareWithWholeDays() {
+    // Arrange
+    OffsetDateTime startOfDay = OffsetDateTime.parse("2026-01-01T00:00:00Z");
+    OffsetDateTime endOfDay = OffsetDateTime.parse("2026-01-02T00:00:00Z");
+
+    when(root.get("createdAt")).thenReturn(createdAtPath);
+
+    // Act
+    GameSpecification.createSpecification(Map.of("createdAt", "gte:2026-01-01"))
+        .toPredicate(root, query, cb);
+    GameSpecification.createSpecification(Map.of("createdAt", "gt:2026-01-01"))
+        .toPredicate(root, query, cb);
+    GameSpecification.createSpecification(Map.of("createdAt", "lt:2026-01-01"))
+        .toPredicate(root, query, cb);
+    GameSpecification.createSpecification(Map.of("createdAt", "lte:2026-01-01"))
+        .toPredicate(root, query, cb);
+
+    // Assert
+    @SuppressWarnings("unchecked")
+    Expression<OffsetDateTime> createdAt =
+        (Expression<OffsetDateTime>) (Expression<?>) createdAtPath;
+    verify(cb).greaterThanOrEqualTo(createdAt, startOfDay);
+    verify(cb).greaterThanOrEqualTo(createdAt, endOfDay);
+    verify(cb).lessThan(createdAt, startOfDay);
+    verify(cb).lessThan(createdAt, endOfDay);
+  }
+
+  @Test
+  void createSpecificationWithInvalidValueOrOperatorThrowsIllegalArgumentException() {
+    Assertions.assertAll(
+        "Check Invalid Filter Values",
+        () ->
+            assertThrows(
+                IllegalArgumentException.class,
+                () -> GameSpecification.createSpecification(Map.of("createdAt", "gte:yesterday"))),
+        () ->
+            assertThrows(
+                IllegalArgumentException.class,
+                () -> GameSpecification.createSpecification(Map.of("createdBy", "me"))),
+        () ->
+            assertThrows(
+                IllegalArgumentException.class,
+                () -> GameSpecification.createSpecification(Map.of("status", "gte:DRAFT"))),
+        () ->
+            assertThrows(
+                IllegalArgumentException.class,
+                () -> GameSpecification.createSpecification(Map.of("updatedAt", "in:2026-01-01"))));
+  }
+
+  @Test
+  void titleContainsKeepsOperatorLikeValuesAsText() {
+    // Arrange
+    when(root.get("title")).thenReturn(titlePath);
+    when(cb.lower(any())).thenReturn(lowerTitleExpression);
+
+    // Act
+    GameSpecification.createSpecification(Map.of("title", "in:side")).toPredicate(root, query, cb);
+
+    // Assert
+    verify(cb).like(lowerTitleExpression, "%in:side%");
+  }
+
+  @Test
+  void matchesEvaluatesStatusCreatedByAndTitleFilters() {
+    // Arrange
+    Game game =
+        Game.builder().id(1L).title("Dragon Quest").status(GameStatus.DRAFT).createdBy(7L).build();
+
+    // Act & Assert
+    Assertions.assertAll(
+        "Check In-Memory Filter Matching",
+        () -> assertTrue(GameSpecification.matches(Map.of(), game)),
+        () -> assertTrue(GameSpecification.matches(Map.of("status", "draft"), game)),
+        () -> assertTrue(GameSpecification.matches(Map.of("status", "in:PUBLISHED,DRAFT"), game)),
+        () -> assertFalse(GameSpecification.matches(Map.of("status", "PUBLISHED"), game)),
+        () -> assertTrue(GameSpecification.matches(Map.of("createdBy", "in:6,7"), game)),
+        () -> assertFalse(GameSpecification.matches(Map.of("createdBy", "8"), game)),
+        () -> assertTrue(GameSpecification.matches(Map.of("title", "QUEST"), game)),
+        () -> assertFalse(GameSpecification.matches(Map.of("title", "runner"), game)),
+        () -> assertTrue(GameSpecification.matches(Map.of("createdAt", "lt:2000-01-01"), game)));
+  }
 }
@@ -25,6 +25,27 @@ class GameTest {
     assertEquals(0, count, "Question count should be 0 when questions list is empty");
   }
 
+  @Test
+  void getQuestionCountReturnsStoredCountWhenQuestionsNotLoaded() {
+    Game game = GameMockData.getGameWithNullQuestions();
+    game.setQuestionCount(3);
+
+    Integer count = game.getQuestionCount();
+
+    assertEquals(3, count, "Question count should fall back to the stored count");
+  }
+
+  @Test
+  void addQuestionUpdatesStoredCount() {
+    Game game = Game.builder().title("Dragon Quest").createdBy(1L).build();
+
+    game.addQuestion(new Question());
+    game.addQuestion(new Question());
+    game.setQuestions(null);
+
+    assertEquals(2, game.getQuestionCount(), "Stored count should follow added questions");
+  }
+
   @Test
   void getQuestionCountReturnsSizeOfQuestionsList() {
     Game game = GameMockData.getGameWithValidNumberOfQuestions();
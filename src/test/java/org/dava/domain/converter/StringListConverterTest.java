@@ -0,0 +1,46 @@
+package org.dava.domain.converter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class StringListConverterTest {
+  private final StringListConverter converter = new StringListConverter();
+
+  @Test
+  void convertToDatabaseColumnWritesJsonArray() {
+    // Act
+    String column = converter.convertToDatabaseColumn(List.of("Paris", "Rome \"Eternal\""));
+
+    // Assert
+    assertEquals("[\"Paris\",\"Rome \\\"Eternal\\\"\"]", column);
+  }
+
+  @Test
+  void convertToEntityAttributeReadsWhatWasWritten() {
+    // Arrange
+    List<String> options = List.of("Paris", "Rome, Italy", "[Berlin]", "Zürich");
+
+    // Act
+    List<String> actual =
+        converter.convertToEntityAttribute(converter.convertToDatabaseColumn(options));
+
+    // Assert
+    assertEquals(options, actual);
+  }
+
+  @Test
+  void convertNullValues() {
+    // Act & Assert
+    assertNull(converter.convertToDatabaseColumn(null));
+    assertEquals(List.of(), converter.convertToEntityAttribute(null));
+    assertEquals(List.of(), converter.convertToEntityAttribute(""));
+  }
+
+  @Test
+  void convertToEntityAttributeWithInvalidColumnThrowsIllegalStateException() {
+    // Act & Assert
+    assertThrows(IllegalStateException.class, () -> converter.convertToEntityAttribute("Paris"));
+  }
+}
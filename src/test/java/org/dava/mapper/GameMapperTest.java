@@ -118,8 +118,24 @@ class GameMapperTest {
     // Assert
     assertThat(actual.getContent())
         .usingRecursiveComparison()
-        .ignoringFields("createdAt", "updatedAt")
+        .ignoringFields("createdAt", "updatedAt", "questions")
         .isEqualTo(expected.getContent());
+    assertThat(actual.getContent()).allSatisfy(game -> assertNull(game.getQuestions()));
+  }
+
+  @Test
+  void toGameSummaryLeavesQuestionsOutAndUsesStoredCount() {
+    // Arrange
+    Game game = GameMockData.getGameWithNullQuestions();
+    game.setQuestionCount(4);
+
+    // Act
+    GameResponse response = gameMapper.toGameSummary(game);
+
+    // Assert
+    assertEquals(game.getTitle(), response.getTitle());
+    assertEquals(4, response.getQuestionCount());
+    assertNull(response.getQuestions());
   }
 
   @Test
@@ -12,6 +12,9 @@ import org.junit.jupiter.api.Test;
 import org.mapstruct.factory.Mappers;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 class PageMapperTest {
   private final PageMapper pageMapper = Mappers.getMapper(PageMapper.class);
@@ -28,4 +31,22 @@ class PageMapperTest {
     // Assert
     assertEquals(expected, actual);
   }
+
+  @Test
+  void toResponseSliceWithValidSliceReturnsPageResponseWithoutTotals() {
+    // Arrange
+    Slice<@NotNull Game> games =
+        new SliceImpl<>(GameMockData.getValidGameList(), PageRequest.of(1, 3), true);
+
+    // Act
+    PageResponse<Game> actual = pageMapper.toResponseSlice(games, new HashSet<>());
+
+    // Assert
+    assertEquals(games.getContent(), actual.getContent());
+    assertEquals(1, actual.getPage());
+    assertEquals(3, actual.getSize());
+    assertFalse(actual.isLastPage());
+    assertNull(actual.getTotalPages());
+    assertNull(actual.getTotalElements());
+  }
 }
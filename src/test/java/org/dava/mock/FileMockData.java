@@ -1,18 +1,33 @@
 package org.dava.mock;
 
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import javax.imageio.ImageIO;
 import org.dava.domain.File;
 import org.dava.dto.FileDto;
 import org.dava.response.FileResponse;
 import org.dava.response.FileUploadResponse;
+import org.dava.storage.StoredContent;
 import org.dava.util.FileUrlGenerator;
 import org.junit.jupiter.api.MediaType;
+import org.springframework.core.io.Resource;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.multipart.MultipartFile;
 
 public class FileMockData {
+  public static final FileUrlGenerator URL_GENERATOR =
+      new FileUrlGenerator("http://localhost:8080/api");
+
+  public static final byte[] WEBP_CONTENT = buildWebp(4, 3);
+
   public static final MockMultipartFile VALID_FILE =
-      new MockMultipartFile("file", "validFile.webp", "image/webp", "image".getBytes());
+      new MockMultipartFile("file", "validFile.webp", "image/webp", WEBP_CONTENT);
 
   public static final MockMultipartFile FILE_WITH_INVALID_CONTENT_TYPE =
       new MockMultipartFile(
@@ -25,19 +40,51 @@ public class FileMockData {
   public static final MockMultipartFile FILE_WITH_NO_CONTENT_TYPE =
       new MockMultipartFile("file", "invalidFile.jpeg", null, "".getBytes());
 
-  public static FileUploadResponse buildFileUploadResponse(String url) {
-    return new FileUploadResponse(url);
+  public static FileUploadResponse buildFileUploadResponse(File file) {
+    return new FileUploadResponse(
+        file.getUrl(), URL_GENERATOR.generateContentUrl(file.getDigest()));
   }
 
   public static File buildFile(MultipartFile file) throws IOException {
+    String digest = sha256(file.getBytes());
+
     return File.builder()
         .name(file.getOriginalFilename())
-        .content(file.getBytes())
         .contentType(file.getContentType())
-        .url(FileUrlGenerator.generateUrl(file.getOriginalFilename()))
+        .url(URL_GENERATOR.generateUrl(file.getOriginalFilename(), digest))
+        .digest(digest)
+        .size(file.getSize())
         .build();
   }
 
+  public static byte[] buildWebp(int width, int height) {
+    ByteBuffer header = ByteBuffer.allocate(30).order(ByteOrder.LITTLE_ENDIAN);
+    header.put("RIFF".getBytes()).putInt(22).put("WEBP".getBytes());
+    header.put("VP8X".getBytes()).putInt(10).putInt(0);
+    header.putShort((short) (width - 1)).put((byte) 0);
+    header.putShort((short) (height - 1)).put((byte) 0);
+    return header.array();
+  }
+
+  public static byte[] buildImage(int width, int height, String format) throws IOException {
+    BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ImageIO.write(image, format, out);
+    return out.toByteArray();
+  }
+
+  public static StoredContent buildStoredContent(MultipartFile file) throws IOException {
+    return new StoredContent(sha256(file.getBytes()), file.getSize());
+  }
+
+  public static String sha256(byte[] content) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
   public static FileResponse buildFileResponse(File file) {
     return FileResponse.builder()
         .id(file.getId())
@@ -47,7 +94,13 @@ public class FileMockData {
         .build();
   }
 
-  public static FileDto buildFileDto(File file) {
-    return new FileDto(file.getContentType(), file.getContent());
+  public static FileDto buildFileDto(File file, Resource content) {
+    return new FileDto(
+        file.getContentType(),
+        file.getSize(),
+        file.getDigest(),
+        file.getCreatedAt(),
+        content,
+        null);
   }
 }
@@ -0,0 +1,111 @@
+package org.dava.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
+import org.dava.dao.GameRepository;
+import org.dava.domain.Game;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class GameTitleIndexTest {
+  @Mock private GameRepository gameRepository;
+
+  private GameTitleIndex index;
+
+  @BeforeEach
+  void setUp() {
+    index = new GameTitleIndex(gameRepository, 2);
+  }
+
+  @Test
+  void findIdsBeforeLoadLeavesSearchToDatabase() {
+    // Arrange
+    index.put(1L, "Dragon Quest");
+
+    // Act & Assert
+    assertEquals(Optional.empty(), index.findIds("dragon"));
+  }
+
+  @Test
+  void findIdsAfterLoadReturnsGamesContainingTextIgnoringCase() {
+    // Arrange
+    loadTitles("Dragon Quest", "Space Runner", "Quest for Dragons");
+
+    // Act & Assert
+    assertEquals(Optional.of(Set.of(1L, 3L)), index.findIds("DRAGON"));
+    assertEquals(Optional.of(Set.of(2L)), index.findIds("e run"));
+    assertEquals(Optional.of(Set.of()), index.findIds("zebra"));
+  }
+
+  @Test
+  void findIdsDoesNotReturnGamesContainingOnlyTheTrigrams() {
+    // Arrange
+    loadTitles("abcd bcde");
+
+    // Act & Assert
+    assertEquals(Optional.of(Set.of()), index.findIds("abcde"));
+  }
+
+  @Test
+  void findIdsWithShortTextOrTooManyMatchesLeavesSearchToDatabase() {
+    // Arrange
+    loadTitles("Quiz One", "Quiz Two", "Quiz Three");
+
+    // Act & Assert
+    assertEquals(Optional.empty(), index.findIds("qu"));
+    assertEquals(Optional.empty(), index.findIds("quiz"));
+  }
+
+  @Test
+  void putReplacesPreviousTitleAndRemoveDropsGame() {
+    // Arrange
+    loadTitles("Dragon Quest", "Space Runner");
+
+    // Act
+    index.put(1L, "Mystery Mansion");
+    index.remove(2L);
+
+    // Assert
+    assertEquals(Optional.of(Set.of()), index.findIds("dragon"));
+    assertEquals(Optional.of(Set.of(1L)), index.findIds("mansion"));
+    assertEquals(Optional.of(Set.of()), index.findIds("runner"));
+    assertEquals(1, index.size());
+  }
+
+  @Test
+  void refreshIndexesStoredTitleOrRemovesMissingGame() {
+    // Arrange
+    loadTitles("Dragon Quest", "Space Runner");
+    index.put(1L, "Rolled Back Title");
+    when(gameRepository.findTitleById(1L)).thenReturn(Optional.of("Dragon Quest"));
+    when(gameRepository.findTitleById(2L)).thenReturn(Optional.empty());
+
+    // Act
+    index.refresh(1L);
+    index.refresh(2L);
+
+    // Assert
+    assertEquals(Optional.of(Set.of(1L)), index.findIds("dragon"));
+    assertEquals(Optional.of(Set.of()), index.findIds("rolled"));
+    assertEquals(Optional.of(Set.of()), index.findIds("runner"));
+  }
+
+  private void loadTitles(String... titles) {
+    List<Game> games =
+        IntStream.range(0, titles.length)
+            .mapToObj(i -> Game.builder().id(i + 1L).title(titles[i]).build())
+            .toList();
+    when(gameRepository.findAllOrderedById(any(), any())).thenReturn(games);
+    index.load();
+  }
+}
@@ -0,0 +1,227 @@
+package org.dava.service;
+
+import static org.dava.mock.FileMockData.WEBP_CONTENT;
+import static org.dava.mock.FileMockData.sha256;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+import org.dava.dto.UploadSessionRequest;
+import org.dava.exception.ExistentFileException;
+import org.dava.exception.UploadOffsetException;
+import org.dava.response.FileUploadResponse;
+import org.dava.response.UploadSessionResponse;
+import org.dava.validator.FileValidator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ChunkedUploadServiceImplTest {
+  private static final byte[] CONTENT = WEBP_CONTENT;
+
+  @Mock private FileService fileService;
+
+  @Mock private FileValidator fileValidator;
+
+  @TempDir Path directory;
+
+  private ChunkedUploadServiceImpl chunkedUploadService;
+
+  @BeforeEach
+  void setUp() {
+    chunkedUploadService =
+        new ChunkedUploadServiceImpl(fileService, fileValidator, directory.toString(), 1, 60);
+  }
+
+  @Test
+  void startWithValidRequestReturnsSessionAtOffsetZero() {
+    // Act
+    UploadSessionResponse actual = chunkedUploadService.start(buildRequest(CONTENT.length));
+
+    // Assert
+    assertNotNull(actual.getId());
+    assertEquals(0, actual.getOffset());
+    assertEquals(CONTENT.length, actual.getSize());
+    verify(fileValidator).checkIfFileExists("image.webp");
+  }
+
+  @Test
+  void startWithUnsupportedContentTypeThrowsIllegalArgumentException() {
+    // Arrange
+    UploadSessionRequest request = buildRequest(CONTENT.length);
+    request.setContentType("text/plain");
+
+    // Act & Assert
+    assertThrows(IllegalArgumentException.class, () -> chunkedUploadService.start(request));
+  }
+
+  @Test
+  void startWithSizeAboveLimitThrowsIllegalArgumentException() {
+    // Act & Assert
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> chunkedUploadService.start(buildRequest(1024 * 1024 + 1)));
+  }
+
+  @Test
+  void startWithExistingFileNameThrowsExistentFileException() {
+    // Arrange
+    Mockito.doThrow(new ExistentFileException("exists"))
+        .when(fileValidator)
+        .checkIfFileExists("image.webp");
+
+    // Act & Assert
+    assertThrows(
+        ExistentFileException.class,
+        () -> chunkedUploadService.start(buildRequest(CONTENT.length)));
+  }
+
+  @Test
+  void appendChunkWithConsecutiveChunksAdvancesOffset() throws IOException {
+    // Arrange
+    String id = chunkedUploadService.start(buildRequest(CONTENT.length)).getId();
+
+    // Act
+    appendChunk(id, 0, 5);
+    UploadSessionResponse actual = appendChunk(id, 5, CONTENT.length);
+
+    // Assert
+    assertEquals(CONTENT.length, actual.getOffset());
+    assertEquals(CONTENT.length, chunkedUploadService.getStatus(id).getOffset());
+  }
+
+  @Test
+  void appendChunkWithWrongOffsetThrowsUploadOffsetException() throws IOException {
+    // Arrange
+    String id = chunkedUploadService.start(buildRequest(CONTENT.length)).getId();
+    appendChunk(id, 0, 5);
+
+    // Act & Assert
+    assertThrows(UploadOffsetException.class, () -> appendChunk(id, 0, 5));
+  }
+
+  @Test
+  void appendChunkBeyondDeclaredSizeThrowsIllegalArgumentException() {
+    // Arrange
+    String id = chunkedUploadService.start(buildRequest(5)).getId();
+
+    // Act & Assert
+    assertThrows(IllegalArgumentException.class, () -> appendChunk(id, 0, CONTENT.length));
+  }
+
+  @Test
+  void appendChunkWithContentNotMatchingTypeDiscardsSession() throws IOException {
+    // Arrange
+    UploadSessionRequest request = buildRequest(CONTENT.length);
+    request.setContentType("image/png");
+    String id = chunkedUploadService.start(request).getId();
+
+    // Act & Assert
+    assertThrows(IllegalArgumentException.class, () -> appendChunk(id, 0, CONTENT.length));
+    assertThrows(NoSuchElementException.class, () -> chunkedUploadService.getStatus(id));
+    assertNoPartialFiles();
+  }
+
+  @Test
+  void appendChunkWithUnknownSessionThrowsNoSuchElementException() {
+    assertThrows(NoSuchElementException.class, () -> appendChunk("unknown", 0, 5));
+  }
+
+  @Test
+  void completeWithMatchingDigestUploadsAssembledFile() throws IOException {
+    // Arrange
+    String id = chunkedUploadService.start(buildRequest(CONTENT.length)).getId();
+    appendChunk(id, 0, 5);
+    appendChunk(id, 5, CONTENT.length);
+    FileUploadResponse expected = new FileUploadResponse("url", "contentUrl");
+    when(fileService.upload(eq("image.webp"), eq("image/webp"), any()))
+        .thenAnswer(
+            invocation -> {
+              InputStream content = invocation.getArgument(2);
+              assertArrayEquals(CONTENT, content.readAllBytes());
+              return expected;
+            });
+
+    // Act
+    FileUploadResponse actual = chunkedUploadService.complete(id, sha256(CONTENT));
+
+    // Assert
+    assertEquals(expected, actual);
+    assertThrows(NoSuchElementException.class, () -> chunkedUploadService.getStatus(id));
+    assertNoPartialFiles();
+  }
+
+  @Test
+  void completeWithWrongDigestThrowsIllegalArgumentException() throws IOException {
+    // Arrange
+    String id = chunkedUploadService.start(buildRequest(CONTENT.length)).getId();
+    appendChunk(id, 0, CONTENT.length);
+
+    // Act & Assert
+    assertThrows(
+        IllegalArgumentException.class, () -> chunkedUploadService.complete(id, "0".repeat(64)));
+    verify(fileService, never()).upload(any(), any(), any());
+    assertNoPartialFiles();
+  }
+
+  @Test
+  void completeWithMissingBytesThrowsIllegalArgumentException() throws IOException {
+    // Arrange
+    String id = chunkedUploadService.start(buildRequest(CONTENT.length)).getId();
+    appendChunk(id, 0, 5);
+
+    // Act & Assert
+    assertThrows(
+        IllegalArgumentException.class, () -> chunkedUploadService.complete(id, sha256(CONTENT)));
+    assertEquals(5, chunkedUploadService.getStatus(id).getOffset());
+  }
+
+  @Test
+  void abortWithStartedSessionDeletesChunks() throws IOException {
+    // Arrange
+    String id = chunkedUploadService.start(buildRequest(CONTENT.length)).getId();
+    appendChunk(id, 0, 5);
+
+    // Act
+    chunkedUploadService.abort(id);
+
+    // Assert
+    assertThrows(NoSuchElementException.class, () -> chunkedUploadService.getStatus(id));
+    assertNoPartialFiles();
+  }
+
+  private UploadSessionResponse appendChunk(String id, int from, int to) throws IOException {
+    return chunkedUploadService.appendChunk(
+        id, from, new ByteArrayInputStream(Arrays.copyOfRange(CONTENT, from, to)));
+  }
+
+  private void assertNoPartialFiles() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      assertEquals(0, files.count());
+    }
+  }
+
+  private static UploadSessionRequest buildRequest(long size) {
+    return UploadSessionRequest.builder()
+        .fileName("image.webp")
+        .contentType("image/webp")
+        .size(size)
+        .build();
+  }
+}
@@ -0,0 +1,168 @@
+package org.dava.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Lock;
+import org.dava.cache.FileContentCache;
+import org.dava.dao.FileRepository;
+import org.dava.domain.File;
+import org.dava.exception.CleanupAlreadyRunningException;
+import org.dava.response.FileCleanupResponse;
+import org.dava.storage.FileStorage;
+import org.dava.storage.StorageLock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+@ExtendWith(MockitoExtension.class)
+class FileCleanupServiceImplTest {
+  private static final String SHARED_DIGEST = "a".repeat(64);
+  private static final String UNIQUE_DIGEST = "b".repeat(64);
+
+  @Mock private FileRepository fileRepository;
+
+  @Mock private FileStorage fileStorage;
+
+  @Mock private FileContentCache fileContentCache;
+
+  private final StorageLock storageLock = new StorageLock();
+
+  private FileCleanupServiceImpl fileCleanupService;
+
+  @BeforeEach
+  void setUp() {
+    fileCleanupService =
+        new FileCleanupServiceImpl(
+            fileRepository, fileStorage, fileContentCache, storageLock, true, false, 24, 2, 0);
+  }
+
+  @Test
+  void deleteUnreferencedFilesWithDryRunOnlyCountsFiles() {
+    // Arrange
+    when(fileRepository.findUnreferencedAfter(eq(0L), any(), eq(Limit.of(2))))
+        .thenReturn(List.of(buildFile(1L, SHARED_DIGEST, 10), buildFile(2L, UNIQUE_DIGEST, 20)));
+    when(fileRepository.findUnreferencedAfter(eq(2L), any(), eq(Limit.of(2))))
+        .thenReturn(List.of(buildFile(3L, UNIQUE_DIGEST, 20)));
+
+    // Act
+    FileCleanupResponse actual = fileCleanupService.deleteUnreferencedFiles(true);
+
+    // Assert
+    assertTrue(actual.isDryRun());
+    assertEquals(3, actual.getUnreferencedCount());
+    assertEquals(50, actual.getUnreferencedBytes());
+    assertEquals(0, actual.getDeletedCount());
+    verify(fileRepository, never()).deleteUnreferenced(any());
+    verifyNoInteractions(fileStorage);
+  }
+
+  @Test
+  void deleteUnreferencedFilesDeletesRowsAndUnsharedContent() throws IOException {
+    // Arrange
+    when(fileRepository.findUnreferencedAfter(eq(0L), any(), eq(Limit.of(2))))
+        .thenReturn(List.of(buildFile(1L, SHARED_DIGEST, 10), buildFile(2L, UNIQUE_DIGEST, 20)));
+    when(fileRepository.findUnreferencedAfter(eq(2L), any(), eq(Limit.of(2))))
+        .thenReturn(List.of());
+    when(fileRepository.deleteUnreferenced(List.of(1L, 2L))).thenReturn(2);
+    when(fileRepository.existsByDigest(SHARED_DIGEST)).thenReturn(true);
+    when(fileRepository.existsByDigest(UNIQUE_DIGEST)).thenReturn(false);
+
+    // Act
+    FileCleanupResponse actual = fileCleanupService.deleteUnreferencedFiles(false);
+
+    // Assert
+    assertFalse(actual.isDryRun());
+    assertEquals(2, actual.getDeletedCount());
+    assertEquals(20, actual.getReclaimedBytes());
+    verify(fileStorage).delete(UNIQUE_DIGEST);
+    verify(fileStorage, never()).delete(SHARED_DIGEST);
+    verify(fileContentCache).invalidate("file-1.png");
+    verify(fileContentCache).invalidate("file-2.png");
+  }
+
+  @Test
+  void deleteUnreferencedFilesWaitsForUploadsBeforeCheckingContent() throws Exception {
+    // Arrange
+    when(fileRepository.findUnreferencedAfter(eq(0L), any(), eq(Limit.of(2))))
+        .thenReturn(List.of(buildFile(1L, UNIQUE_DIGEST, 20)));
+    when(fileRepository.deleteUnreferenced(List.of(1L))).thenReturn(1);
+    when(fileRepository.existsByDigest(UNIQUE_DIGEST)).thenReturn(true);
+    FutureTask<FileCleanupResponse> cleanup =
+        new FutureTask<>(() -> fileCleanupService.deleteUnreferencedFiles(false));
+    Lock upload = storageLock.shared();
+    upload.lock();
+
+    // Act
+    try {
+      new Thread(cleanup).start();
+      assertThrows(TimeoutException.class, () -> cleanup.get(200, TimeUnit.MILLISECONDS));
+      verify(fileRepository, never()).existsByDigest(any());
+    } finally {
+      upload.unlock();
+    }
+    FileCleanupResponse actual = cleanup.get(5, TimeUnit.SECONDS);
+
+    // Assert
+    assertEquals(0, actual.getReclaimedBytes());
+    verify(fileRepository).existsByDigest(UNIQUE_DIGEST);
+    verifyNoInteractions(fileStorage);
+  }
+
+  @Test
+  void deleteUnreferencedFilesWhileRunningThrowsCleanupAlreadyRunningException() {
+    // Arrange
+    FutureTask<FileCleanupResponse> concurrentRun =
+        new FutureTask<>(() -> fileCleanupService.deleteUnreferencedFiles(true));
+    when(fileRepository.findUnreferencedAfter(eq(0L), any(), eq(Limit.of(2))))
+        .thenAnswer(
+            invocation -> {
+              new Thread(concurrentRun).start();
+              assertThrows(Exception.class, () -> concurrentRun.get(5, TimeUnit.SECONDS));
+              return List.of();
+            });
+
+    // Act
+    fileCleanupService.deleteUnreferencedFiles(true);
+
+    // Assert
+    Exception failure = assertThrows(Exception.class, concurrentRun::get);
+    assertInstanceOf(CleanupAlreadyRunningException.class, failure.getCause());
+  }
+
+  @Test
+  void deleteUnreferencedFilesOnScheduleWhenDisabledDoesNothing() {
+    // Arrange
+    fileCleanupService =
+        new FileCleanupServiceImpl(
+            fileRepository, fileStorage, fileContentCache, storageLock, false, false, 24, 2, 0);
+
+    // Act
+    fileCleanupService.deleteUnreferencedFilesOnSchedule();
+
+    // Assert
+    verify(fileRepository, never()).findUnreferencedAfter(anyLong(), any(), any());
+  }
+
+  private static File buildFile(long id, String digest, long size) {
+    return File.builder()
+        .id(id)
+        .name("file-" + id + ".png")
+        .url("http://localhost:8080/api/images/file-" + id + ".png")
+        .contentType("image/png")
+        .digest(digest)
+        .size(size)
+        .build();
+  }
+}
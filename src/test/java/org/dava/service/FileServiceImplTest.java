@@ -3,6 +3,9 @@ package org.dava.service;
 import static org.dava.mock.FileMockData.*;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -11,75 +14,188 @@ import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import org.dava.cache.FileContentCache;
+import org.dava.cache.FileNameFilter;
 import org.dava.dao.FileRepository;
 import org.dava.domain.File;
 import org.dava.dto.FileDto;
-import org.dava.mapper.FileMapper;
+import org.dava.dto.ImageDerivative;
+import org.dava.dto.ImageInfo;
+import org.dava.exception.ExistentFileException;
 import org.dava.mock.FileMockData;
 import org.dava.response.FileResponse;
 import org.dava.response.FileUploadResponse;
+import org.dava.storage.FileStorage;
+import org.dava.storage.StorageLock;
+import org.dava.util.FileUrlGenerator;
 import org.dava.validator.FileValidator;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
 
 @ExtendWith(MockitoExtension.class)
 class FileServiceImplTest {
   @Mock private FileRepository fileRepository;
 
-  @Mock private FileMapper fileMapper;
-
   @Mock private FileValidator fileValidator;
 
+  @Mock private FileStorage fileStorage;
+
+  @Mock private ImageDerivativeService imageDerivativeService;
+
+  @Mock private FileNameFilter fileNameFilter;
+
+  @Spy private FileUrlGenerator fileUrlGenerator = URL_GENERATOR;
+
+  @Spy private FileContentCache fileContentCache = new FileContentCache(1, 1024);
+
+  @Spy private StorageLock storageLock = new StorageLock();
+
   @InjectMocks private FileServiceImpl fileService;
 
   @Test
   void uploadWithValidFileReturnsFileUploadResponse() throws IOException {
     // Arrange
     File file = buildFile(VALID_FILE);
-    when(fileRepository.save(any(File.class))).thenReturn(file);
-    FileUploadResponse expected = buildFileUploadResponse(file.getUrl());
+    file.setWidth(4);
+    file.setHeight(3);
+    when(fileValidator.checkImageContent(any(), any()))
+        .thenReturn(new ImageInfo(VALID_FILE.getContentType(), 4, 3));
+    when(fileStorage.store(any())).thenReturn(buildStoredContent(VALID_FILE));
+    when(fileRepository.saveAndFlush(any(File.class))).thenReturn(file);
+    FileUploadResponse expected = buildFileUploadResponse(file);
 
     // Act
     FileUploadResponse actual = fileService.upload(VALID_FILE);
 
     // Assert
     Assertions.assertEquals(expected, actual);
-    verify(fileRepository).save(any(File.class));
+    verify(fileStorage).store(any());
+    verify(fileRepository).saveAndFlush(file);
+    verify(imageDerivativeService)
+        .scheduleDerivatives(
+            file.getDigest(), file.getContentType(), file.getWidth(), file.getHeight());
+    verify(fileValidator, never()).checkIfFileExists(any());
+    verify(fileNameFilter).add(file.getName());
+  }
+
+  @Test
+  void uploadWithNameThatMightExistChecksRepositoryBeforeStoring() throws IOException {
+    // Arrange
+    when(fileNameFilter.mightContain(VALID_FILE.getOriginalFilename())).thenReturn(true);
+    doThrow(new ExistentFileException("exists"))
+        .when(fileValidator)
+        .checkIfFileExists(VALID_FILE.getOriginalFilename());
+
+    // Act & Assert
+    Assertions.assertThrows(ExistentFileException.class, () -> fileService.upload(VALID_FILE));
+    verify(fileStorage, never()).store(any());
+    verify(fileRepository, never()).saveAndFlush(any());
+  }
+
+  @Test
+  void uploadWithUniqueConstraintViolationThrowsExistentFileException() throws IOException {
+    // Arrange
+    when(fileValidator.checkImageContent(any(), any()))
+        .thenReturn(new ImageInfo(VALID_FILE.getContentType(), 4, 3));
+    when(fileStorage.store(any())).thenReturn(buildStoredContent(VALID_FILE));
+    when(fileRepository.saveAndFlush(any(File.class)))
+        .thenThrow(new DuplicateKeyException("duplicate name"));
+    when(fileRepository.existsByDigest(sha256(VALID_FILE.getBytes()))).thenReturn(false);
+
+    // Act & Assert
+    Assertions.assertThrows(ExistentFileException.class, () -> fileService.upload(VALID_FILE));
+    verify(fileNameFilter, never()).add(any());
+    verify(imageDerivativeService, never()).scheduleDerivatives(any(), any(), any(), any());
+    verify(fileStorage).delete(sha256(VALID_FILE.getBytes()));
+  }
+
+  @Test
+  void uploadWithFailedInsertKeepsContentReferencedByAnotherFile() throws IOException {
+    // Arrange
+    when(fileValidator.checkImageContent(any(), any()))
+        .thenReturn(new ImageInfo(VALID_FILE.getContentType(), 4, 3));
+    when(fileStorage.store(any())).thenReturn(buildStoredContent(VALID_FILE));
+    when(fileRepository.saveAndFlush(any(File.class)))
+        .thenThrow(new DuplicateKeyException("duplicate name"));
+    when(fileRepository.existsByDigest(sha256(VALID_FILE.getBytes()))).thenReturn(true);
+
+    // Act & Assert
+    Assertions.assertThrows(ExistentFileException.class, () -> fileService.upload(VALID_FILE));
+    verify(fileStorage, never()).delete(any());
   }
 
   @Test
-  void getAllWithEmptyFileListReturnsEmptyFileResponseList() {
+  void uploadWithOtherIntegrityViolationRethrowsIt() throws IOException {
     // Arrange
-    when(fileRepository.findAll()).thenReturn(Collections.emptyList());
+    when(fileValidator.checkImageContent(any(), any()))
+        .thenReturn(new ImageInfo(VALID_FILE.getContentType(), 4, 3));
+    when(fileStorage.store(any())).thenReturn(buildStoredContent(VALID_FILE));
+    when(fileRepository.saveAndFlush(any(File.class)))
+        .thenThrow(new DataIntegrityViolationException("null name"));
+
+    // Act & Assert
+    Assertions.assertThrows(
+        DataIntegrityViolationException.class, () -> fileService.upload(VALID_FILE));
+  }
+
+  @Test
+  void uploadWithContentNotMatchingTypeThrowsIllegalArgumentExceptionBeforeStoring()
+      throws IOException {
+    // Arrange
+    when(fileValidator.checkImageContent(any(), any()))
+        .thenThrow(new IllegalArgumentException("mismatch"));
+
+    // Act & Assert
+    assertThrows(IllegalArgumentException.class, () -> fileService.upload(VALID_FILE));
+    verify(fileStorage, never()).store(any());
+  }
+
+  @Test
+  void getPageWithEmptyFileListReturnsEmptyFileResponseList() {
+    // Arrange
+    when(fileRepository.findPageAfter(0, Limit.of(10))).thenReturn(Collections.emptyList());
 
     // Act
-    List<FileResponse> actual = fileService.getAll();
+    List<FileResponse> actual = fileService.getPage(0, 10);
 
     // Assert
     Assertions.assertEquals(Collections.emptyList(), actual);
-    verify(fileRepository).findAll();
+    verify(fileRepository).findPageAfter(0, Limit.of(10));
   }
 
   @Test
-  void getAllWithFileListReturnsFileResponseList() throws IOException {
+  void getPageWithFileListReturnsFileResponseList() throws IOException {
     // Arrange
     List<File> fileList = List.of(buildFile(VALID_FILE), buildFile(FILE_WITH_INVALID_CONTENT_TYPE));
     List<FileResponse> expected = fileList.stream().map(FileMockData::buildFileResponse).toList();
 
-    when(fileRepository.findAll()).thenReturn(fileList);
-    when(fileMapper.toFileResponseList(any())).thenReturn(expected);
+    when(fileRepository.findPageAfter(5, Limit.of(2))).thenReturn(expected);
 
     // Act
-    List<FileResponse> actual = fileService.getAll();
+    List<FileResponse> actual = fileService.getPage(5, 2);
 
     // Assert
     Assertions.assertEquals(expected, actual);
-    verify(fileRepository).findAll();
-    verify(fileMapper).toFileResponseList(any());
+    verify(fileRepository).findPageAfter(5, Limit.of(2));
+  }
+
+  @Test
+  void getPageWithLimitOutOfBoundsThrowsIllegalArgumentException() {
+    // Act & Assert
+    assertThrows(IllegalArgumentException.class, () -> fileService.getPage(0, 0));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> fileService.getPage(0, FileServiceImpl.MAX_PAGE_SIZE + 1));
   }
 
   @Test
@@ -98,13 +214,125 @@ class FileServiceImplTest {
     // Arrange
     File file = buildFile(VALID_FILE);
     when(fileRepository.findByName(any())).thenReturn(Optional.of(file));
-    FileDto expected = buildFileDto(file);
+    Resource content = new ByteArrayResource(VALID_FILE.getBytes());
+    when(fileStorage.load(file.getDigest())).thenReturn(content);
+    FileDto expected = buildFileDto(file, content);
 
     // Act
     FileDto actual = fileService.getByName(VALID_FILE.getName());
 
     // Assert
-    Assertions.assertEquals(expected, actual);
+    Assertions.assertEquals(expected.getType(), actual.getType());
+    Assertions.assertEquals(expected.getSize(), actual.getSize());
+    Assertions.assertEquals(expected.getDigest(), actual.getDigest());
+    Assertions.assertEquals(expected.getLastModified(), actual.getLastModified());
+    Assertions.assertArrayEquals(
+        VALID_FILE.getBytes(), actual.getContent().getContentAsByteArray());
     verify(fileRepository).findByName(VALID_FILE.getName());
+    verify(fileStorage).load(file.getDigest());
+  }
+
+  @Test
+  void getByDigestWithNoFileFoundThrowsFileNotFoundException() {
+    // Arrange
+    String digest = "a".repeat(64);
+    when(fileRepository.findFirstByDigestOrderByIdAsc(digest)).thenReturn(Optional.empty());
+
+    // Act & Assert
+    assertThrows(FileNotFoundException.class, () -> fileService.getByDigest(digest));
+  }
+
+  @Test
+  void getByDigestWithExistingFileReturnsFileDto() throws IOException {
+    // Arrange
+    File file = buildFile(VALID_FILE);
+    when(fileRepository.findFirstByDigestOrderByIdAsc(file.getDigest()))
+        .thenReturn(Optional.of(file));
+    when(fileStorage.load(file.getDigest()))
+        .thenReturn(new ByteArrayResource(VALID_FILE.getBytes()));
+
+    // Act
+    FileDto actual = fileService.getByDigest(file.getDigest());
+
+    // Assert
+    Assertions.assertEquals(file.getDigest(), actual.getDigest());
+    Assertions.assertArrayEquals(
+        VALID_FILE.getBytes(), actual.getContent().getContentAsByteArray());
+    verify(fileRepository, never()).findByName(any());
+  }
+
+  @Test
+  void getByNameWithWidthAndDerivativeReturnsDerivative() throws IOException {
+    // Arrange
+    File file = buildFile(VALID_FILE);
+    Resource derivative = new ByteArrayResource("small".getBytes());
+    when(fileRepository.findByName(any())).thenReturn(Optional.of(file));
+    when(imageDerivativeService.findDerivative(file.getDigest(), 300))
+        .thenReturn(Optional.of(new ImageDerivative(320, 5, derivative)));
+
+    // Act
+    FileDto actual = fileService.getByName(VALID_FILE.getName(), 300);
+
+    // Assert
+    Assertions.assertEquals(320, actual.getWidth());
+    Assertions.assertEquals(5, actual.getSize());
+    Assertions.assertEquals(file.getContentType(), actual.getType());
+    Assertions.assertSame(derivative, actual.getContent());
+    verify(fileStorage, never()).load(any());
+    Assertions.assertNull(fileContentCache.peek(VALID_FILE.getName()));
+  }
+
+  @Test
+  void getByNameWithWidthAndNoDerivativeReturnsOriginal() throws IOException {
+    // Arrange
+    File file = buildFile(VALID_FILE);
+    when(fileRepository.findByName(any())).thenReturn(Optional.of(file));
+    when(fileStorage.load(file.getDigest()))
+        .thenReturn(new ByteArrayResource(VALID_FILE.getBytes()));
+    when(imageDerivativeService.findDerivative(file.getDigest(), 300)).thenReturn(Optional.empty());
+
+    // Act
+    FileDto actual = fileService.getByName(VALID_FILE.getName(), 300);
+
+    // Assert
+    Assertions.assertNull(actual.getWidth());
+    Assertions.assertEquals(file.getSize(), actual.getSize());
+    verify(fileRepository, times(1)).findByName(any());
+  }
+
+  @Test
+  void getByNameWithCachedFileDoesNotQueryRepository() throws IOException {
+    // Arrange
+    File file = buildFile(VALID_FILE);
+    when(fileRepository.findByName(any())).thenReturn(Optional.of(file));
+    when(fileStorage.load(file.getDigest()))
+        .thenReturn(new ByteArrayResource(VALID_FILE.getBytes()));
+    fileService.getByName(VALID_FILE.getName());
+
+    // Act
+    FileDto actual = fileService.getByName(VALID_FILE.getName());
+
+    // Assert
+    Assertions.assertArrayEquals(
+        VALID_FILE.getBytes(), actual.getContent().getContentAsByteArray());
+    verify(fileRepository, times(1)).findByName(VALID_FILE.getName());
+    verify(fileStorage, times(1)).load(file.getDigest());
+    Assertions.assertEquals(1, fileService.getCacheStats().getHitCount());
+  }
+
+  @Test
+  void uploadInvalidatesCachedFile() throws IOException {
+    // Arrange
+    File file = buildFile(VALID_FILE);
+    when(fileValidator.checkImageContent(any(), any()))
+        .thenReturn(new ImageInfo(VALID_FILE.getContentType(), 4, 3));
+    when(fileStorage.store(any())).thenReturn(buildStoredContent(VALID_FILE));
+    when(fileRepository.saveAndFlush(any(File.class))).thenReturn(file);
+
+    // Act
+    fileService.upload(VALID_FILE);
+
+    // Assert
+    verify(fileContentCache).invalidate(VALID_FILE.getOriginalFilename());
   }
 }
@@ -0,0 +1,115 @@
+package org.dava.service;
+
+import static org.dava.mock.FileMockData.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import org.dava.cache.FileContentCache;
+import org.dava.dao.FileRepository;
+import org.dava.dao.GameRepository;
+import org.dava.domain.File;
+import org.dava.storage.FileStorage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+
+@ExtendWith(MockitoExtension.class)
+class GameAssetServiceImplTest {
+  @Mock private GameRepository gameRepository;
+
+  @Mock private FileRepository fileRepository;
+
+  @Mock private FileStorage fileStorage;
+
+  @Spy private FileContentCache fileContentCache = new FileContentCache(1, 1024);
+
+  @InjectMocks private GameAssetServiceImpl gameAssetService;
+
+  @Test
+  void getAssetsWithExistingGameReturnsFiles() {
+    // Arrange
+    List<File> expected = List.of(File.builder().name("image.webp").build());
+    when(gameRepository.existsById(1L)).thenReturn(true);
+    when(fileRepository.findAllByGameId(1L)).thenReturn(expected);
+
+    // Act
+    List<File> actual = gameAssetService.getAssets(1L);
+
+    // Assert
+    assertEquals(expected, actual);
+  }
+
+  @Test
+  void getAssetsWithUnknownGameThrowsNoSuchElementException() {
+    // Arrange
+    when(gameRepository.existsById(1L)).thenReturn(false);
+
+    // Act & Assert
+    assertThrows(NoSuchElementException.class, () -> gameAssetService.getAssets(1L));
+    verify(fileRepository, never()).findAllByGameId(1L);
+  }
+
+  @Test
+  void writeArchiveWithFilesWritesStoredEntries() throws IOException {
+    // Arrange
+    File file = buildFile(VALID_FILE);
+    when(fileStorage.load(file.getDigest())).thenReturn(new ByteArrayResource(WEBP_CONTENT));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    // Act
+    gameAssetService.writeArchive(List.of(file), out);
+
+    // Assert
+    try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+      ZipEntry entry = zip.getNextEntry();
+      assertNotNull(entry);
+      assertEquals(VALID_FILE.getOriginalFilename(), entry.getName());
+      assertEquals(ZipEntry.STORED, entry.getMethod());
+      assertEquals(crc(WEBP_CONTENT), entry.getCrc());
+      assertArrayEquals(WEBP_CONTENT, zip.readAllBytes());
+      assertNull(zip.getNextEntry());
+    }
+  }
+
+  @Test
+  void writeArchiveWithMissingContentSkipsFile() throws IOException {
+    // Arrange
+    File missing = buildFile(VALID_FILE);
+    missing.setName("missing.webp");
+    missing.setDigest(sha256("missing".getBytes()));
+    File file = buildFile(VALID_FILE);
+    when(fileStorage.load(missing.getDigest())).thenThrow(new FileNotFoundException("missing"));
+    when(fileStorage.load(file.getDigest())).thenReturn(new ByteArrayResource(WEBP_CONTENT));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    // Act
+    gameAssetService.writeArchive(List.of(missing, file), out);
+
+    // Assert
+    try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+      assertEquals(VALID_FILE.getOriginalFilename(), zip.getNextEntry().getName());
+      assertNull(zip.getNextEntry());
+    }
+  }
+
+  private static long crc(byte[] content) {
+    CRC32 crc = new CRC32();
+    crc.update(content);
+    return crc.getValue();
+  }
+}
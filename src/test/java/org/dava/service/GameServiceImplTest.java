@@ -6,7 +6,16 @@ import static org.mockito.Mockito.*;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Lock;
+import org.dava.cache.GameListingCache;
+import org.dava.dao.FileRepository;
 import org.dava.dao.GameRepository;
 import org.dava.domain.Game;
 import org.dava.domain.Question;
@@ -20,6 +29,7 @@ import org.dava.mapper.QuestionMapper;
 import org.dava.mock.GameMockData;
 import org.dava.mock.GameRequestMockData;
 import org.dava.response.GameResponse;
+import org.dava.storage.StorageLock;
 import org.dava.util.GameValidator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -28,6 +38,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,10 +46,18 @@ class GameServiceImplTest {
 
   @Mock private GameRepository gameRepository;
 
+  @Mock private FileRepository fileRepository;
+
   @Mock private GameMapper gameMapper;
 
   @Mock private QuestionMapper questionMapper;
 
+  @Mock private GameSnapshotService gameSnapshotService;
+
+  @Spy private GameListingCache gameListingCache = new GameListingCache(0, 10);
+
+  @Spy private StorageLock storageLock = new StorageLock();
+
   @InjectMocks private GameServiceImpl gameService;
 
   private GameRequest validRequest;
@@ -60,6 +79,7 @@ class GameServiceImplTest {
 
   @Test
   void createGameWithValidRequestBuildsGameQuestionsSavesAndMaps() {
+    stubAllImagesExist();
 
     when(gameMapper.toEntity(validRequest, userId))
         .thenAnswer(
@@ -125,6 +145,8 @@ class GameServiceImplTest {
     ArgumentCaptor<Game> gameCaptor = ArgumentCaptor.forClass(Game.class);
     verify(gameRepository, times(1)).save(gameCaptor.capture());
 
+    verify(gameListingCache).invalidate(any(Game[].class));
+
     Game persisted = gameCaptor.getValue();
     assertNotNull(persisted, "Persisted game should not be null");
     assertEquals(
@@ -195,8 +217,33 @@ class GameServiceImplTest {
     }
   }
 
+  @Test
+  void createGameWithMissingImagesThrowsInvalidGameExceptionListingThemAndDoesNotSave() {
+    Game mappedGame = new Game();
+    mappedGame.setQuestions(new ArrayList<>());
+
+    when(gameMapper.toEntity(validRequest, userId)).thenReturn(mappedGame);
+    when(questionMapper.toEntity(any(QuestionRequest.class))).thenReturn(new Question());
+    when(fileRepository.findExistingUrls(any())).thenReturn(Set.of());
+
+    InvalidGameException e =
+        assertThrows(
+            InvalidGameException.class,
+            () -> gameService.createGame(validRequest, userId),
+            "Service should reject games referencing images that were not uploaded");
+
+    for (QuestionRequest question : validRequest.getQuestions()) {
+      assertTrue(
+          e.getMessage().contains(question.getImageUrl()),
+          "Exception message must list every missing image");
+    }
+    verify(fileRepository, times(1)).findExistingUrls(any());
+    verify(gameRepository, never()).save(any(Game.class));
+  }
+
   @Test
   void createGameWhenGameRepositoryThrowsException() {
+    stubAllImagesExist();
 
     Game mappedGame = new Game();
     mappedGame.setQuestions(new ArrayList<>());
@@ -213,6 +260,35 @@ class GameServiceImplTest {
             "Service should not swallow repository RuntimeException");
 
     assertEquals("DB failure", e.getMessage(), "Exception message must match repository exception");
+    assertTrue(storageLock.exclusive().tryLock(), "Storage lock must be released after a failure");
+  }
+
+  @Test
+  void createGameWaitsForFileCleanupBeforeCheckingImages() throws Exception {
+    stubAllImagesExist();
+
+    Game mappedGame = new Game();
+    mappedGame.setQuestions(new ArrayList<>());
+
+    when(gameMapper.toEntity(validRequest, userId)).thenReturn(mappedGame);
+    when(questionMapper.toEntity(any(QuestionRequest.class))).thenReturn(new Question());
+    when(gameRepository.save(any(Game.class))).thenReturn(mappedGame);
+
+    FutureTask<GameResponse> creation =
+        new FutureTask<>(() -> gameService.createGame(validRequest, userId));
+    Lock cleanup = storageLock.exclusive();
+    cleanup.lock();
+    try {
+      new Thread(creation).start();
+      assertThrows(TimeoutException.class, () -> creation.get(200, TimeUnit.MILLISECONDS));
+      verify(fileRepository, never()).findExistingUrls(any());
+    } finally {
+      cleanup.unlock();
+    }
+    creation.get(5, TimeUnit.SECONDS);
+
+    verify(fileRepository, times(1)).findExistingUrls(any());
+    verify(gameRepository, times(1)).save(mappedGame);
   }
 
   @Test
@@ -354,4 +430,9 @@ class GameServiceImplTest {
     assertEquals("My white description", result.getDescription());
     assertEquals(GameStatus.PUBLISHED, result.getStatus());
   }
+
+  private void stubAllImagesExist() {
+    when(fileRepository.findExistingUrls(any()))
+        .thenAnswer(invocation -> new HashSet<>(invocation.<Collection<String>>getArgument(0)));
+  }
 }
@@ -5,17 +5,26 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
 import lombok.NonNull;
+import org.dava.cache.GameCountCache;
+import org.dava.cache.GameListingCache;
 import org.dava.dao.GameRepository;
 import org.dava.domain.Game;
 import org.dava.dto.GameUpdateRequest;
+import org.dava.enumeration.CountMode;
 import org.dava.enumeration.GameStatus;
 import org.dava.exception.InvalidGameException;
 import org.dava.mapper.GameMapper;
 import org.dava.mock.GameMockData;
 import org.dava.mock.PageMockData;
+import org.dava.response.CursorPageResponse;
 import org.dava.response.GameResponse;
 import org.dava.response.PageResponse;
+import org.dava.search.GameTitleIndex;
+import org.dava.storage.StorageLock;
 import org.dava.util.GameValidator;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -23,11 +32,16 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,6 +53,14 @@ class GameServiceTest {
 
   @Mock private GameValidator gameValidator;
 
+  @Mock private GameTitleIndex gameTitleIndex;
+
+  @Mock private GameSnapshotService gameSnapshotService;
+
+  @Spy private GameListingCache gameListingCache = new GameListingCache(0, 10);
+
+  @Spy private StorageLock storageLock = new StorageLock();
+
   @InjectMocks private GameServiceImpl gameService;
 
   private final int pageNumber = 1;
@@ -114,6 +136,45 @@ class GameServiceTest {
     verify(gameMapper, atMostOnce()).toResponsePage(gamePage, filters.keySet());
   }
 
+  @Test
+  void getAllWithConcurrentIdenticalRequestsRunsOneQuery() throws Exception {
+    // Arrange
+    Page<@NonNull Game> gamePage = new PageImpl<>(gameList, pageable, gameList.size());
+    CountDownLatch querying = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    when(gameRepository.findAll(any(Specification.class), any(Pageable.class)))
+        .thenAnswer(
+            invocation -> {
+              querying.countDown();
+              assertTrue(release.await(5, TimeUnit.SECONDS));
+              return gamePage;
+            });
+    PageResponse<GameResponse> expectedResponse =
+        PageMockData.getPageResponse(new PageImpl<>(gameResponseList), filters.keySet());
+    when(gameMapper.toResponsePage(gamePage, filters.keySet())).thenReturn(expectedResponse);
+
+    FutureTask<PageResponse<GameResponse>> first =
+        new FutureTask<>(() -> gameService.getAll(pageNumber, pageSize, filters));
+    FutureTask<PageResponse<GameResponse>> second =
+        new FutureTask<>(() -> gameService.getAll(pageNumber, pageSize, new HashMap<>(filters)));
+    new Thread(first).start();
+    assertTrue(querying.await(5, TimeUnit.SECONDS));
+    Thread secondThread = new Thread(second);
+
+    // Act
+    secondThread.start();
+    while (secondThread.getState() != Thread.State.WAITING) {
+      Thread.sleep(5);
+    }
+    release.countDown();
+
+    // Assert
+    assertSame(expectedResponse, first.get(5, TimeUnit.SECONDS));
+    assertSame(expectedResponse, second.get(5, TimeUnit.SECONDS));
+    verify(gameRepository, times(1)).findAll(any(Specification.class), any(Pageable.class));
+  }
+
   @Test
   void getAllWithPageNumberZeroAndEmptyGameListReturnsEmptyPage() {
     // Arrange
@@ -133,6 +194,190 @@ class GameServiceTest {
         expectedResponse, result, "The result must be a PageResponse containing an empty list");
   }
 
+  @Test
+  void getAllWithIndexedTitleFilterSearchesGamesById() {
+    // Arrange
+    Page<@NonNull Game> gamePage = new PageImpl<>(gameList, pageable, gameList.size());
+    when(gameTitleIndex.findIds("Speed")).thenReturn(Optional.of(Set.of(1L, 2L, 3L)));
+    when(gameRepository.findAll(any(Specification.class), any(Pageable.class)))
+        .thenReturn(gamePage);
+
+    // Act
+    gameService.getAll(pageNumber, pageSize, filters);
+
+    // Assert
+    verify(gameTitleIndex).findIds("Speed");
+    verify(gameRepository).findAll(any(Specification.class), eq(pageable));
+  }
+
+  @Test
+  void getAllWithSortOrdersByFieldThenId() {
+    // Arrange
+    Map<String, Object> sortedFilters = Map.of("sort", "updatedAt,desc", "createdBy", "7");
+    when(gameRepository.findAll(any(Specification.class), any(Pageable.class)))
+        .thenReturn(new PageImpl<>(List.of()));
+
+    // Act
+    gameService.getAll(0, pageSize, sortedFilters);
+
+    // Assert
+    verify(gameRepository)
+        .findAll(
+            any(Specification.class),
+            eq(
+                PageRequest.of(
+                    0, pageSize, Sort.by(Sort.Direction.DESC, "updatedAt").and(Sort.by("id")))));
+  }
+
+  @Test
+  void getAllWithInvalidSortThrowsIllegalArgumentException() {
+    Assertions.assertAll(
+        "Check Invalid Sort Assertions",
+        () ->
+            assertThrows(
+                IllegalArgumentException.class,
+                () -> gameService.getAll(0, pageSize, Map.of("sort", "password"))),
+        () ->
+            assertThrows(
+                IllegalArgumentException.class,
+                () -> gameService.getAll(0, pageSize, Map.of("sort", "title,sideways"))),
+        () ->
+            assertThrows(
+                IllegalArgumentException.class,
+                () -> gameService.getAllAfter(null, pageSize, Map.of("sort", "title"))));
+  }
+
+  @Test
+  void getAllWithoutCountReturnsSliceAndRunsNoCountQuery() {
+    // Arrange
+    Slice<@NonNull Game> gameSlice = new SliceImpl<>(gameList, pageable, true);
+    when(gameRepository.findSlice(any(Specification.class), eq(pageable))).thenReturn(gameSlice);
+
+    PageResponse<GameResponse> expectedResponse =
+        PageResponse.<GameResponse>builder()
+            .content(gameResponseList)
+            .page(pageNumber)
+            .size(pageSize)
+            .filteredBy(filters.keySet())
+            .build();
+    when(gameMapper.toResponseSlice(gameSlice, filters.keySet())).thenReturn(expectedResponse);
+
+    // Act
+    PageResponse<GameResponse> result =
+        gameService.getAll(pageNumber, pageSize, CountMode.NONE, filters);
+
+    // Assert
+    assertEquals(expectedResponse, result);
+    assertNull(result.getTotalElements());
+    verify(gameRepository, never()).count(any(Specification.class));
+    verify(gameRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+  }
+
+  @Test
+  void getAllWithoutCountAndEmptySliceAfterFirstPageThrowsNoSuchElementException() {
+    // Arrange
+    when(gameRepository.findSlice(any(Specification.class), any(Pageable.class)))
+        .thenReturn(new SliceImpl<>(List.of()));
+
+    // Act & Assert
+    assertThrows(
+        NoSuchElementException.class,
+        () -> gameService.getAll(10, pageSize, CountMode.NONE, new HashMap<>()));
+  }
+
+  @Test
+  void getAllWithApproximateCountAddsCachedTotals() {
+    // Arrange
+    GameCountCache gameCountCache = new GameCountCache(60, 10);
+    GameServiceImpl service =
+        new GameServiceImpl(
+            gameRepository,
+            null,
+            null,
+            gameCountCache,
+            gameTitleIndex,
+            gameListingCache,
+            gameSnapshotService,
+            gameMapper,
+            null);
+
+    Slice<@NonNull Game> gameSlice = new SliceImpl<>(gameList, pageable, true);
+    when(gameRepository.findSlice(any(Specification.class), eq(pageable))).thenReturn(gameSlice);
+    when(gameRepository.count(any(Specification.class))).thenReturn(25L);
+    when(gameMapper.toResponseSlice(gameSlice, filters.keySet()))
+        .thenAnswer(invocation -> PageResponse.<GameResponse>builder().size(pageSize).build());
+
+    // Act
+    service.getAll(pageNumber, pageSize, CountMode.APPROXIMATE, filters);
+    PageResponse<GameResponse> result =
+        service.getAll(pageNumber, pageSize, CountMode.APPROXIMATE, filters);
+
+    // Assert
+    assertEquals(25L, result.getTotalElements());
+    assertEquals(3, result.getTotalPages());
+    verify(gameRepository, times(1)).count(any(Specification.class));
+  }
+
+  @Test
+  void getAllAfterWithMoreGamesThanSizeReturnsPageAndNextCursor() {
+    // Arrange
+    when(gameRepository.findAllOrderedById(any(Specification.class), eq(Limit.of(3))))
+        .thenReturn(gameList);
+    when(gameMapper.toGameSummaryList(gameList.subList(0, 2)))
+        .thenReturn(gameResponseList.subList(0, 2));
+
+    // Act
+    CursorPageResponse<GameResponse> result = gameService.getAllAfter(null, 2, filters);
+
+    // Assert
+    assertEquals(gameResponseList.subList(0, 2), result.getContent());
+    assertEquals(2, result.getSize());
+    assertFalse(result.isLastPage());
+    assertEquals(
+        Base64.getUrlEncoder().withoutPadding().encodeToString("2".getBytes()),
+        result.getNextCursor());
+    verify(gameRepository, never()).count(any(Specification.class));
+  }
+
+  @Test
+  void getAllAfterWithLastGamesReturnsLastPageWithoutCursor() {
+    // Arrange
+    String cursor = Base64.getUrlEncoder().withoutPadding().encodeToString("7".getBytes());
+    when(gameRepository.findAllOrderedById(any(Specification.class), eq(Limit.of(11))))
+        .thenReturn(gameList);
+    when(gameMapper.toGameSummaryList(gameList)).thenReturn(gameResponseList);
+
+    // Act
+    CursorPageResponse<GameResponse> result =
+        gameService.getAllAfter(cursor, pageSize, new HashMap<>());
+
+    // Assert
+    assertEquals(gameResponseList, result.getContent());
+    assertTrue(result.isLastPage());
+    assertNull(result.getNextCursor());
+  }
+
+  @Test
+  void getAllAfterWithInvalidCursorOrSizeThrowsIllegalArgumentException() {
+    Map<String, Object> emptyFilters = new HashMap<>();
+
+    Assertions.assertAll(
+        "Check Invalid Cursor Pagination Assertions",
+        () ->
+            assertThrows(
+                IllegalArgumentException.class,
+                () -> gameService.getAllAfter("not a cursor", pageSize, emptyFilters)),
+        () ->
+            assertThrows(
+                IllegalArgumentException.class,
+                () -> gameService.getAllAfter("YWJj", pageSize, emptyFilters)),
+        () ->
+            assertThrows(
+                IllegalArgumentException.class,
+                () -> gameService.getAllAfter(null, 0, emptyFilters)));
+    verifyNoInteractions(gameRepository);
+  }
+
   @Test
   void updateGameMetadata_withValidTitleAndDescription_updatesFields() {
     Long gameId = 1L;
@@ -184,6 +429,27 @@ class GameServiceTest {
     GameResponse result = gameService.updateGameMetadata(gameId, hostId, request);
 
     assertEquals(GameStatus.PUBLISHED, result.getStatus());
+    verify(gameSnapshotService).createSnapshot(gameId);
+  }
+
+  @Test
+  void updateGameMetadata_recreatesSnapshot_whenPublishedDescriptionChanges() {
+    Long gameId = 1L;
+    Long hostId = 200L;
+
+    Game game =
+        GameMockData.createGame(
+            gameId, hostId, "Original title", "Original desc", GameStatus.PUBLISHED);
+
+    GameUpdateRequest request = new GameUpdateRequest();
+    request.setDescription("New desc");
+
+    when(gameRepository.findByIdAndCreatedBy(gameId, hostId)).thenReturn(Optional.of(game));
+    when(gameRepository.save(any(Game.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+    gameService.updateGameMetadata(gameId, hostId, request);
+
+    verify(gameSnapshotService).createSnapshot(gameId);
   }
 
   @Test
@@ -271,5 +537,6 @@ class GameServiceTest {
     assertEquals("My fav title", result.getTitle());
     assertEquals("My white description", result.getDescription());
     assertEquals(GameStatus.PUBLISHED, result.getStatus());
+    verify(gameSnapshotService, never()).createSnapshot(any());
   }
 }
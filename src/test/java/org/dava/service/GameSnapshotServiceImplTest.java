@@ -0,0 +1,123 @@
+package org.dava.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import org.dava.dao.GameRepository;
+import org.dava.dao.GameSnapshotRepository;
+import org.dava.domain.Game;
+import org.dava.domain.GameSnapshot;
+import org.dava.enumeration.GameStatus;
+import org.dava.mapper.GameMapper;
+import org.dava.response.GameResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tools.jackson.databind.ObjectMapper;
+
+@ExtendWith(MockitoExtension.class)
+class GameSnapshotServiceImplTest {
+  @Mock private GameSnapshotRepository gameSnapshotRepository;
+
+  @Mock private GameRepository gameRepository;
+
+  @Mock private GameMapper gameMapper;
+
+  private GameSnapshotServiceImpl gameSnapshotService;
+
+  @BeforeEach
+  void setUp() {
+    gameSnapshotService =
+        new GameSnapshotServiceImpl(
+            gameSnapshotRepository, gameRepository, gameMapper, new ObjectMapper(), 256);
+  }
+
+  @Test
+  void createSnapshotWithPublishedGameStoresJsonDigestAndGzipVariant() throws IOException {
+    // Arrange
+    Game game = Game.builder().id(1L).status(GameStatus.PUBLISHED).build();
+    GameResponse response =
+        GameResponse.builder().id(1L).title("Quiz").description("a".repeat(200)).build();
+    when(gameRepository.findById(1L)).thenReturn(Optional.of(game));
+    when(gameMapper.toGameResponse(game)).thenReturn(response);
+
+    // Act
+    GameSnapshot snapshot = gameSnapshotService.createSnapshot(1L);
+
+    // Assert
+    String json = new String(snapshot.getContent());
+    assertTrue(json.contains("\"title\":\"Quiz\""));
+    assertEquals(64, snapshot.getDigest().length());
+    assertNotNull(snapshot.getGzipContent());
+    try (GZIPInputStream in =
+        new GZIPInputStream(new ByteArrayInputStream(snapshot.getGzipContent()))) {
+      assertArrayEquals(snapshot.getContent(), in.readAllBytes());
+    }
+  }
+
+  @Test
+  void createSnapshotWithSmallGameStoresNoGzipVariant() {
+    // Arrange
+    Game game = Game.builder().id(1L).status(GameStatus.PUBLISHED).build();
+    when(gameRepository.findById(1L)).thenReturn(Optional.of(game));
+    when(gameMapper.toGameResponse(game)).thenReturn(GameResponse.builder().id(1L).build());
+
+    // Act
+    GameSnapshot snapshot = gameSnapshotService.createSnapshot(1L);
+
+    // Assert
+    assertNull(snapshot.getGzipContent());
+  }
+
+  @Test
+  void getSnapshotWithoutStoredSnapshotBuildsAndUpsertsIt() {
+    // Arrange
+    Game game = Game.builder().id(1L).status(GameStatus.PUBLISHED).build();
+    when(gameSnapshotRepository.findById(1L)).thenReturn(Optional.empty());
+    when(gameRepository.findById(1L)).thenReturn(Optional.of(game));
+    when(gameMapper.toGameResponse(game))
+        .thenReturn(GameResponse.builder().id(1L).title("Quiz").build());
+
+    // Act
+    GameSnapshot snapshot = gameSnapshotService.getSnapshot(1L);
+
+    // Assert
+    assertEquals(1L, snapshot.getGameId());
+    assertTrue(new String(snapshot.getContent()).contains("\"title\":\"Quiz\""));
+    verify(gameSnapshotRepository).upsert(snapshot);
+    verify(gameSnapshotRepository, never()).save(any());
+  }
+
+  @Test
+  void createSnapshotWithDraftGameThrowsNoSuchElementException() {
+    // Arrange
+    Game game = Game.builder().id(1L).status(GameStatus.DRAFT).build();
+    when(gameRepository.findById(1L)).thenReturn(Optional.of(game));
+
+    // Act & Assert
+    assertThrows(NoSuchElementException.class, () -> gameSnapshotService.createSnapshot(1L));
+    verify(gameSnapshotRepository, never()).upsert(any());
+  }
+
+  @Test
+  void getSnapshotWithStoredSnapshotDoesNotLoadGame() {
+    // Arrange
+    GameSnapshot stored = GameSnapshot.builder().gameId(1L).build();
+    when(gameSnapshotRepository.findById(1L)).thenReturn(Optional.of(stored));
+
+    // Act
+    GameSnapshot snapshot = gameSnapshotService.getSnapshot(1L);
+
+    // Assert
+    assertSame(stored, snapshot);
+    verifyNoInteractions(gameRepository, gameMapper);
+  }
+}
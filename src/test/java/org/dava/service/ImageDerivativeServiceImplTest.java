@@ -0,0 +1,120 @@
+package org.dava.service;
+
+import static org.dava.mock.FileMockData.buildImage;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+import javax.imageio.ImageIO;
+import org.dava.dto.ImageDerivative;
+import org.dava.storage.LocalFileStorage;
+import org.dava.storage.StoredContent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ImageDerivativeServiceImplTest {
+  @TempDir Path root;
+
+  private LocalFileStorage fileStorage;
+
+  private ImageDerivativeServiceImpl imageDerivativeService;
+
+  @BeforeEach
+  void setUp() {
+    fileStorage = new LocalFileStorage(root.toString());
+    imageDerivativeService =
+        new ImageDerivativeServiceImpl(fileStorage, new int[] {320, 640, 1280}, 1, 10, 1_000_000);
+  }
+
+  @AfterEach
+  void tearDown() {
+    imageDerivativeService.shutdown();
+  }
+
+  @Test
+  void generateWithWideImageStoresNarrowerDerivatives() throws IOException {
+    // Arrange
+    StoredContent stored = storeImage(1000, 500);
+
+    // Act
+    imageDerivativeService.generate(stored.getDigest(), "image/png");
+
+    // Assert
+    assertEquals(320, readDerivative(stored, "w320").getWidth());
+    assertEquals(320, readDerivative(stored, "w640").getHeight());
+    assertThrows(IOException.class, () -> fileStorage.loadDerivative(stored.getDigest(), "w1280"));
+  }
+
+  @Test
+  void findDerivativeWithRequestedWidthReturnsSmallestWiderDerivative() throws IOException {
+    // Arrange
+    StoredContent stored = storeImage(1000, 500);
+    imageDerivativeService.generate(stored.getDigest(), "image/png");
+
+    // Act
+    Optional<ImageDerivative> actual =
+        imageDerivativeService.findDerivative(stored.getDigest(), 400);
+
+    // Assert
+    assertTrue(actual.isPresent());
+    assertEquals(640, actual.get().getWidth());
+    assertEquals(actual.get().getContent().contentLength(), actual.get().getSize());
+  }
+
+  @Test
+  void findDerivativeWithWidthAboveDerivativesReturnsEmpty() throws IOException {
+    // Arrange
+    StoredContent stored = storeImage(1000, 500);
+    imageDerivativeService.generate(stored.getDigest(), "image/png");
+
+    // Act & Assert
+    assertTrue(imageDerivativeService.findDerivative(stored.getDigest(), 900).isEmpty());
+    assertTrue(imageDerivativeService.findDerivative(stored.getDigest(), 2000).isEmpty());
+  }
+
+  @Test
+  void isDecodableWithUnknownOrTooLargeDimensionsReturnsFalse() {
+    // Act & Assert
+    assertTrue(imageDerivativeService.isDecodable(1000, 1000));
+    assertFalse(imageDerivativeService.isDecodable(1001, 1000));
+    assertFalse(imageDerivativeService.isDecodable(65_535, 65_535));
+    assertFalse(imageDerivativeService.isDecodable(null, 500));
+    assertFalse(imageDerivativeService.isDecodable(1000, null));
+  }
+
+  @Test
+  void findDerivativeWithInvalidWidthThrowsIllegalArgumentException() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> imageDerivativeService.findDerivative("a".repeat(64), 0));
+  }
+
+  @Test
+  void generateWithUnreadableContentStoresNothing() throws IOException {
+    // Arrange
+    StoredContent stored = fileStorage.store(new ByteArrayInputStream("image".getBytes()));
+
+    // Act
+    imageDerivativeService.generate(stored.getDigest(), "image/png");
+
+    // Assert
+    assertTrue(imageDerivativeService.findDerivative(stored.getDigest(), 1).isEmpty());
+  }
+
+  private StoredContent storeImage(int width, int height) throws IOException {
+    return fileStorage.store(new ByteArrayInputStream(buildImage(width, height, "png")));
+  }
+
+  private BufferedImage readDerivative(StoredContent stored, String variant) throws IOException {
+    try (InputStream content =
+        fileStorage.loadDerivative(stored.getDigest(), variant).getInputStream()) {
+      return ImageIO.read(content);
+    }
+  }
+}
@@ -0,0 +1,120 @@
+package org.dava.storage;
+
+import static org.dava.mock.FileMockData.sha256;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+
+class LocalFileStorageTest {
+  private static final byte[] CONTENT = "image".getBytes();
+  private static final byte[] DERIVATIVE = "small".getBytes();
+
+  @TempDir Path root;
+
+  private LocalFileStorage fileStorage;
+
+  @BeforeEach
+  void setUp() {
+    fileStorage = new LocalFileStorage(root.toString());
+  }
+
+  @Test
+  void storeWithContentReturnsDigestAndSize() throws IOException {
+    // Act
+    StoredContent actual = fileStorage.store(new ByteArrayInputStream(CONTENT));
+
+    // Assert
+    assertEquals(new StoredContent(sha256(CONTENT), CONTENT.length), actual);
+    assertTrue(fileStorage.exists(actual.getDigest()));
+  }
+
+  @Test
+  void storeWithSameContentTwiceKeepsSingleCopy() throws IOException {
+    // Act
+    StoredContent first = fileStorage.store(new ByteArrayInputStream(CONTENT));
+    StoredContent second = fileStorage.store(new ByteArrayInputStream(CONTENT));
+
+    // Assert
+    assertEquals(first, second);
+    try (Stream<Path> files = Files.walk(root)) {
+      assertEquals(1, files.filter(Files::isRegularFile).count());
+    }
+  }
+
+  @Test
+  void loadWithStoredDigestReturnsContent() throws IOException {
+    // Arrange
+    StoredContent stored = fileStorage.store(new ByteArrayInputStream(CONTENT));
+
+    // Act
+    Resource resource = fileStorage.load(stored.getDigest());
+
+    // Assert
+    assertArrayEquals(CONTENT, resource.getContentAsByteArray());
+  }
+
+  @Test
+  void loadWithUnknownDigestThrowsFileNotFoundException() {
+    assertThrows(FileNotFoundException.class, () -> fileStorage.load(sha256(CONTENT)));
+  }
+
+  @Test
+  void loadWithInvalidDigestThrowsIllegalArgumentException() {
+    assertThrows(IllegalArgumentException.class, () -> fileStorage.load("../../etc/passwd"));
+  }
+
+  @Test
+  void deleteWithStoredDigestRemovesContent() throws IOException {
+    // Arrange
+    StoredContent stored = fileStorage.store(new ByteArrayInputStream(CONTENT));
+
+    // Act
+    fileStorage.delete(stored.getDigest());
+
+    // Assert
+    assertFalse(fileStorage.exists(stored.getDigest()));
+  }
+
+  @Test
+  void loadDerivativeWithStoredVariantReturnsContent() throws IOException {
+    // Arrange
+    StoredContent stored = fileStorage.store(new ByteArrayInputStream(CONTENT));
+    fileStorage.storeDerivative(stored.getDigest(), "w320", new ByteArrayInputStream(DERIVATIVE));
+
+    // Act
+    Resource resource = fileStorage.loadDerivative(stored.getDigest(), "w320");
+
+    // Assert
+    assertArrayEquals(DERIVATIVE, resource.getContentAsByteArray());
+    assertArrayEquals(CONTENT, fileStorage.load(stored.getDigest()).getContentAsByteArray());
+  }
+
+  @Test
+  void loadDerivativeWithInvalidVariantThrowsIllegalArgumentException() {
+    assertThrows(
+        IllegalArgumentException.class, () -> fileStorage.loadDerivative(sha256(CONTENT), "../x"));
+  }
+
+  @Test
+  void deleteWithStoredDerivativesRemovesDerivatives() throws IOException {
+    // Arrange
+    StoredContent stored = fileStorage.store(new ByteArrayInputStream(CONTENT));
+    fileStorage.storeDerivative(stored.getDigest(), "w320", new ByteArrayInputStream(DERIVATIVE));
+
+    // Act
+    fileStorage.delete(stored.getDigest());
+
+    // Assert
+    assertThrows(
+        FileNotFoundException.class, () -> fileStorage.loadDerivative(stored.getDigest(), "w320"));
+  }
+}
@@ -0,0 +1,229 @@
+package org.dava.storage;
+
+import static org.dava.mock.FileMockData.sha256;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+
+class SegmentFileStorageTest {
+  private static final byte[] CONTENT = "image".getBytes();
+  private static final byte[] DERIVATIVE = "small".getBytes();
+  private static final int MAX_ENTRY_SIZE = 1024;
+
+  @TempDir Path root;
+
+  private SegmentFileStorage fileStorage;
+
+  @BeforeEach
+  void setUp() {
+    fileStorage = open();
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    fileStorage.close();
+  }
+
+  @Test
+  void storeWithSmallContentAppendsItToSegment() throws IOException {
+    // Act
+    StoredContent actual = fileStorage.store(new ByteArrayInputStream(CONTENT));
+
+    // Assert
+    assertEquals(new StoredContent(sha256(CONTENT), CONTENT.length), actual);
+    assertTrue(fileStorage.exists(actual.getDigest()));
+    assertEquals(List.of(segment(1)), storedFiles());
+  }
+
+  @Test
+  void storeWithSameContentTwiceAppendsSingleRecord() throws IOException {
+    // Arrange
+    fileStorage.store(new ByteArrayInputStream(CONTENT));
+    long size = Files.size(segment(1));
+
+    // Act
+    fileStorage.store(new ByteArrayInputStream(CONTENT));
+
+    // Assert
+    assertEquals(size, Files.size(segment(1)));
+  }
+
+  @Test
+  void loadWithStoredDigestReturnsContent() throws IOException {
+    // Arrange
+    StoredContent stored = fileStorage.store(new ByteArrayInputStream(CONTENT));
+
+    // Act
+    Resource resource = fileStorage.load(stored.getDigest());
+
+    // Assert
+    assertArrayEquals(CONTENT, resource.getContentAsByteArray());
+    assertEquals(CONTENT.length, resource.contentLength());
+  }
+
+  @Test
+  void loadWithUnknownDigestThrowsFileNotFoundException() {
+    // Act & Assert
+    assertThrows(FileNotFoundException.class, () -> fileStorage.load(sha256(CONTENT)));
+  }
+
+  @Test
+  void storeWithLargeContentStoresItAsIndividualFile() throws IOException {
+    // Arrange
+    byte[] content = new byte[MAX_ENTRY_SIZE + 1];
+
+    // Act
+    StoredContent stored = fileStorage.store(new ByteArrayInputStream(content));
+
+    // Assert
+    assertEquals(new StoredContent(sha256(content), content.length), stored);
+    assertArrayEquals(content, fileStorage.load(stored.getDigest()).getContentAsByteArray());
+    assertTrue(
+        Files.isRegularFile(
+            root.resolve(stored.getDigest().substring(0, 2)).resolve(stored.getDigest())));
+  }
+
+  @Test
+  void openWithExistingSegmentsRebuildsIndex() throws IOException {
+    // Arrange
+    StoredContent stored = fileStorage.store(new ByteArrayInputStream(CONTENT));
+    fileStorage.storeDerivative(stored.getDigest(), "w320", new ByteArrayInputStream(DERIVATIVE));
+    fileStorage.close();
+
+    // Act
+    fileStorage = open();
+
+    // Assert
+    assertArrayEquals(CONTENT, fileStorage.load(stored.getDigest()).getContentAsByteArray());
+    assertArrayEquals(
+        DERIVATIVE, fileStorage.loadDerivative(stored.getDigest(), "w320").getContentAsByteArray());
+  }
+
+  @Test
+  void openWithTornRecordDiscardsIt() throws IOException {
+    // Arrange
+    StoredContent stored = fileStorage.store(new ByteArrayInputStream(CONTENT));
+    fileStorage.close();
+    long size = Files.size(segment(1));
+    Files.write(segment(1), new byte[] {0x44, 0x41, 0x56}, StandardOpenOption.APPEND);
+
+    // Act
+    fileStorage = open();
+    StoredContent other = fileStorage.store(new ByteArrayInputStream(DERIVATIVE));
+
+    // Assert
+    assertTrue(Files.size(segment(1)) > size);
+    assertArrayEquals(CONTENT, fileStorage.load(stored.getDigest()).getContentAsByteArray());
+    assertArrayEquals(DERIVATIVE, fileStorage.load(other.getDigest()).getContentAsByteArray());
+  }
+
+  @Test
+  void storeDerivativeWithExistingVariantReplacesIt() throws IOException {
+    // Arrange
+    String digest = sha256(CONTENT);
+    fileStorage.storeDerivative(digest, "w320", new ByteArrayInputStream(CONTENT));
+
+    // Act
+    fileStorage.storeDerivative(digest, "w320", new ByteArrayInputStream(DERIVATIVE));
+
+    // Assert
+    assertArrayEquals(
+        DERIVATIVE, fileStorage.loadDerivative(digest, "w320").getContentAsByteArray());
+  }
+
+  @Test
+  void deleteWithStoredDigestRemovesContentAndDerivatives() throws IOException {
+    // Arrange
+    StoredContent stored = fileStorage.store(new ByteArrayInputStream(CONTENT));
+    fileStorage.storeDerivative(stored.getDigest(), "w320", new ByteArrayInputStream(DERIVATIVE));
+
+    // Act
+    fileStorage.delete(stored.getDigest());
+    fileStorage.close();
+    fileStorage = open();
+
+    // Assert
+    assertFalse(fileStorage.exists(stored.getDigest()));
+    assertThrows(
+        FileNotFoundException.class, () -> fileStorage.loadDerivative(stored.getDigest(), "w320"));
+  }
+
+  @Test
+  void loadWithContentInSealedAndActiveSegmentsReturnsContent() throws IOException {
+    // Arrange
+    List<byte[]> contents = new ArrayList<>();
+    List<StoredContent> stored = new ArrayList<>();
+    for (int i = 0; Files.notExists(segment(2)); i++) {
+      byte[] content = new byte[MAX_ENTRY_SIZE];
+      content[0] = (byte) i;
+      content[1] = (byte) (i >> 8);
+      contents.add(content);
+      stored.add(fileStorage.store(new ByteArrayInputStream(content)));
+    }
+
+    // Act & Assert
+    for (int i = 0; i < stored.size(); i++) {
+      assertArrayEquals(
+          contents.get(i),
+          fileStorage.load(stored.get(i).getDigest()).getContentAsByteArray(),
+          "Content " + i + " must be read back unchanged");
+    }
+  }
+
+  @Test
+  void compactWithMostlyDeletedSegmentMovesLiveRecordsAndDeletesIt() throws IOException {
+    // Arrange
+    List<StoredContent> stored = new ArrayList<>();
+    for (int i = 0; Files.notExists(segment(2)); i++) {
+      byte[] content = new byte[MAX_ENTRY_SIZE];
+      content[0] = (byte) i;
+      content[1] = (byte) (i >> 8);
+      stored.add(fileStorage.store(new ByteArrayInputStream(content)));
+    }
+    StoredContent kept = stored.get(0);
+    for (StoredContent content : stored.subList(1, stored.size() - 1)) {
+      fileStorage.delete(content.getDigest());
+    }
+
+    // Act
+    int compacted = fileStorage.compact();
+
+    // Assert
+    assertEquals(1, compacted);
+    assertTrue(Files.notExists(segment(1)));
+    assertEquals(kept.getSize(), fileStorage.load(kept.getDigest()).contentLength());
+    assertFalse(fileStorage.exists(stored.get(1).getDigest()));
+
+    fileStorage.close();
+    fileStorage = open();
+    assertTrue(fileStorage.exists(kept.getDigest()));
+    assertFalse(fileStorage.exists(stored.get(1).getDigest()));
+  }
+
+  private SegmentFileStorage open() {
+    return new SegmentFileStorage(root.toString(), 1, MAX_ENTRY_SIZE / 1024, 0.5, 0);
+  }
+
+  private Path segment(int id) {
+    return root.resolve("segments").resolve(String.format("segment-%06d.dat", id));
+  }
+
+  private List<Path> storedFiles() throws IOException {
+    try (Stream<Path> files = Files.walk(root)) {
+      return files.filter(Files::isRegularFile).toList();
+    }
+  }
+}
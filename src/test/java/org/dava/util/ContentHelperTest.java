@@ -0,0 +1,29 @@
+package org.dava.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import org.junit.jupiter.api.Test;
+
+class ContentHelperTest {
+  private static final byte[] CONTENT = "abc".getBytes(StandardCharsets.US_ASCII);
+  private static final String CONTENT_SHA256 =
+      "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad";
+
+  @Test
+  void sha256WithContentReturnsHexEncodedDigest() {
+    assertEquals(CONTENT_SHA256, ContentHelper.sha256(CONTENT));
+  }
+
+  @Test
+  void toHexWithDigestUpdatedInPartsReturnsDigestOfWholeContent() {
+    // Arrange
+    MessageDigest digest = ContentHelper.newSha256();
+    digest.update(CONTENT, 0, 1);
+    digest.update(CONTENT, 1, CONTENT.length - 1);
+
+    // Act & Assert
+    assertEquals(CONTENT_SHA256, ContentHelper.toHex(digest));
+  }
+}
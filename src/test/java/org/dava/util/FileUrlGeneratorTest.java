@@ -5,24 +5,67 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 class FileUrlGeneratorTest {
+  private static final String DIGEST = "a".repeat(64);
+
+  private final FileUrlGenerator fileUrlGenerator =
+      new FileUrlGenerator("http://localhost:8080/api");
 
   @Test
   void generateUrlWithNullPathThrowsInvalidFileException() {
-    Assertions.assertThrows(InvalidFileException.class, () -> FileUrlGenerator.generateUrl(null));
+    Assertions.assertThrows(
+        InvalidFileException.class, () -> fileUrlGenerator.generateUrl(null, DIGEST));
   }
 
   @Test
   void generateUrlWithEmptyPathThrowsInvalidFileException() {
-    Assertions.assertThrows(InvalidFileException.class, () -> FileUrlGenerator.generateUrl(""));
+    Assertions.assertThrows(
+        InvalidFileException.class, () -> fileUrlGenerator.generateUrl("", DIGEST));
+  }
+
+  @Test
+  void generateUrlWithNullDigestThrowsInvalidFileException() {
+    Assertions.assertThrows(
+        InvalidFileException.class, () -> fileUrlGenerator.generateUrl("image.png", null));
+  }
+
+  @Test
+  void generateUrlWithValidPathReturnsVersionedUrl() {
+    // Arrange
+    String expected = "http://localhost:8080/api/images/" + DIGEST + "/image.png";
+
+    // Act
+    String actual = fileUrlGenerator.generateUrl("image.png", DIGEST);
+
+    // Assert
+    Assertions.assertEquals(expected, actual);
+  }
+
+  @Test
+  void generateUrlWithConfiguredBaseUrlUsesIt() {
+    // Arrange
+    FileUrlGenerator cdnUrlGenerator = new FileUrlGenerator("https://cdn.example.com/api/");
+    String expected = "https://cdn.example.com/api/images/" + DIGEST + "/image.png";
+
+    // Act
+    String actual = cdnUrlGenerator.generateUrl("image.png", DIGEST);
+
+    // Assert
+    Assertions.assertEquals(expected, actual);
+  }
+
+  @Test
+  void generateContentUrlWithNullDigestThrowsInvalidFileException() {
+    Assertions.assertThrows(
+        InvalidFileException.class, () -> fileUrlGenerator.generateContentUrl(null));
   }
 
   @Test
-  void generateUrlWithValidPathReturnsUrl() {
+  void generateContentUrlWithValidDigestReturnsUrl() {
     // Arrange
-    String expected = "http://localhost:8080/api/images/image.png";
+    String expected = "http://localhost:8080/api/content/" + DIGEST;
 
     // Act
-    String actual = FileUrlGenerator.generateUrl("image.png");
+    String actual = fileUrlGenerator.generateContentUrl(DIGEST);
 
     // Assert
     Assertions.assertEquals(expected, actual);
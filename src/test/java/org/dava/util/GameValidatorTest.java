@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 import java.util.List;
+import java.util.Set;
 import org.dava.dto.GameRequest;
 import org.dava.dto.QuestionRequest;
 import org.dava.enumeration.GameStatus;
@@ -129,6 +130,19 @@ class GameValidatorTest {
     assertEquals(GameStatus.DRAFT, request.getStatus(), "Status must default to DRAFT when null");
   }
 
+  @Test
+  void processQuestionWhenOptionsTooLongThrowsInvalidGameException() {
+    QuestionRequest q = QuestionRequestMockData.getValidQuestionRequest();
+    q.setOptions(List.of("a".repeat(1000), "b".repeat(1000)));
+
+    InvalidGameException e =
+        assertThrows(
+            InvalidGameException.class,
+            () -> GameValidator.processQuestionFromRequest(q),
+            "Options that do not fit the options column must be rejected");
+    assertExceptionMessageNotNull(e);
+  }
+
   @Test
   void processQuestionWhenTextBlankThrowsInvalidGameException() {
     QuestionRequest q = QuestionRequestMockData.getValidQuestionRequest();
@@ -278,6 +292,25 @@ class GameValidatorTest {
         () -> GameValidator.processQuestionFromRequest(q), "Valid question must not throw");
   }
 
+  @Test
+  void checkImageReferencesWithMissingImagesThrowsInvalidGameExceptionListingAll() {
+    List<String> imageUrls = List.of("a.png", "b.png", "c.png", "b.png");
+
+    InvalidGameException e =
+        assertThrows(
+            InvalidGameException.class,
+            () -> GameValidator.checkImageReferences(imageUrls, Set.of("b.png")),
+            "Missing images must be rejected");
+    assertEquals("Images not found: a.png, c.png", e.getMessage());
+  }
+
+  @Test
+  void checkImageReferencesWithExistingImagesPassesWithoutException() {
+    assertDoesNotThrow(
+        () -> GameValidator.checkImageReferences(List.of("a.png"), Set.of("a.png")),
+        "Existing images must not throw");
+  }
+
   private void assertExceptionMessageNotNull(InvalidGameException e) {
     assertNotNull(e.getMessage(), "Exception message should not be null");
   }
@@ -0,0 +1,71 @@
+package org.dava.util;
+
+import static org.dava.mock.FileMockData.buildImage;
+import static org.dava.mock.FileMockData.buildWebp;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Optional;
+import org.dava.dto.ImageInfo;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ImageHeaderReaderTest {
+
+  @Test
+  void readWithPngReturnsContentTypeAndDimensions() throws IOException {
+    // Act
+    Optional<ImageInfo> actual = read(buildImage(40, 20, "png"));
+
+    // Assert
+    Assertions.assertEquals(Optional.of(new ImageInfo("image/png", 40, 20)), actual);
+  }
+
+  @Test
+  void readWithJpegReturnsContentTypeAndDimensions() throws IOException {
+    // Act
+    Optional<ImageInfo> actual = read(buildImage(33, 17, "jpeg"));
+
+    // Assert
+    Assertions.assertEquals(Optional.of(new ImageInfo("image/jpeg", 33, 17)), actual);
+  }
+
+  @Test
+  void readWithGifReturnsContentTypeAndDimensions() throws IOException {
+    // Act
+    Optional<ImageInfo> actual = read(buildImage(12, 7, "gif"));
+
+    // Assert
+    Assertions.assertEquals(Optional.of(new ImageInfo("image/gif", 12, 7)), actual);
+  }
+
+  @Test
+  void readWithWebpReturnsContentTypeAndDimensions() throws IOException {
+    // Act
+    Optional<ImageInfo> actual = read(buildWebp(640, 480));
+
+    // Assert
+    Assertions.assertEquals(Optional.of(new ImageInfo("image/webp", 640, 480)), actual);
+  }
+
+  @Test
+  void readWithUnknownContentReturnsEmpty() throws IOException {
+    Assertions.assertTrue(read("<html></html>".getBytes()).isEmpty());
+  }
+
+  @Test
+  void readWithTruncatedJpegReturnsContentTypeWithoutDimensions() throws IOException {
+    // Arrange
+    byte[] truncated = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0, 0x00};
+
+    // Act
+    Optional<ImageInfo> actual = read(truncated);
+
+    // Assert
+    Assertions.assertEquals(Optional.of(new ImageInfo("image/jpeg", null, null)), actual);
+  }
+
+  private static Optional<ImageInfo> read(byte[] content) throws IOException {
+    return ImageHeaderReader.read(new ByteArrayInputStream(content));
+  }
+}
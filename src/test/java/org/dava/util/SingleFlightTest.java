@@ -0,0 +1,138 @@
+package org.dava.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+  private SingleFlight<String, String> singleFlight;
+  private List<Thread> threads;
+  private AtomicInteger loads;
+  private CountDownLatch loading;
+  private CountDownLatch release;
+
+  @BeforeEach
+  void setUp() {
+    singleFlight = new SingleFlight<>();
+    threads = new ArrayList<>();
+    loads = new AtomicInteger();
+    loading = new CountDownLatch(1);
+    release = new CountDownLatch(1);
+  }
+
+  @AfterEach
+  void tearDown() {
+    threads.forEach(Thread::interrupt);
+  }
+
+  @Test
+  void executeWithConcurrentCallsForSameKeyLoadsOnce() throws Exception {
+    // Arrange
+    FutureTask<String> first = start(() -> singleFlight.execute("games", this::blockingLoad));
+    assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+    // Act
+    FutureTask<String> second = start(() -> singleFlight.execute("games", this::blockingLoad));
+    FutureTask<String> third = start(() -> singleFlight.execute("games", this::blockingLoad));
+    awaitWaiting();
+    release.countDown();
+
+    // Assert
+    assertEquals("result-1", first.get(5, TimeUnit.SECONDS));
+    assertEquals("result-1", second.get(5, TimeUnit.SECONDS));
+    assertEquals("result-1", third.get(5, TimeUnit.SECONDS));
+    assertEquals(1, loads.get());
+    assertEquals(0, singleFlight.inFlightCount());
+  }
+
+  @Test
+  void executeWithDifferentKeysLoadsEach() {
+    // Act
+    singleFlight.execute("a", () -> "result-" + loads.incrementAndGet());
+    singleFlight.execute("b", () -> "result-" + loads.incrementAndGet());
+    singleFlight.execute("a", () -> "result-" + loads.incrementAndGet());
+
+    // Assert
+    assertEquals(3, loads.get());
+  }
+
+  @Test
+  void executeWithFailingLoaderRethrowsToSharingCallersAndRetriesLater() throws Exception {
+    // Arrange
+    FutureTask<String> first =
+        start(
+            () ->
+                singleFlight.execute(
+                    "games",
+                    () -> {
+                      blockingLoad();
+                      throw new IllegalStateException("database unavailable");
+                    }));
+    assertTrue(loading.await(5, TimeUnit.SECONDS));
+    FutureTask<String> second = start(() -> singleFlight.execute("games", () -> "not called"));
+    awaitWaiting();
+
+    // Act
+    release.countDown();
+
+    // Assert
+    assertInstanceOf(
+        IllegalStateException.class, assertThrows(Exception.class, first::get).getCause());
+    assertInstanceOf(
+        IllegalStateException.class, assertThrows(Exception.class, second::get).getCause());
+    assertEquals("retried", singleFlight.execute("games", () -> "retried"));
+  }
+
+  @Test
+  void forgetAllMakesLaterCallsLoadAgain() throws Exception {
+    // Arrange
+    FutureTask<String> first = start(() -> singleFlight.execute("games", this::blockingLoad));
+    assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+    // Act
+    singleFlight.forgetAll();
+    String later = singleFlight.execute("games", () -> "fresh");
+    release.countDown();
+
+    // Assert
+    assertEquals("fresh", later);
+    assertEquals("result-1", first.get(5, TimeUnit.SECONDS));
+  }
+
+  private FutureTask<String> start(Callable<String> call) {
+    FutureTask<String> task = new FutureTask<>(call);
+    Thread thread = new Thread(task);
+    threads.add(thread);
+    thread.start();
+    return task;
+  }
+
+  /** Waits until every started caller but the loading one is parked on the shared call. */
+  private void awaitWaiting() throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (threads.stream().skip(1).anyMatch(t -> t.getState() != Thread.State.WAITING)) {
+      assertTrue(System.nanoTime() < deadline, "callers did not join the call in flight");
+      Thread.sleep(5);
+    }
+  }
+
+  private String blockingLoad() {
+    int load = loads.incrementAndGet();
+    loading.countDown();
+    try {
+      assertTrue(release.await(5, TimeUnit.SECONDS));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return "result-" + load;
+  }
+}
@@ -1,17 +1,16 @@
 package org.dava.validator;
 
 import static org.dava.mock.FileMockData.VALID_FILE;
-import static org.dava.mock.FileMockData.buildFile;
 import static org.dava.validator.FileValidationMessages.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 import jakarta.validation.ConstraintValidatorContext;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.util.Optional;
 import org.dava.dao.FileRepository;
-import org.dava.domain.File;
+import org.dava.dto.ImageInfo;
 import org.dava.exception.ExistentFileException;
 import org.dava.mock.FileMockData;
 import org.junit.jupiter.api.Test;
@@ -101,11 +100,46 @@ class FileValidatorTest {
     assertTrue(result);
   }
 
+  @Test
+  void isValidWithContentNotMatchingTypeReturnsFalse() {
+    // Arrange
+    setupValidationContextMocks();
+    MockMultipartFile mislabeledFile =
+        new MockMultipartFile("file", "mislabeled.gif", "image/gif", FileMockData.WEBP_CONTENT);
+
+    // Act
+    boolean result = fileValidator.isValid(mislabeledFile, context);
+
+    // Assert
+    assertFalse(result);
+    verify(context)
+        .buildConstraintViolationWithTemplate(
+            CONTENT_TYPE_MISMATCH_MESSAGE.getMessage() + ": image/gif");
+  }
+
+  @Test
+  void checkImageContentWithMatchingContentReturnsDimensions() throws IOException {
+    // Act
+    ImageInfo actual =
+        fileValidator.checkImageContent(VALID_FILE.getInputStream(), VALID_FILE.getContentType());
+
+    // Assert
+    assertEquals(new ImageInfo("image/webp", 4, 3), actual);
+  }
+
+  @Test
+  void checkImageContentWithUnknownContentThrowsIllegalArgumentException() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            fileValidator.checkImageContent(
+                new ByteArrayInputStream("plain text".getBytes()), "image/png"));
+  }
+
   @Test
   void checkIfFileExistsWithExistentFileThrowsExistentFileException() throws IOException {
     // Arrange
-    File file = buildFile(VALID_FILE);
-    when(fileRepository.findByName(anyString())).thenReturn(Optional.of(file));
+    when(fileRepository.existsByName(anyString())).thenReturn(true);
 
     // Act & Assert
     assertThrows(ExistentFileException.class, () -> fileValidator.checkIfFileExists("fileName"));